@@ -0,0 +1,223 @@
+package com.example.playwright;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.runner.DataRowReader;
+import com.example.playwright.runner.BrowserSessionFactory;
+import com.example.playwright.runner.HtmlReporter;
+import com.example.playwright.runner.JUnitXmlReporter;
+import com.example.playwright.runner.LoadProfile;
+import com.example.playwright.runner.LoadReport;
+import com.example.playwright.runner.LoadRunner;
+import com.example.playwright.runner.MatrixReport;
+import com.example.playwright.runner.MatrixRunner;
+import com.example.playwright.runner.ParallelScenarioRunner;
+import com.example.playwright.runner.ProgressServer;
+import com.example.playwright.runner.ProgressTracker;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioCsvReader;
+import com.example.playwright.runner.ScenarioResult;
+import com.example.playwright.runner.WorkerPool;
+import com.example.playwright.utils.DriverCallStats;
+import com.example.playwright.utils.OtlpJsonExporter;
+import com.example.playwright.utils.PerformanceLog;
+import com.example.playwright.utils.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 複数のCSVシナリオを並列実行するコマンドラインランナー
+ *
+ * 引数にはCSVファイルまたはCSVを含むディレクトリを指定する。
+ * 並列数は runner.threads、先頭ステップの共有は runner.prefixSharing で設定。
+ * --data=データファイル を指定すると、各シナリオをテンプレートとしてデータ行ごとに実行する。
+ * --browser=、--timeout=、--blocking=、--progress=ポート でこの実行だけ設定を上書きできる。
+ * 結果は report.directory に JUnit XML と HTML としてステップごとに追記される。
+ * trace.file を指定すると、シナリオ・ステップ・候補の試行を OTLP JSON のトレースとして書き出す。
+ * --load を指定すると、各シナリオを負荷試験として実行する（--users=、--duration=、--iterations=、--rampup=、--think=）。
+ * --soak を付けると、仮想ユーザーごとに同じページでシナリオを繰り返す（memory.sample と組み合わせてメモリ増加を確認する）。
+ * --matrix（または --matrix=chromium,firefox）を指定すると、全シナリオ × ブラウザを1つのワーカープールで並列実行し、
+ * 結果を1つのレポートにまとめてブラウザごとの所要時間を比較する（同時実行数の上限は matrix.limit.ブラウザ）。
+ */
+public class TestRunner {
+    private static final Logger logger = LoggerFactory.getLogger(TestRunner.class);
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            logger.error("CSVファイルまたはディレクトリを指定してください。");
+            System.exit(1);
+        }
+        TestConfig config = TestConfig.getInstance();
+        String dataFile = null;
+        boolean load = false;
+        boolean matrix = false;
+        List<String> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--data=")) {
+                dataFile = arg.substring("--data=".length());
+            } else if (arg.startsWith("--browser=")) {
+                config = config.withBrowser(arg.substring("--browser=".length()));
+            } else if (arg.startsWith("--timeout=")) {
+                config = config.withTimeout(Integer.parseInt(arg.substring("--timeout=".length())));
+            } else if (arg.startsWith("--blocking=")) {
+                config = config.withBlockingProfile(arg.substring("--blocking=".length()));
+            } else if (arg.startsWith("--progress=")) {
+                config = config.with("progress.port", arg.substring("--progress=".length()));
+            } else if (arg.equals("--matrix")) {
+                matrix = true;
+            } else if (arg.startsWith("--matrix=")) {
+                matrix = true;
+                config = config.with("matrix.browsers", arg.substring("--matrix=".length()));
+            } else if (arg.equals("--load")) {
+                load = true;
+            } else if (arg.equals("--soak")) {
+                config = config.with("load.reuseSession", "true");
+            } else if (arg.startsWith("--users=")) {
+                config = config.with("load.users", arg.substring("--users=".length()));
+            } else if (arg.startsWith("--duration=")) {
+                config = config.with("load.duration", arg.substring("--duration=".length()));
+            } else if (arg.startsWith("--iterations=")) {
+                config = config.with("load.iterations", arg.substring("--iterations=".length()));
+            } else if (arg.startsWith("--rampup=")) {
+                config = config.with("load.rampUp", arg.substring("--rampup=".length()));
+            } else if (arg.startsWith("--think=")) {
+                config = config.with("load.thinkTime", arg.substring("--think=".length()));
+            } else {
+                paths.add(arg);
+            }
+        }
+        List<Scenario> scenarios = loadScenarios(paths);
+        logger.info("シナリオ数: {}", scenarios.size());
+        if (load) {
+            System.exit(runLoad(config, scenarios));
+        }
+        if (matrix && dataFile != null) {
+            logger.error("--matrix と --data は同時に指定できません。");
+            System.exit(1);
+        }
+
+        List<ScenarioResult> results = new ArrayList<>();
+        String reportDirectory = config.getReportDirectory();
+        boolean reporting = reportDirectory != null && !reportDirectory.trim().isEmpty();
+        String traceFile = config.getTraceFile();
+        ProgressTracker progress = new ProgressTracker();
+        // ワーカープール・レポートを閉じた後（全区間の終了後）に書き出しを終える
+        OtlpJsonExporter trace = traceFile.isEmpty() ? null : Tracer.open(Paths.get(traceFile));
+        try (ProgressServer progressServer = config.getProgressPort() > 0 ? new ProgressServer(config.getProgressPort(), progress) : null;
+                WorkerPool pool = new WorkerPool(config, config.getRunnerThreads(), config.getMatrixLimits());
+                JUnitXmlReporter junit = reporting ? new JUnitXmlReporter(Paths.get(reportDirectory, "TEST-csv-scenarios.xml")) : null;
+                HtmlReporter html = reporting ? new HtmlReporter(Paths.get(reportDirectory, "report.html")) : null) {
+            ParallelScenarioRunner runner = new ParallelScenarioRunner(config, pool);
+            if (progressServer != null) {
+                runner.addListener(progress);
+            }
+            if (reporting) {
+                runner.addListener(junit);
+                runner.addListener(html);
+            }
+            if (matrix) {
+                MatrixRunner matrixRunner = new MatrixRunner(config, pool);
+                if (progressServer != null) {
+                    matrixRunner.addListener(progress);
+                }
+                if (reporting) {
+                    matrixRunner.addListener(junit);
+                    matrixRunner.addListener(html);
+                }
+                MatrixReport report = matrixRunner.run(scenarios, config.getMatrixBrowsers(), config.isPrefixSharingEnabled());
+                results.addAll(report.results());
+                logger.info("ブラウザ別の所要時間（括弧内は最も速いブラウザとの比）:\n{}", report.toText());
+                if (reporting) {
+                    html.addFooter(report::toHtml);
+                    report.write(Paths.get(reportDirectory, "matrix.json"));
+                }
+            } else if (dataFile == null) {
+                results.addAll(runner.run(scenarios, config.isPrefixSharingEnabled()));
+            } else {
+                for (Scenario template : scenarios) {
+                    try (DataRowReader rows = new DataRowReader(Paths.get(dataFile))) {
+                        logger.info("データ駆動実行: {} × {}", template.name(), dataFile);
+                        results.addAll(runner.runDataDriven(template, rows));
+                    }
+                }
+            }
+        } finally {
+            if (trace != null) {
+                trace.close();
+            }
+        }
+
+        PerformanceLog.closeAll();
+
+        int failed = 0;
+        for (ScenarioResult result : results) {
+            if (result.passed()) {
+                logger.info("[PASS] {} ({} ms)", result.scenarioName(), result.elapsedMillis());
+            } else {
+                failed++;
+                logger.error("[FAIL] {} ステップ {}: {}", result.scenarioName(), result.failedStep(), result.message());
+            }
+        }
+        logger.info("=== 実行結果: 成功 {} / 失敗 {} ===", results.size() - failed, failed);
+        if (config.isDriverCallStatsEnabled()) {
+            logger.info("ドライバー呼び出しの時間が長いステップ:\n{}", DriverCallStats.report(10));
+        }
+        System.exit(failed == 0 ? 0 : 2);
+    }
+
+    /**
+     * 各シナリオを負荷試験として順に実行し、集計をログと report.directory の load-シナリオ名.json に出力
+     *
+     * @return 終了コード（失敗した実行があれば2）
+     */
+    private static int runLoad(TestConfig config, List<Scenario> scenarios) {
+        LoadProfile profile = LoadProfile.from(config);
+        long failed = 0;
+        for (Scenario scenario : scenarios) {
+            logger.info("負荷試験を開始: {} ({})", scenario.name(), profile);
+            LoadReport report;
+            // 仮想ユーザーのスレッドはシナリオごとに作るため、ブラウザもシナリオごとに起動・終了する
+            try (BrowserSessionFactory sessions = new BrowserSessionFactory(config, scenario.name())) {
+                report = new LoadRunner(profile).run(scenario, sessions);
+            }
+            logger.info("\n{}", report.toText());
+            String reportDirectory = config.getReportDirectory();
+            if (reportDirectory != null && !reportDirectory.trim().isEmpty()) {
+                report.write(Paths.get(reportDirectory,
+                        "load-" + scenario.name().replaceAll("[\\\\/:*?\"<>|#]", "_") + ".json"));
+            }
+            failed += report.failedIterations();
+        }
+        PerformanceLog.closeAll();
+        return failed == 0 ? 0 : 2;
+    }
+
+    /**
+     * 引数のファイル・ディレクトリからシナリオを読み込む
+     */
+    private static List<Scenario> loadScenarios(List<String> args) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.list(path)) {
+                    files.filter(p -> p.toString().endsWith(".csv"))
+                            .sorted()
+                            .forEach(p -> scenarios.add(ScenarioCsvReader.readScenario(p)));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list scenario directory: " + arg, e);
+                }
+            } else {
+                scenarios.add(ScenarioCsvReader.readScenario(path));
+            }
+        }
+        return scenarios;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.playwright.base;
 
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.DriverCallStats;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.WaitForSelectorState;
@@ -15,7 +17,8 @@ public abstract class BasePage {
     protected Page page;
     
     public BasePage(Page page) {
-        this.page = page;
+        // driver.callStats が有効な場合はドライバー呼び出しを数える
+        this.page = TestConfig.getInstance().isDriverCallStatsEnabled() ? DriverCallStats.instrument(page) : page;
     }
     
     /**
@@ -33,31 +33,13 @@ public abstract class BaseTest {
         playwright = Playwright.create();
 
         // ブラウザを起動（システムにインストール済みのブラウザを使用）
-        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                .setHeadless(config.isHeadless())
-                .setSlowMo(config.getSlowMo());
-
-        BrowserType browserType = getBrowserType();
+        BrowserType browserType = BrowserFactory.getBrowserType(playwright, config.getBrowser());
         browserType.launchPersistentContext(Paths.get(userDirPath));
 
-        // システムブラウザを使用する場合はチャンネルを設定
-        if (config.useSystemBrowser()) {
-            String channel = getSystemBrowserChannel(config.getBrowser());
-            if (channel != null) {
-                launchOptions.setChannel(channel);
-            }
-        }
-
-        browser = browserType.launch(launchOptions);
+        browser = browserType.launch(BrowserFactory.createLaunchOptions(config));
 
-        // ブラウザコンテキストを作成
-        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
-                .setViewportSize(1920, 1080);
-
-        context = browser.newContext(contextOptions);
-
-        // デフォルトタイムアウトを設定
-        context.setDefaultTimeout(config.getTimeout());
+        // ブラウザコンテキストを作成（デフォルトタイムアウトも設定）
+        context = BrowserFactory.newContext(browser, config, null);
 
         // ページを作成
         page = context.newPage();
@@ -92,32 +74,6 @@ public abstract class BaseTest {
         logger.info("=== テストクリーンアップ完了 ===");
     }
 
-    /**
-     * ブラウザタイプを取得
-     */
-    private BrowserType getBrowserType() {
-        String browserName = config.getBrowser().toLowerCase();
-        return switch (browserName) {
-            case "firefox" -> playwright.firefox();
-            case "webkit", "safari" -> playwright.webkit();
-            default -> playwright.chromium();
-        };
-    }
-
-    /**
-     * システムにインストール済みのブラウザチャンネルを取得
-     */
-    private String getSystemBrowserChannel(String browserName) {
-        String lowerBrowserName = browserName.toLowerCase();
-        return switch (lowerBrowserName) {
-            case "chrome", "chromium" -> "chrome"; // Google Chrome
-            case "firefox" -> null; // システムFirefox（チャンネル指定なし）
-            case "edge" -> "msedge"; // Microsoft Edge
-            case "webkit", "safari" -> null; // WebKit（チャンネル指定なし）
-            default -> "chrome"; // デフォルトはChrome
-        };
-    }
-
     /**
      * 子クラスで追加のセットアップが必要な場合にオーバーライド
      */
@@ -0,0 +1,167 @@
+package com.example.playwright.base;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.FakeClock;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.ReducedMotion;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ブラウザ・ブラウザコンテキストの生成を一元管理するクラス
+ * BaseTestと並列ランナーの両方から利用する
+ */
+public class BrowserFactory {
+    // fast プロファイルで Chromium 系ブラウザに渡す起動引数
+    // （バックグラウンド時の処理抑制・拡張機能・不要なブラウザ機能を無効化）
+    private static final List<String> FAST_CHROMIUM_ARGS = List.of(
+            "--disable-background-timer-throttling",
+            "--disable-backgrounding-occluded-windows",
+            "--disable-renderer-backgrounding",
+            "--disable-extensions",
+            "--disable-component-extensions-with-background-pages",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--no-first-run",
+            "--mute-audio",
+            "--disable-smooth-scrolling",
+            "--disable-features=Translate,MediaRouter,OptimizationHints");
+
+    // media ブロックプロファイルで読み込みを止めるリソースの種類
+    private static final Set<String> MEDIA_RESOURCE_TYPES = Set.of("image", "media", "font");
+
+    private BrowserFactory() {
+    }
+
+    /**
+     * 設定に従ってブラウザを起動
+     */
+    public static Browser launch(Playwright playwright, TestConfig config) {
+        return getBrowserType(playwright, config.getBrowser()).launch(createLaunchOptions(config));
+    }
+
+    /**
+     * 設定に従ったブラウザ起動オプションを作成
+     */
+    public static BrowserType.LaunchOptions createLaunchOptions(TestConfig config) {
+        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
+                .setHeadless(config.isHeadless())
+                .setSlowMo(config.getSlowMo());
+
+        // システムブラウザを使用する場合はチャンネルを設定
+        if (config.useSystemBrowser()) {
+            String channel = getSystemBrowserChannel(config.getBrowser());
+            if (channel != null) {
+                launchOptions.setChannel(channel);
+            }
+        }
+
+        // fast プロファイル（ヘッドレス・slowMoなしは TestConfig 側で適用済み）
+        if (config.isFastProfile() && isChromiumFamily(config.getBrowser())) {
+            launchOptions.setArgs(FAST_CHROMIUM_ARGS);
+        }
+        return launchOptions;
+    }
+
+    /**
+     * ブラウザコンテキストを作成
+     *
+     * @param storageState 引き継ぐストレージ状態（JSON文字列、nullなら空の状態）
+     */
+    public static BrowserContext newContext(Browser browser, TestConfig config, String storageState) {
+        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
+                .setViewportSize(1920, 1080);
+        if (config.isFastProfile()) {
+            contextOptions.setReducedMotion(ReducedMotion.REDUCE);
+        }
+        if (storageState != null) {
+            contextOptions.setStorageState(storageState);
+        }
+
+        BrowserContext context = browser.newContext(contextOptions);
+
+        // デフォルトタイムアウトを設定
+        context.setDefaultTimeout(config.getTimeout());
+
+        // 不要なリソースの読み込みを止める
+        if ("media".equals(config.getBlockingProfile())) {
+            context.route("**/*", route -> {
+                if (MEDIA_RESOURCE_TYPES.contains(route.request().resourceType())) {
+                    route.abort();
+                } else {
+                    route.resume();
+                }
+            });
+        }
+
+        // アニメーション・トランジションを無効化（完了待ちを無くす）
+        if (config.isFastProfile()) {
+            context.addInitScript(DISABLE_ANIMATIONS_SCRIPT);
+        }
+
+        // 時計を操作可能にする（「時間経過」アクションで進める）
+        if (config.isFakeClockEnabled()) {
+            FakeClock.install(context);
+        }
+        return context;
+    }
+
+    /**
+     * ブラウザタイプを取得
+     */
+    public static BrowserType getBrowserType(Playwright playwright, String browserName) {
+        return switch (browserName.toLowerCase()) {
+            case "firefox" -> playwright.firefox();
+            case "webkit", "safari" -> playwright.webkit();
+            default -> playwright.chromium();
+        };
+    }
+
+    /**
+     * Chromium 系（Chrome・Edge・Chromium）のブラウザか
+     */
+    private static boolean isChromiumFamily(String browserName) {
+        return switch (browserName.toLowerCase()) {
+            case "firefox", "webkit", "safari" -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * システムにインストール済みのブラウザチャンネルを取得
+     */
+    public static String getSystemBrowserChannel(String browserName) {
+        String lowerBrowserName = browserName.toLowerCase();
+        return switch (lowerBrowserName) {
+            case "chrome", "chromium" -> "chrome"; // Google Chrome
+            case "firefox" -> null; // システムFirefox（チャンネル指定なし）
+            case "edge", "msedge" -> "msedge"; // Microsoft Edge
+            case "webkit", "safari" -> null; // WebKit（チャンネル指定なし）
+            default -> "chrome"; // デフォルトはChrome
+        };
+    }
+
+    // 全ての要素のアニメーション・トランジションを即座に完了させるスタイルを挿入するスクリプト
+    private static final String DISABLE_ANIMATIONS_SCRIPT = """
+            (() => {
+              const style = document.createElement('style');
+              style.textContent = `*, *::before, *::after {
+                animation-duration: 0s !important;
+                animation-delay: 0s !important;
+                transition-duration: 0s !important;
+                transition-delay: 0s !important;
+                scroll-behavior: auto !important;
+              }`;
+              const add = () => (document.head || document.documentElement).appendChild(style);
+              if (document.documentElement) {
+                add();
+              } else {
+                document.addEventListener('DOMContentLoaded', add, { once: true });
+              }
+            })()
+            """;
+}
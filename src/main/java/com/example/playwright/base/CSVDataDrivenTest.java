@@ -1,17 +1,22 @@
 package com.example.playwright.base;
 
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.runner.ScenarioCsvReader;
+import com.example.playwright.utils.DriverCallStats;
+import com.example.playwright.utils.FakeClock;
 import com.example.playwright.utils.TestActionExecutor;
+import com.example.playwright.utils.OtlpJsonExporter;
+import com.example.playwright.utils.PerformanceLog;
+import com.example.playwright.utils.StepTraffic;
+import com.example.playwright.utils.ScenarioEvent;
+import com.example.playwright.utils.Span;
+import com.example.playwright.utils.TimeBudget;
+import com.example.playwright.utils.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.BufferedReader;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Arrays;
-import java.io.FileInputStream;
 
 /**
  * CSV駆動型テストの基底クラス
@@ -35,14 +40,28 @@ public class CSVDataDrivenTest extends BaseTest {
                 actionExecutor = new TestActionExecutor(page);
             }
         };
+        String traceFile = TestConfig.getInstance().getTraceFile();
+        OtlpJsonExporter trace = traceFile.isEmpty() ? null : Tracer.open(Paths.get(traceFile));
+        boolean failed = false;
         try {
             runner.setUp(args[1]);
             runner.executeTestStepsFromCsv(csvFileName);
         } catch (Exception e) {
             logger.error("テスト実行中にエラー: {}", e.getMessage(), e);
-            System.exit(2);
+            failed = true;
         } finally {
             runner.tearDown();
+            PerformanceLog.closeAll();
+            // 失敗したシナリオのトレースも書き出してから終了する
+            if (trace != null) {
+                trace.close();
+            }
+            if (TestConfig.getInstance().isDriverCallStatsEnabled()) {
+                logger.info("ドライバー呼び出しの時間が長いステップ:\n{}", DriverCallStats.report(10));
+            }
+        }
+        if (failed) {
+            System.exit(2);
         }
     }
 
@@ -57,11 +76,39 @@ public class CSVDataDrivenTest extends BaseTest {
     protected void executeTestStepsFromCsv(String csvFileName) {
         logger.info("CSVシナリオ実行: {}", csvFileName);
         List<Map<String, String>> steps = loadCsvData(csvFileName);
+        int stepInterval = config.getStepInterval();
+        // シナリオ全体の制限時間（CSVの #timeout= を優先）
+        String timeout = ScenarioCsvReader.readMetadata(csvFileName).get("timeout");
+        long timeoutMillis = timeout != null ? FakeClock.parseDuration(timeout) : config.getScenarioTimeout();
+        if (timeoutMillis > 0) {
+            actionExecutor.setBudget(TimeBudget.ofMillis(timeoutMillis));
+        }
+        actionExecutor.setScenarioName(csvFileName);
+        ScenarioEvent event = new ScenarioEvent();
+        event.begin();
+        try (Span span = Tracer.start("scenario").setAttribute("scenario", csvFileName)) {
+            runSteps(steps, stepInterval, span, event);
+            event.passed = true;
+        } finally {
+            event.scenario = csvFileName;
+            event.commit();
+            StepTraffic traffic = actionExecutor.getTrafficTotal();
+            if (traffic != null) {
+                logger.info("シナリオの通信合計: {}", traffic.summary());
+            }
+        }
+    }
+
+    /**
+     * ステップを順に実行（失敗したステップでシナリオの区間・イベントを失敗にする）
+     */
+    private void runSteps(List<Map<String, String>> steps, int stepInterval, Span span, ScenarioEvent event) {
         for (Map<String, String> step : steps) {
             String stepNo = step.get("ステップ");
             String action = step.get("アクション");
             String element = step.get("要素");
             String inputValue = step.get("入力値");
+            String expected = step.get("期待結果");
             String description = step.get("説明");
             // ステップ番号が空の場合はスキップ
             if (stepNo == null || stepNo.trim().isEmpty()) {
@@ -69,10 +116,17 @@ public class CSVDataDrivenTest extends BaseTest {
             }
             logger.info("実行中: ステップ {} - {}", stepNo, description);
             try {
-                actionExecutor.executeAction(action, element, inputValue);
-                Thread.sleep(10000); // 各ステップ間で10秒待機
-            } catch (Exception e) {
+                actionExecutor.executeAction(action, element, inputValue, expected);
+                if (stepInterval > 0) {
+                    Thread.sleep(stepInterval); // 各ステップ間の固定待機（確認ステップは自動リトライするため通常は不要）
+                }
+            } catch (Exception | AssertionError e) {
+                span.fail(e);
+                event.failedStep = stepNo;
                 logger.error("ステップ {} でエラー: {}", stepNo, e.getMessage(), e);
+                if (e instanceof AssertionError assertion) {
+                    throw assertion;
+                }
                 throw new RuntimeException("Test step failed: " + stepNo, e);
             }
         }
@@ -85,37 +139,6 @@ public class CSVDataDrivenTest extends BaseTest {
      * @return 各行をMap化したリスト
      */
     private List<Map<String, String>> loadCsvData(String csvFileName) {
-        try {
-            InputStream is = new FileInputStream(csvFileName); // フルパスでファイルを開く
-            List<Map<String, String>> data = new ArrayList<>();
-            InputStreamReader reader = new InputStreamReader(is, "UTF-8");
-            BufferedReader bufferedReader = new BufferedReader(reader);
-            String[] headers = null;
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                if (line.startsWith("\uFEFF")) {
-                    line = line.substring(1);
-                }
-                String[] values = line.split(",", -1); // -1 to include empty strings
-                if (headers == null) {
-                    headers = values; // 最初の行はヘッダー
-                    logger.info("CSV Headers: {}", Arrays.toString(headers));
-                } else {
-                    Map<String, String> row = new HashMap<>();
-                    for (int i = 0; i < Math.min(headers.length, values.length); i++) {
-                        String key = headers[i].trim();
-                        String value = values[i].trim();
-                        row.put(key, value);
-                        logger.debug("  {} = {}", key, value);
-                    }
-                    data.add(row);
-                }
-            }
-            bufferedReader.close();
-            return data;
-        } catch (Exception e) {
-            logger.error("Failed to load CSV file: {}", csvFileName, e);
-            throw new RuntimeException("Failed to load CSV file: " + csvFileName, e);
-        }
+        return ScenarioCsvReader.readRows(csvFileName);
     }
 }
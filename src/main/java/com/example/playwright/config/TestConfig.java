@@ -2,74 +2,364 @@ package com.example.playwright.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * 汎用的なテスト設定管理クラス
+ *
+ * 設定値は読み込み時に一度だけ型変換した不変のスナップショットで、複数スレッドから安全に参照できる。
+ * getInstance() は test.properties をシステムプロパティで上書きした共通の設定を返す。
+ * ワーカーやシナリオごとに一部の値だけ変えたい場合は withBrowser() 等で上書きしたコピーを作成する
+ * （元の設定は変更されず、上書きした値以外はコピーせずに元の設定を参照する）。
  */
-public class TestConfig {
+public final class TestConfig {
     private static final Logger logger = LoggerFactory.getLogger(TestConfig.class);
-    private static TestConfig instance;
-    private Properties properties;
     
-    private TestConfig() {
-        loadProperties();
+    // 共通の設定（初回参照時にクラス初期化として1回だけ読み込まれ、安全に公開される）
+    private static final class Holder {
+        private static final TestConfig INSTANCE = new TestConfig(loadProperties(), Map.of());
+    }
+    
+    // 上書き元の設定値と、このスナップショットでの上書き値
+    private final Map<String, String> base;
+    private final Map<String, String> overrides;
+    
+    private final String browser;
+    private final String profile;
+    private final boolean headless;
+    private final boolean useSystemBrowser;
+    private final int slowMo;
+    private final int timeout;
+    private final int assertTimeout;
+    private final int stepInterval;
+    private final long scenarioTimeout;
+    private final boolean searchAllFrames;
+    private final boolean fakeClock;
+    private final String blockingProfile;
+    private final String baseUrl;
+    private final int runnerThreads;
+    private final boolean screenshotOnFailure;
+    private final String screenshotDirectory;
+    private final String reportDirectory;
+    private final String traceFile;
+    private final boolean driverCallStats;
+    private final boolean networkStepStats;
+    private final List<String> firstPartyDomains;
+    private final boolean memorySample;
+    private final String memoryFile;
+    private final int memoryLeakWindow;
+    private final int progressPort;
+    private final String perfFile;
+    private final boolean perfOnNavigate;
+    private final Map<String, String> perfBudgets;
+    private final boolean prefixSharing;
+    private final List<String> matrixBrowsers;
+    private final Map<String, Integer> matrixLimits;
+    
+    private TestConfig(Map<String, String> base, Map<String, String> overrides) {
+        this.base = base;
+        this.overrides = overrides;
+        this.browser = getProperty("playwright.browser", "chrome");
+        this.profile = getProperty("playwright.profile", "default").trim().toLowerCase();
+        // fast プロファイルはヘッドレス・slowMoなしを強制
+        this.headless = isFastProfile() || Boolean.parseBoolean(getProperty("playwright.headless", "false"));
+        this.useSystemBrowser = Boolean.parseBoolean(getProperty("playwright.useSystemBrowser", "true"));
+        this.slowMo = isFastProfile() ? 0 : Integer.parseInt(getProperty("playwright.slowMo", "0"));
+        this.timeout = Integer.parseInt(getProperty("playwright.timeout", "30000"));
+        this.assertTimeout = Integer.parseInt(getProperty("assert.timeout", "5000"));
+        this.stepInterval = Integer.parseInt(getProperty("scenario.stepInterval", "0"));
+        this.scenarioTimeout = Long.parseLong(getProperty("scenario.timeout", "0"));
+        this.searchAllFrames = Boolean.parseBoolean(getProperty("frame.searchAllFrames", "false"));
+        this.fakeClock = Boolean.parseBoolean(getProperty("clock.fake", "false"));
+        this.blockingProfile = getProperty("network.blocking", "none").trim().toLowerCase();
+        this.baseUrl = getProperty("test.baseUrl", "http://localhost:3000");
+        this.runnerThreads = Integer.parseInt(getProperty("runner.threads", "4"));
+        this.screenshotOnFailure = Boolean.parseBoolean(getProperty("screenshot.onFailure", "true"));
+        this.screenshotDirectory = getProperty("screenshot.directory", "screenshots");
+        this.reportDirectory = getProperty("report.directory", "reports");
+        this.traceFile = getProperty("trace.file", "").trim();
+        this.driverCallStats = Boolean.parseBoolean(getProperty("driver.callStats", "false"));
+        this.networkStepStats = Boolean.parseBoolean(getProperty("network.stepStats", "false"));
+        this.firstPartyDomains = java.util.Arrays.stream(getProperty("network.firstParty", "").split(","))
+                .map(String::trim).filter(domain -> !domain.isEmpty()).toList();
+        this.memorySample = Boolean.parseBoolean(getProperty("memory.sample", "false"));
+        this.memoryFile = getProperty("memory.file", "reports/memory-samples.jsonl");
+        this.memoryLeakWindow = Integer.parseInt(getProperty("memory.leakWindow", "5").trim());
+        String port = getProperty("progress.port", "").trim();
+        this.progressPort = port.isEmpty() ? 0 : Integer.parseInt(port);
+        this.perfFile = getProperty("perf.file", "reports/perf-metrics.jsonl");
+        this.perfOnNavigate = Boolean.parseBoolean(getProperty("perf.onNavigate", "false"));
+        this.perfBudgets = withPrefix("perf.budget.");
+        this.prefixSharing = Boolean.parseBoolean(getProperty("runner.prefixSharing", "false"));
+        this.matrixBrowsers = java.util.Arrays.stream(getProperty("matrix.browsers", "chromium,firefox,webkit,msedge").split(","))
+                .map(String::trim).filter(name -> !name.isEmpty()).toList();
+        Map<String, Integer> limits = new TreeMap<>();
+        withPrefix("matrix.limit.").forEach((name, limit) -> limits.put(name, Integer.parseInt(limit.trim())));
+        this.matrixLimits = Map.copyOf(limits);
     }
     
     public static TestConfig getInstance() {
-        if (instance == null) {
-            instance = new TestConfig();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
-    private void loadProperties() {
-        properties = new Properties();
-        
+    /**
+     * 指定した設定値から作成（システムプロパティ・test.properties は参照しない）
+     */
+    public static TestConfig of(Map<String, String> properties) {
+        return new TestConfig(Map.copyOf(properties), Map.of());
+    }
+    
+    private static Map<String, String> loadProperties() {
+        Properties properties = new Properties();
+    
         // デフォルト設定を読み込み
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("test.properties")) {
+        try (InputStream is = TestConfig.class.getClassLoader().getResourceAsStream("test.properties")) {
             if (is != null) {
                 properties.load(is);
             }
         } catch (IOException e) {
             logger.error("Failed to load test.properties: {}", e.getMessage(), e);
         }
-        
+    
         // システムプロパティで上書き
         properties.putAll(System.getProperties());
+    
+        Map<String, String> values = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return Map.copyOf(values);
+    }
+    
+    /**
+     * 指定した設定値を上書きしたコピーを作成
+     */
+    public TestConfig with(String key, String value) {
+        Map<String, String> merged = new HashMap<>(overrides);
+        merged.put(key, value);
+        return new TestConfig(base, Map.copyOf(merged));
+    }
+    
+    public TestConfig withBrowser(String browser) {
+        return with("playwright.browser", browser);
+    }
+    
+    public TestConfig withTimeout(int timeout) {
+        return with("playwright.timeout", String.valueOf(timeout));
+    }
+    
+    public TestConfig withBlockingProfile(String blockingProfile) {
+        return with("network.blocking", blockingProfile);
     }
     
     public String getBrowser() {
-        return properties.getProperty("playwright.browser", "chrome");
+        return browser;
+    }
+    
+    /**
+     * 実行プロファイル（default または fast）
+     * fast はヘッドレス・slowMoなし・アニメーション無効等の高速実行向け設定をまとめて適用する
+     */
+    public String getProfile() {
+        return profile;
+    }
+    
+    public boolean isFastProfile() {
+        return "fast".equals(profile);
     }
     
     public boolean isHeadless() {
-        return Boolean.parseBoolean(properties.getProperty("playwright.headless", "false"));
+        return headless;
     }
     
     public boolean useSystemBrowser() {
-        return Boolean.parseBoolean(properties.getProperty("playwright.useSystemBrowser", "true"));
+        return useSystemBrowser;
     }
     
     public int getSlowMo() {
-        return Integer.parseInt(properties.getProperty("playwright.slowMo", "0"));
+        return slowMo;
     }
     
     public int getTimeout() {
-        return Integer.parseInt(properties.getProperty("playwright.timeout", "30000"));
+        return timeout;
+    }
+    
+    public int getAssertTimeout() {
+        return assertTimeout;
+    }
+    
+    public int getStepInterval() {
+        return stepInterval;
+    }
+    
+    /**
+     * シナリオ全体の制限時間（ms、0は無制限）
+     */
+    public long getScenarioTimeout() {
+        return scenarioTimeout;
+    }
+    
+    public boolean isSearchAllFramesEnabled() {
+        return searchAllFrames;
+    }
+    
+    public boolean isFakeClockEnabled() {
+        return fakeClock;
+    }
+    
+    /**
+     * 読み込みを止めるリソースの種類（none: 止めない、media: 画像・動画・フォントを止める）
+     */
+    public String getBlockingProfile() {
+        return blockingProfile;
     }
     
     public String getBaseUrl() {
-        return properties.getProperty("test.baseUrl", "http://localhost:3000");
+        return baseUrl;
+    }
+    
+    public int getRunnerThreads() {
+        return runnerThreads;
+    }
+    
+    public boolean isPrefixSharingEnabled() {
+        return prefixSharing;
+    }
+    
+    /**
+     * マトリクス実行（TestRunner --matrix）で使うブラウザ
+     */
+    public List<String> getMatrixBrowsers() {
+        return matrixBrowsers;
+    }
+    
+    /**
+     * ブラウザごとの同時実行数の上限（matrix.limit.ブラウザ=数 のブラウザ → 数）
+     */
+    public Map<String, Integer> getMatrixLimits() {
+        return matrixLimits;
+    }
+    
+    public boolean isScreenshotOnFailure() {
+        return screenshotOnFailure;
+    }
+    
+    public String getScreenshotDirectory() {
+        return screenshotDirectory;
+    }
+    
+    /**
+     * レポート（JUnit XML・HTML）の出力先ディレクトリ（空の場合は出力しない）
+     */
+    public String getReportDirectory() {
+        return reportDirectory;
+    }
+    
+    /**
+     * トレース（OTLP JSON）の出力ファイル（空の場合は記録しない）
+     */
+    public String getTraceFile() {
+        return traceFile;
+    }
+    
+    /**
+     * Page・Locator のドライバー呼び出しをステップごとに数えるか
+     */
+    public boolean isDriverCallStatsEnabled() {
+        return driverCallStats;
+    }
+    
+    /**
+     * ステップごとにリクエスト数・転送量・失敗・第三者の割合を集計するか
+     */
+    public boolean isNetworkStepStatsEnabled() {
+        return networkStepStats;
+    }
+    
+    /**
+     * ファーストパーティとして扱うドメイン（メインフレームの遷移先のサイトは自動的に含まれる）
+     */
+    public List<String> getFirstPartyDomains() {
+        return firstPartyDomains;
+    }
+    
+    /**
+     * ステップごとに JSヒープ・DOMノード数・イベントリスナー数を記録するか（Chromium系のみ）
+     */
+    public boolean isMemorySampleEnabled() {
+        return memorySample;
+    }
+    
+    /**
+     * メモリ指標の時系列（1行1件の JSON）を記録するファイル
+     */
+    public String getMemoryFile() {
+        return memoryFile;
+    }
+    
+    /**
+     * 繰り返し実行で何回続けて増加したらリークの疑いとするか
+     */
+    public int getMemoryLeakWindow() {
+        return memoryLeakWindow;
+    }
+    
+    /**
+     * 進行状況を表示するローカルHTTPサーバーのポート（0 の場合は起動しない）
+     */
+    public int getProgressPort() {
+        return progressPort;
+    }
+    
+    /**
+     * 性能計測の結果（1行1件の JSON）を記録するファイル
+     */
+    public String getPerfFile() {
+        return perfFile;
+    }
+    
+    /**
+     * 遷移アクションのたびに性能を計測するか
+     */
+    public boolean isPerfOnNavigate() {
+        return perfOnNavigate;
+    }
+    
+    /**
+     * URLパターンごとの性能予算（perf.budget.名前=URLパターン | 予算 の 名前 → 値）
+     */
+    public Map<String, String> getPerfBudgets() {
+        return perfBudgets;
+    }
+    
+    /**
+     * 指定した接頭辞で始まる設定値（接頭辞を除いたキー → 値）
+     */
+    private Map<String, String> withPrefix(String prefix) {
+        Map<String, String> values = new TreeMap<>();
+        for (Map<String, String> source : List.of(base, overrides)) {
+            source.forEach((key, value) -> {
+                if (key.startsWith(prefix) && !value.isBlank()) {
+                    values.put(key.substring(prefix.length()), value);
+                }
+            });
+        }
+        return Map.copyOf(values);
     }
     
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        String value = overrides.get(key);
+        return value != null ? value : base.get(key);
     }
     
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
 }
@@ -0,0 +1,108 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.base.BrowserFactory;
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.TestActionExecutor;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 負荷試験の仮想ユーザーごとにブラウザを用意し、1回の実行ごとに新しい BrowserContext で TestActionExecutor を作る
+ *
+ * Playwright はスレッドセーフではないため、WorkerPool と同様に仮想ユーザーのスレッドごとに Playwright/Browser を持つ。
+ * ブラウザを起動できなかったスレッドでは Playwright を閉じて失敗を記録し、以降は起動をやり直さずにそのユーザーを止める。
+ */
+public class BrowserSessionFactory implements LoadRunner.SessionFactory, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserSessionFactory.class);
+    private final TestConfig config;
+    private final String scenarioName;
+    private final ThreadLocal<Browser> browsers = new ThreadLocal<>();
+    private final ThreadLocal<RuntimeException> failures = new ThreadLocal<>();
+    private final Queue<Playwright> playwrights = new ConcurrentLinkedQueue<>();
+
+    public BrowserSessionFactory(TestConfig config, String scenarioName) {
+        this.config = config;
+        this.scenarioName = scenarioName;
+    }
+
+    @Override
+    public LoadRunner.Session open() {
+        BrowserContext context = BrowserFactory.newContext(browser(), config, null);
+        TestActionExecutor executor = new TestActionExecutor(context.newPage(), config);
+        executor.setScenarioName(scenarioName);
+        return new LoadRunner.Session() {
+            private boolean started;
+
+            @Override
+            public void startIteration() {
+                // 同じページでの2回目以降を区切る（メモリ指標は回ごとに比べる）
+                if (started) {
+                    executor.startIteration();
+                }
+                started = true;
+            }
+
+            @Override
+            public void execute(ScenarioStep step) {
+                executor.executeAction(step.action(), step.element(), step.inputValue(), step.expected());
+            }
+
+            @Override
+            public void close() {
+                try {
+                    executor.checkMemoryGrowth();
+                } finally {
+                    context.close();
+                }
+            }
+        };
+    }
+
+    private Browser browser() {
+        Browser browser = browsers.get();
+        if (browser != null) {
+            return browser;
+        }
+        RuntimeException failure = failures.get();
+        if (failure == null) {
+            Playwright playwright = null;
+            try {
+                playwright = Playwright.create();
+                browser = BrowserFactory.launch(playwright, config);
+                playwrights.add(playwright);
+                browsers.set(browser);
+                return browser;
+            } catch (RuntimeException e) {
+                failure = e;
+                failures.set(e);
+                if (playwright != null) {
+                    try {
+                        playwright.close();
+                    } catch (Exception closeError) {
+                        logger.warn("Failed to close Playwright: {}", closeError.getMessage());
+                    }
+                }
+            }
+        }
+        throw new LoadRunner.SessionUnavailableException(
+                "Failed to launch browser " + config.getBrowser() + ": " + failure.getMessage(), failure);
+    }
+
+    @Override
+    public void close() {
+        Playwright playwright;
+        while ((playwright = playwrights.poll()) != null) {
+            try {
+                playwright.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close Playwright: {}", e.getMessage());
+            }
+        }
+    }
+}
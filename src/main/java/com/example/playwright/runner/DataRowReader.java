@@ -0,0 +1,100 @@
+package com.example.playwright.runner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * データファイル（CSV）を1行ずつ読み込むイテレータ
+ *
+ * 全行をメモリに読み込まず、呼び出し側が次の行を要求した時点でファイルから読む。
+ * 名前空間はファイル名（拡張子なし）で、シナリオ中では ${名前空間.列名} で参照する。
+ */
+public class DataRowReader implements Iterator<DataRowReader.DataRow>, AutoCloseable {
+    private final String namespace;
+    private final BufferedReader reader;
+    private final String[] headers;
+    private String nextLine;
+    private int rowNumber;
+
+    public DataRowReader(Path dataFile) {
+        String fileName = dataFile.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.namespace = dot > 0 ? fileName.substring(0, dot) : fileName;
+        try {
+            this.reader = Files.newBufferedReader(dataFile, StandardCharsets.UTF_8);
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("Data file is empty: " + dataFile);
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
+            }
+            this.headers = ScenarioCsvReader.parseLine(headerLine);
+            this.nextLine = readNonEmptyLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open data file: " + dataFile, e);
+        }
+    }
+
+    /**
+     * データの名前空間（プレースホルダーの接頭辞）
+     */
+    public String namespace() {
+        return namespace;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public DataRow next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> values = ScenarioCsvReader.toRow(headers, ScenarioCsvReader.parseLine(nextLine));
+        rowNumber++;
+        try {
+            nextLine = readNonEmptyLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read data file", e);
+        }
+        return new DataRow(rowNumber, values);
+    }
+
+    private String readNonEmptyLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * データファイルの1行
+     *
+     * @param number 行番号（ヘッダーを除き1から開始）
+     * @param values 列名→値
+     */
+    public record DataRow(int number, Map<String, String> values) {
+    }
+}
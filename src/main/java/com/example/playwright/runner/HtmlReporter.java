@@ -0,0 +1,179 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.utils.StepTraffic;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ステップの結果を1ファイルで完結するHTMLレポートに逐次書き出すリスナー
+ *
+ * スタイルはファイル内に埋め込み、ステップ・シナリオの結果を終わった順に表の行として追記・フラッシュする。
+ * ブラウザは閉じタグが無くても表示できるため、実行中や異常終了後でもそれまでの結果を確認できる。
+ * 通信量の集計（network.stepStats）がある場合は、ステップごとの通信とシナリオごとの合計も表示する。
+ */
+public class HtmlReporter implements ScenarioListener, AutoCloseable {
+    private final BufferedWriter writer;
+    private final Path directory;
+    private int passed;
+    private int failed;
+    // シナリオ名 → 結果が確定するまでの通信量の合計
+    private final Map<String, StepTraffic> traffic = new HashMap<>();
+    // 閉じるときに結果の表の後に追加する内容（マトリクス実行のブラウザ別比較等）
+    private final List<Supplier<String>> footers = new ArrayList<>();
+
+    public HtmlReporter(Path file) {
+        try {
+            directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write(HEADER.replace("{started}",
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open report: " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void stepFinished(StepRecord record) {
+        ScenarioStep step = record.step();
+        StringBuilder html = new StringBuilder();
+        html.append("<tr class=\"").append(record.passed() ? "ok" : "ng").append("\">")
+                .append("<td>").append(escape(record.scenarioName())).append("</td>")
+                .append("<td>").append(escape(step.stepNo())).append("</td>")
+                .append("<td>").append(escape(step.action())).append("</td>")
+                .append("<td>").append(escape(step.element())).append("</td>")
+                .append("<td class=\"num\">").append(record.durationMillis()).append("</td>")
+                .append("<td>").append(record.passed() ? "OK" : "NG: " + escape(record.error())).append("</td>")
+                .append("<td class=\"net\">");
+        if (record.traffic() != null) {
+            html.append(escape(record.traffic().summary()));
+            for (StepTraffic.Entry entry : record.traffic().failed()) {
+                html.append("<br>NG: ").append(escape(entry.toString()));
+            }
+            traffic.computeIfAbsent(record.scenarioName(), key -> new StepTraffic()).merge(record.traffic());
+        }
+        html.append("</td><td>");
+        for (String artifact : record.artifacts()) {
+            html.append("<a href=\"").append(escape(link(artifact))).append("\">")
+                    .append(escape(Path.of(artifact).getFileName().toString())).append("</a> ");
+        }
+        html.append("</td></tr>\n");
+        write(html.toString());
+    }
+
+    @Override
+    public synchronized void scenarioFinished(ScenarioResult result) {
+        if (result.passed()) {
+            passed++;
+        } else {
+            failed++;
+        }
+        write("<tr class=\"scenario " + (result.passed() ? "ok" : "ng") + "\"><td colspan=\"4\">"
+                + escape(result.scenarioName()) + "</td><td class=\"num\">" + result.elapsedMillis() + "</td><td>"
+                + (result.passed() ? "シナリオ成功" : "シナリオ失敗（ステップ " + escape(result.failedStep()) + "）")
+                + "</td><td class=\"net\">" + trafficTotal(result.scenarioName()) + "</td><td></td></tr>\n");
+    }
+
+    /**
+     * シナリオの通信量の合計と、転送量の多いホスト（ブロック・スタブ化の候補）
+     */
+    private String trafficTotal(String scenarioName) {
+        StepTraffic total = traffic.remove(scenarioName);
+        if (total == null) {
+            return "";
+        }
+        StringBuilder html = new StringBuilder("合計 ").append(escape(total.summary()));
+        for (Map.Entry<String, long[]> host : total.topHosts(3)) {
+            html.append("<br>").append(escape(host.getKey())).append(": ").append(host.getValue()[0]).append(" 件, ")
+                    .append(escape(StepTraffic.formatBytes(host.getValue()[1])));
+        }
+        return html.toString();
+    }
+
+    /**
+     * 閉じるときに結果の表・集計の後に追加する HTML を登録
+     */
+    public synchronized void addFooter(Supplier<String> html) {
+        footers.add(html);
+    }
+
+    /**
+     * 集計を書き込んでファイルを閉じる
+     */
+    @Override
+    public synchronized void close() {
+        write("</tbody></table>\n<p class=\"summary\">成功 " + passed + " / 失敗 " + failed + "</p>\n");
+        footers.forEach(footer -> write(footer.get()));
+        write("</body></html>\n");
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close report", e);
+        }
+    }
+
+    /**
+     * レポートからの相対リンク（別ドライブ等で相対化できない場合は file: URI）
+     */
+    private String link(String artifact) {
+        Path target = Path.of(artifact).toAbsolutePath();
+        try {
+            String relative = directory.relativize(target).toString().replace('\\', '/');
+            return new URI(null, null, relative, null).toASCIIString();
+        } catch (IllegalArgumentException | java.net.URISyntaxException e) {
+            return target.toUri().toString();
+        }
+    }
+
+    private void write(String text) {
+        try {
+            writer.write(text);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report", e);
+        }
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static final String HEADER = """
+            <!DOCTYPE html>
+            <html lang="ja"><head><meta charset="UTF-8"><title>シナリオ実行レポート</title>
+            <style>
+            body { font-family: sans-serif; margin: 1.5em; }
+            table { border-collapse: collapse; width: 100%; font-size: 13px; }
+            th, td { border: 1px solid #ccc; padding: 4px 6px; text-align: left; vertical-align: top; }
+            th { background: #f0f0f0; position: sticky; top: 0; }
+            td.num { text-align: right; }
+            td.net { font-size: 12px; }
+            tr.ng td, td.ng { background: #fde8e8; }
+            tr.scenario td { font-weight: bold; background: #e8f4e8; }
+            tr.scenario.ng td { background: #f8c8c8; }
+            .summary { font-size: 16px; font-weight: bold; }
+            </style></head>
+            <body>
+            <h1>シナリオ実行レポート</h1>
+            <p>開始: {started}</p>
+            <table><thead><tr><th>シナリオ</th><th>ステップ</th><th>アクション</th><th>要素</th><th>時間(ms)</th><th>結果</th><th>通信</th><th>添付</th></tr></thead>
+            <tbody>
+            """;
+}
@@ -0,0 +1,96 @@
+package com.example.playwright.runner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * ステップの結果を JUnit XML 形式で逐次ファイルに書き出すリスナー
+ *
+ * ステップ1件を testcase 1件（classname=シナリオ名）として、終わった順に追記・フラッシュする。
+ * 結果をメモリに溜めないため、シナリオ数に関係なく使用メモリは一定で、
+ * 途中で異常終了してもそれまでの結果はファイルに残る（閉じタグのみ欠ける）。
+ */
+public class JUnitXmlReporter implements ScenarioListener, AutoCloseable {
+    private final BufferedWriter writer;
+    private int tests;
+    private int failures;
+
+    public JUnitXmlReporter(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<testsuite name=\"csv-scenarios\" timestamp=\""
+                    + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\">\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open report: " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void stepFinished(StepRecord record) {
+        ScenarioStep step = record.step();
+        String name = "ステップ " + step.stepNo() + ": " + step.action()
+                + (step.element().isEmpty() ? "" : " " + step.element());
+        StringBuilder xml = new StringBuilder();
+        xml.append("  <testcase classname=\"").append(escape(record.scenarioName()))
+                .append("\" name=\"").append(escape(name))
+                .append("\" time=\"").append(String.format(Locale.ROOT, "%.3f", record.durationMillis() / 1000.0))
+                .append("\">\n");
+        if (!record.passed()) {
+            xml.append("    <failure message=\"").append(escape(record.error())).append("\"/>\n");
+        }
+        if (!record.artifacts().isEmpty()) {
+            xml.append("    <system-out>");
+            for (String artifact : record.artifacts()) {
+                // Jenkins 等の添付ファイル表示で認識される形式
+                xml.append(escape("[[ATTACHMENT|" + Path.of(artifact).toAbsolutePath() + "]]")).append('\n');
+            }
+            xml.append("</system-out>\n");
+        }
+        xml.append("  </testcase>\n");
+        write(xml.toString());
+        tests++;
+        if (!record.passed()) {
+            failures++;
+        }
+    }
+
+    /**
+     * 閉じタグを書き込んでファイルを閉じる（件数はコメントとして末尾に記録）
+     */
+    @Override
+    public synchronized void close() {
+        write("  <!-- tests=" + tests + " failures=" + failures + " -->\n</testsuite>\n");
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close report", e);
+        }
+    }
+
+    private void write(String text) {
+        try {
+            writer.write(text);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report", e);
+        }
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&apos;");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.FakeClock;
+
+/**
+ * 負荷試験の条件
+ *
+ * durationMillis と iterations のどちらかを指定する（両方指定した場合は先に達した方で終了、
+ * どちらも0の場合は各ユーザー1回）。
+ *
+ * @param users           同時に実行する仮想ユーザー（ブラウザコンテキスト）の数
+ * @param durationMillis  実行時間（ms、0 は指定なし）
+ * @param iterations      仮想ユーザーごとのシナリオ実行回数（0 は指定なし）
+ * @param rampUpMillis    全ユーザーが開始するまでの時間（ユーザーごとに均等にずらして開始）
+ * @param thinkTimeMillis ステップ間の待機時間
+ * @param reuseSession    仮想ユーザーごとに同じセッション（ページ）で繰り返すか（失敗した回の後は作り直す）
+ */
+public record LoadProfile(int users, long durationMillis, int iterations, long rampUpMillis, long thinkTimeMillis,
+        boolean reuseSession) {
+
+    public LoadProfile {
+        if (users <= 0) {
+            throw new IllegalArgumentException("load.users must be positive: " + users);
+        }
+        if (durationMillis <= 0 && iterations <= 0) {
+            iterations = 1;
+        }
+    }
+
+    public LoadProfile(int users, long durationMillis, int iterations, long rampUpMillis, long thinkTimeMillis) {
+        this(users, durationMillis, iterations, rampUpMillis, thinkTimeMillis, false);
+    }
+
+    /**
+     * 設定（load.users, load.duration, load.iterations, load.rampUp, load.thinkTime, load.reuseSession）から作成
+     *
+     * 時間は 30s・5m 等の単位付きで指定できる（単位なしは ms）。
+     */
+    public static LoadProfile from(TestConfig config) {
+        return new LoadProfile(
+                Integer.parseInt(config.getProperty("load.users", "10").trim()),
+                FakeClock.parseDuration(config.getProperty("load.duration", "0")),
+                Integer.parseInt(config.getProperty("load.iterations", "0").trim()),
+                FakeClock.parseDuration(config.getProperty("load.rampUp", "0")),
+                FakeClock.parseDuration(config.getProperty("load.thinkTime", "0")),
+                Boolean.parseBoolean(config.getProperty("load.reuseSession", "false").trim()));
+    }
+}
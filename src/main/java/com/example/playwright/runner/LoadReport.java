@@ -0,0 +1,192 @@
+package com.example.playwright.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 負荷試験の集計（ステップごとの応答時間の分布・スループット・エラー数と、時間帯ごとのエラー率）
+ *
+ * 仮想ユーザーのスレッドから同時に記録される。応答時間はマイクロ秒で記録し、出力は ms。
+ */
+public class LoadReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    // エラー率を集計する時間帯の幅
+    static final long WINDOW_MILLIS = 10_000;
+    // 集計するエラーメッセージの種類の上限（超えた分はステップごとに「(その他)」へまとめる）
+    public static final int MAX_ERROR_MESSAGES = 50;
+    // エラーメッセージとして集計する最大文字数
+    public static final int MAX_ERROR_LENGTH = 200;
+    public static final String OTHER_ERRORS = "(その他)";
+
+    private final String scenarioName;
+    private final LoadProfile profile;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, StepStats> steps = new LinkedHashMap<>();
+    private final LatencyHistogram iterationLatency = new LatencyHistogram();
+    private final AtomicLong iterationErrors = new AtomicLong();
+    // 時間帯の番号 → [ステップ数, エラー数]
+    private final Map<Long, AtomicLongArray> timeline = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> errorMessages = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+
+    private static final class StepStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    LoadReport(String scenarioName, LoadProfile profile, Iterable<ScenarioStep> scenarioSteps) {
+        this.scenarioName = scenarioName;
+        this.profile = profile;
+        for (ScenarioStep step : scenarioSteps) {
+            steps.put(label(step), new StepStats());
+        }
+    }
+
+    static String label(ScenarioStep step) {
+        return step.stepNo() + " " + step.action() + (step.element().isEmpty() ? "" : " " + step.element());
+    }
+
+    void recordStep(ScenarioStep step, long micros, String error) {
+        StepStats stats = steps.get(label(step));
+        stats.latency.record(micros);
+        AtomicLongArray window = timeline.computeIfAbsent(
+                (System.nanoTime() - startNanos) / 1_000_000 / WINDOW_MILLIS, key -> new AtomicLongArray(2));
+        window.incrementAndGet(0);
+        if (error != null) {
+            stats.errors.incrementAndGet();
+            window.incrementAndGet(1);
+            String key = label(step) + ": " + normalize(error);
+            AtomicLong count = errorMessages.get(key);
+            if (count == null) {
+                // ID や URL を含むメッセージで種類が増え続けないよう、上限に達したらまとめて数える
+                if (errorMessages.size() >= MAX_ERROR_MESSAGES) {
+                    key = label(step) + ": " + OTHER_ERRORS;
+                }
+                count = errorMessages.computeIfAbsent(key, k -> new AtomicLong());
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * エラーメッセージを集計用に正規化する（1行目のみ・前後の空白を除き・最大文字数で切り詰め）
+     */
+    static String normalize(String error) {
+        String message = error.lines().map(String::strip).filter(line -> !line.isEmpty()).findFirst().orElse("");
+        if (message.isEmpty()) {
+            return "(no message)";
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) + "..." : message;
+    }
+
+    void recordIteration(long micros, boolean failed) {
+        iterationLatency.record(micros);
+        if (failed) {
+            iterationErrors.incrementAndGet();
+        }
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public long iterations() {
+        return iterationLatency.count();
+    }
+
+    public long failedIterations() {
+        return iterationErrors.get();
+    }
+
+    /**
+     * ステップの実行回数（label は「ステップ番号 アクション 要素」）
+     */
+    public long stepCount(String label) {
+        return steps.get(label).latency.count();
+    }
+
+    public long stepErrors(String label) {
+        return steps.get(label).errors.get();
+    }
+
+    /**
+     * ログ出力用の表
+     */
+    public String toText() {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "負荷試験: %s (users=%d, %.1f s, iterations=%d, failed=%d)%n",
+                scenarioName, profile.users(), seconds, iterations(), failedIterations()));
+        text.append(String.format("%-40s %8s %8s %8s %8s %8s %8s %8s %7s%n",
+                "step", "count", "rps", "p50", "p90", "p95", "p99", "max", "errors"));
+        steps.forEach((label, stats) -> text.append(row(label, stats.latency, stats.errors.get(), seconds)));
+        text.append(row("(scenario)", iterationLatency, iterationErrors.get(), seconds));
+        return text.toString();
+    }
+
+    private static String row(String label, LatencyHistogram latency, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-40s %8d %8.2f %8.0f %8.0f %8.0f %8.0f %8.0f %6.1f%%%n",
+                label, latency.count(), latency.count() / seconds,
+                latency.percentile(50) / 1000.0, latency.percentile(90) / 1000.0, latency.percentile(95) / 1000.0,
+                latency.percentile(99) / 1000.0, latency.max() / 1000.0,
+                latency.count() == 0 ? 0 : errors * 100.0 / latency.count());
+    }
+
+    /**
+     * JSON で書き出す（ステップごとの分布、時間帯ごとのエラー率、エラー内容の件数）
+     */
+    public void write(Path file) {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("scenario", scenarioName);
+        json.putPOJO("profile", profile);
+        json.put("elapsedSeconds", seconds);
+        json.set("scenarioLatency", toJson(iterationLatency, iterationErrors.get(), seconds));
+        ObjectNode stepNodes = json.putObject("steps");
+        steps.forEach((label, stats) -> stepNodes.set(label, toJson(stats.latency, stats.errors.get(), seconds)));
+        ArrayNode windows = json.putArray("timeline");
+        timeline.forEach((index, counts) -> {
+            ObjectNode window = windows.addObject();
+            window.put("startSeconds", index * WINDOW_MILLIS / 1000);
+            window.put("steps", counts.get(0));
+            window.put("errors", counts.get(1));
+            window.put("errorRate", counts.get(0) == 0 ? 0 : (double) counts.get(1) / counts.get(0));
+        });
+        ObjectNode errors = json.putObject("errors");
+        errorMessages.forEach((message, count) -> errors.put(message, count.get()));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            MAPPER.writeValue(file.toFile(), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write load report: " + file, e);
+        }
+    }
+
+    private static ObjectNode toJson(LatencyHistogram latency, long errors, double seconds) {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("count", latency.count());
+        json.put("errors", errors);
+        json.put("throughputPerSecond", latency.count() / seconds);
+        json.put("meanMillis", latency.mean() / 1000.0);
+        for (double percentile : new double[] { 50, 90, 95, 99, 99.9 }) {
+            json.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Millis",
+                    latency.percentile(percentile) / 1000.0);
+        }
+        json.put("maxMillis", latency.max() / 1000.0);
+        return json;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.utils.ScenarioEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CSVシナリオを負荷生成に使うランナー
+ *
+ * 仮想ユーザーごとに1スレッドで、シナリオを新しいセッション（ブラウザコンテキスト）で繰り返し実行し、
+ * ステップごとの応答時間・エラーを LoadReport に集計する。
+ * 失敗したステップ以降はその回の実行を打ち切り、次の回を新しいセッションで始める。
+ * reuseSession の場合は、失敗するまで同じセッションで繰り返す（長時間実行でのメモリ増加の確認用）。
+ */
+public class LoadRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+
+    /**
+     * 仮想ユーザー1回分の実行環境（ブラウザでは1つの BrowserContext と TestActionExecutor）
+     */
+    public interface Session extends AutoCloseable {
+        /**
+         * シナリオの1回分を始める（同じセッションで繰り返す場合は2回目以降も呼ばれる）
+         */
+        default void startIteration() {
+        }
+
+        void execute(ScenarioStep step);
+
+        @Override
+        void close();
+    }
+
+    /**
+     * セッションの作成（仮想ユーザーのスレッドから呼ばれる）
+     */
+    @FunctionalInterface
+    public interface SessionFactory {
+        /**
+         * @throws SessionUnavailableException このスレッドでは今後もセッションを作れない場合（そのユーザーを停止する）
+         */
+        Session open();
+    }
+
+    /**
+     * 仮想ユーザーのスレッドでセッションを作れる見込みが無い（ブラウザを起動できない等）
+     */
+    public static class SessionUnavailableException extends IllegalStateException {
+        public SessionUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final LoadProfile profile;
+
+    public LoadRunner(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * 負荷をかけ、全ユーザーの終了を待って集計を返す
+     */
+    public LoadReport run(Scenario scenario, SessionFactory sessions) {
+        LoadReport report = new LoadReport(scenario.name(), profile, scenario.steps());
+        long startNanos = System.nanoTime();
+        long deadline = profile.durationMillis() > 0 ? startNanos + profile.durationMillis() * 1_000_000 : Long.MAX_VALUE;
+        AtomicInteger active = new AtomicInteger();
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < profile.users(); i++) {
+            // ランプアップ時間の間に均等な間隔で開始
+            long startDelayMillis = profile.users() > 1 ? profile.rampUpMillis() * i / (profile.users() - 1) : 0;
+            int user = i + 1;
+            Thread thread = new Thread(() -> {
+                if (!sleep(startDelayMillis) || System.nanoTime() >= deadline) {
+                    return;
+                }
+                logger.info("仮想ユーザー {} を開始（同時実行 {}）", user, active.incrementAndGet());
+                try {
+                    runUser(scenario, sessions, report, deadline);
+                } finally {
+                    active.decrementAndGet();
+                }
+            }, "load-user-" + user);
+            users.add(thread);
+            thread.start();
+        }
+        for (Thread thread : users) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                users.forEach(Thread::interrupt);
+                break;
+            }
+        }
+        report.finish();
+        return report;
+    }
+
+    private void runUser(Scenario scenario, SessionFactory sessions, LoadReport report, long deadline) {
+        Session reused = null;
+        try {
+            for (int iteration = 0; profile.iterations() <= 0 || iteration < profile.iterations(); iteration++) {
+                if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (profile.reuseSession() && reused == null) {
+                    try {
+                        reused = sessions.open();
+                    } catch (SessionUnavailableException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        logger.warn("Load session failed: {}", e.getMessage());
+                        report.recordIteration(0, true);
+                        continue;
+                    }
+                }
+                long iterationStart = System.nanoTime();
+                boolean failed = reused != null
+                        ? runIteration(scenario, reused, report)
+                        : runIteration(scenario, sessions, report);
+                report.recordIteration((System.nanoTime() - iterationStart) / 1000, failed);
+                if (failed && reused != null) {
+                    close(reused);
+                    reused = null;
+                }
+            }
+        } catch (SessionUnavailableException e) {
+            // 同じ失敗を繰り返さないよう、このユーザーは停止する（失敗した1回として数える）
+            logger.error("仮想ユーザー {} を停止します: {}", Thread.currentThread().getName(), e.getMessage());
+            report.recordIteration(0, true);
+        } finally {
+            if (reused != null) {
+                close(reused);
+            }
+        }
+    }
+
+    /**
+     * 新しいセッションで1回実行
+     *
+     * @return 失敗したかどうか
+     */
+    private boolean runIteration(Scenario scenario, SessionFactory sessions, LoadReport report) {
+        try (Session session = sessions.open()) {
+            return runIteration(scenario, session, report);
+        } catch (SessionUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // セッションの作成・破棄に失敗した
+            logger.warn("Load session failed: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * セッションでシナリオを1回実行（失敗したステップで打ち切る）
+     *
+     * @return 失敗したかどうか
+     */
+    private boolean runIteration(Scenario scenario, Session session, LoadReport report) {
+        session.startIteration();
+        ScenarioEvent event = new ScenarioEvent();
+        event.begin();
+        try {
+            List<ScenarioStep> steps = scenario.steps();
+            for (int i = 0; i < steps.size(); i++) {
+                ScenarioStep step = steps.get(i);
+                long stepStart = System.nanoTime();
+                try {
+                    session.execute(step);
+                    report.recordStep(step, (System.nanoTime() - stepStart) / 1000, null);
+                } catch (RuntimeException | AssertionError e) {
+                    report.recordStep(step, (System.nanoTime() - stepStart) / 1000, rootMessage(e));
+                    event.failedStep = step.stepNo();
+                    return true;
+                }
+                if (i < steps.size() - 1 && !sleep(profile.thinkTimeMillis())) {
+                    // 中断された（次の回の前に終了する）
+                    return false;
+                }
+            }
+            event.passed = true;
+            return false;
+        } finally {
+            event.scenario = scenario.name();
+            event.commit();
+        }
+    }
+
+    private static void close(Session session) {
+        try {
+            session.close();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to close load session: {}", e.getMessage());
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable t = error;
+        while (t.getCause() != null) {
+            t = t.getCause();
+        }
+        String message = t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+        // 同じ原因のエラーをまとめて数えられるよう1行目だけ使う
+        return message.lines().findFirst().orElse(message);
+    }
+}
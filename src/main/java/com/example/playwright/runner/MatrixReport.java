@@ -0,0 +1,201 @@
+package com.example.playwright.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * シナリオ × ブラウザの実行結果と、ブラウザごとの所要時間の比較
+ *
+ * 各シナリオで最も速かったブラウザを基準（1.00）とした比率を並べ、
+ * ブラウザごとに成功数・合計時間・比率の中央値をまとめる。
+ */
+public class MatrixReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final List<String> browsers;
+    // シナリオ名 → ブラウザ → 結果
+    private final Map<String, Map<String, ScenarioResult>> results = new LinkedHashMap<>();
+
+    public MatrixReport(List<String> browsers) {
+        this.browsers = List.copyOf(browsers);
+    }
+
+    public synchronized void add(String scenarioName, String browser, ScenarioResult result) {
+        results.computeIfAbsent(scenarioName, key -> new LinkedHashMap<>()).put(browser, result);
+    }
+
+    /**
+     * 全ての結果（シナリオ順、シナリオ内はブラウザの指定順）
+     */
+    public synchronized List<ScenarioResult> results() {
+        List<ScenarioResult> all = new ArrayList<>();
+        for (Map<String, ScenarioResult> row : results.values()) {
+            browsers.stream().map(row::get).filter(r -> r != null).forEach(all::add);
+        }
+        return all;
+    }
+
+    public synchronized ScenarioResult result(String scenarioName, String browser) {
+        return results.getOrDefault(scenarioName, Map.of()).get(browser);
+    }
+
+    /**
+     * シナリオの中で最も速かった成功結果に対する比率（失敗・未実行はnull）
+     */
+    public synchronized Double ratio(String scenarioName, String browser) {
+        Map<String, ScenarioResult> row = results.getOrDefault(scenarioName, Map.of());
+        ScenarioResult result = row.get(browser);
+        long fastest = row.values().stream().filter(ScenarioResult::passed)
+                .mapToLong(ScenarioResult::elapsedMillis).min().orElse(0);
+        if (result == null || !result.passed() || fastest <= 0) {
+            return null;
+        }
+        return (double) result.elapsedMillis() / fastest;
+    }
+
+    /**
+     * ブラウザの比率の中央値（比べられるシナリオが無ければnull）
+     */
+    public synchronized Double medianRatio(String browser) {
+        List<Double> ratios = new ArrayList<>();
+        for (String scenario : results.keySet()) {
+            Double ratio = ratio(scenario, browser);
+            if (ratio != null) {
+                ratios.add(ratio);
+            }
+        }
+        if (ratios.isEmpty()) {
+            return null;
+        }
+        ratios.sort(null);
+        int middle = ratios.size() / 2;
+        return ratios.size() % 2 == 1 ? ratios.get(middle) : (ratios.get(middle - 1) + ratios.get(middle)) / 2;
+    }
+
+    public synchronized int failed() {
+        return (int) results.values().stream().flatMap(row -> row.values().stream()).filter(r -> !r.passed()).count();
+    }
+
+    /**
+     * ログ出力用の表（セルは「所要時間 ms (比率)」、失敗は NG）
+     */
+    public synchronized String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-40s", "scenario"));
+        browsers.forEach(browser -> text.append(String.format(" %20s", browser)));
+        text.append('\n');
+        for (String scenario : results.keySet()) {
+            text.append(String.format("%-40s", scenario));
+            browsers.forEach(browser -> text.append(String.format(" %20s", cell(scenario, browser))));
+            text.append('\n');
+        }
+        text.append(String.format("%-40s", "(成功 / 合計 ms / 比率の中央値)"));
+        browsers.forEach(browser -> text.append(String.format(" %20s", totals(browser))));
+        text.append('\n');
+        return text.toString();
+    }
+
+    private String cell(String scenario, String browser) {
+        ScenarioResult result = result(scenario, browser);
+        if (result == null) {
+            return "-";
+        }
+        if (!result.passed()) {
+            return "NG";
+        }
+        return String.format(Locale.ROOT, "%d ms (%.2f)", result.elapsedMillis(), ratio(scenario, browser));
+    }
+
+    private String totals(String browser) {
+        Double median = medianRatio(browser);
+        return String.format(Locale.ROOT, "%d / %d ms / %s", passed(browser), totalMillis(browser),
+                median != null ? String.format(Locale.ROOT, "%.2f", median) : "-");
+    }
+
+    private long passed(String browser) {
+        return results.values().stream().map(row -> row.get(browser))
+                .filter(r -> r != null && r.passed()).count();
+    }
+
+    private long totalMillis(String browser) {
+        return results.values().stream().map(row -> row.get(browser))
+                .filter(r -> r != null).mapToLong(ScenarioResult::elapsedMillis).sum();
+    }
+
+    /**
+     * HTMLレポートに追加する比較表
+     */
+    public synchronized String toHtml() {
+        StringBuilder html = new StringBuilder("<h2>ブラウザ別の比較</h2>\n<table><thead><tr><th>シナリオ</th>");
+        browsers.forEach(browser -> html.append("<th>").append(escape(browser)).append("</th>"));
+        html.append("</tr></thead><tbody>\n");
+        for (String scenario : results.keySet()) {
+            html.append("<tr><td>").append(escape(scenario)).append("</td>");
+            for (String browser : browsers) {
+                ScenarioResult result = result(scenario, browser);
+                html.append(result != null && !result.passed() ? "<td class=\"num ng\">" : "<td class=\"num\">")
+                        .append(escape(cell(scenario, browser))).append("</td>");
+            }
+            html.append("</tr>\n");
+        }
+        html.append("<tr class=\"scenario\"><td>成功 / 合計 ms / 比率の中央値</td>");
+        browsers.forEach(browser -> html.append("<td class=\"num\">").append(escape(totals(browser))).append("</td>"));
+        html.append("</tr>\n</tbody></table>\n");
+        return html.toString();
+    }
+
+    /**
+     * JSON で書き出す（シナリオ → ブラウザ → 結果・所要時間・比率、ブラウザごとの集計）
+     */
+    public synchronized void write(Path file) {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.putPOJO("browsers", browsers);
+        ObjectNode scenarios = json.putObject("scenarios");
+        results.forEach((scenario, row) -> {
+            ObjectNode scenarioNode = scenarios.putObject(scenario);
+            row.forEach((browser, result) -> {
+                ObjectNode cell = scenarioNode.putObject(browser);
+                cell.put("passed", result.passed());
+                cell.put("elapsedMillis", result.elapsedMillis());
+                Double ratio = ratio(scenario, browser);
+                if (ratio != null) {
+                    cell.put("ratioToFastest", ratio);
+                }
+                if (!result.passed()) {
+                    cell.put("failedStep", result.failedStep());
+                    cell.put("message", result.message());
+                }
+            });
+        });
+        ObjectNode summary = json.putObject("summary");
+        for (String browser : browsers) {
+            ObjectNode node = summary.putObject(browser);
+            node.put("passed", passed(browser));
+            node.put("totalMillis", totalMillis(browser));
+            Double median = medianRatio(browser);
+            if (median != null) {
+                node.put("medianRatioToFastest", median);
+            }
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            MAPPER.writeValue(file.toFile(), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write matrix report: " + file, e);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
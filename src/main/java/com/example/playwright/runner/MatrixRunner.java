@@ -0,0 +1,117 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.config.TestConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 全シナリオ × 複数ブラウザの組み合わせを1つのワーカープールで並列実行するランナー
+ *
+ * ブラウザごとに設定を上書きした ParallelScenarioRunner を作り、同じプール・同じリスナーで同時に実行する。
+ * ワーカーは空いた順にどのブラウザのタスクも実行し、ブラウザごとの同時実行数は WorkerPool の上限で制限する。
+ * レポート上のシナリオ名は「シナリオ名 [ブラウザ]」になる。
+ * 起動できないブラウザ（未インストール等）は他のブラウザの実行を止めず、その列の全シナリオが NG になる。
+ *
+ * マトリクスのブラウザ名と起動するブラウザの対応（playwright.useSystemBrowser の設定によらない）:
+ * <ul>
+ * <li>chromium・firefox・webkit: Playwright 同梱のブラウザ</li>
+ * <li>chrome: インストール済みの Google Chrome（chrome チャンネル）</li>
+ * <li>msedge・edge: インストール済みの Microsoft Edge（msedge チャンネル）</li>
+ * </ul>
+ * 通常の実行では useSystemBrowser=true のとき chromium も Chrome で起動するが、マトリクスでは
+ * chromium と chrome を別の列として比較できるよう、chromium は常に同梱の Chromium で起動する。
+ */
+public class MatrixRunner {
+    private static final Logger logger = LoggerFactory.getLogger(MatrixRunner.class);
+    private final TestConfig config;
+    private final WorkerPool pool;
+    private final List<ScenarioListener> listeners = new ArrayList<>();
+
+    public MatrixRunner(TestConfig config, WorkerPool pool) {
+        this.config = config;
+        this.pool = pool;
+    }
+
+    /**
+     * 全ブラウザの実行に通知するリスナーを追加
+     */
+    public void addListener(ScenarioListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * シナリオ名にブラウザを付けた名前（例: login.csv [firefox]）
+     */
+    public static String instanceName(String scenarioName, String browser) {
+        return scenarioName + " [" + browser + "]";
+    }
+
+    /**
+     * マトリクスの1列のブラウザの設定（chrome・msedge のみインストール済みのブラウザのチャンネルで起動する）
+     */
+    public static TestConfig browserConfig(TestConfig config, String browser) {
+        boolean branded = switch (browser.toLowerCase()) {
+            case "chrome", "msedge", "edge" -> true;
+            default -> false;
+        };
+        return config.withBrowser(browser).with("playwright.useSystemBrowser", String.valueOf(branded));
+    }
+
+    /**
+     * 全ての組み合わせを実行し、終わるまで待って結果を返す
+     */
+    public MatrixReport run(List<Scenario> scenarios, List<String> browsers, boolean prefixSharing) {
+        MatrixReport report = new MatrixReport(browsers);
+        logger.info("マトリクス実行: シナリオ {} × ブラウザ {}", scenarios.size(), browsers);
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (String browser : browsers) {
+            ParallelScenarioRunner runner = new ParallelScenarioRunner(browserConfig(config, browser), pool);
+            listeners.forEach(runner::addListener);
+            List<Scenario> instances = scenarios.stream()
+                    .map(s -> new Scenario(instanceName(s.name(), browser), s.steps(), s.metadata()))
+                    .toList();
+            // run() はそのブラウザの全シナリオが終わるまで戻らないため、ブラウザごとに別スレッドから投入する
+            runs.add(CompletableFuture.runAsync(() -> {
+                try {
+                    List<ScenarioResult> results = runner.run(instances, prefixSharing);
+                    for (int i = 0; i < scenarios.size(); i++) {
+                        report.add(scenarios.get(i).name(), browser, results.get(i));
+                    }
+                } catch (RuntimeException e) {
+                    // 1つのブラウザの実行が中断しても他のブラウザの結果は残し、そのブラウザの列を NG にする
+                    logger.error("ブラウザ {} の実行が中断しました: {}", browser, e.getMessage(), e);
+                    failColumn(report, scenarios, instances, browser, e);
+                }
+            }, task -> new Thread(task, "matrix-" + browser).start()));
+        }
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+        return report;
+    }
+
+    /**
+     * ブラウザの列の結果が無いシナリオを失敗として記録し、リスナーに通知
+     */
+    private void failColumn(MatrixReport report, List<Scenario> scenarios, List<Scenario> instances, String browser,
+            RuntimeException cause) {
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (report.result(scenarios.get(i).name(), browser) != null) {
+                continue;
+            }
+            Scenario instance = instances.get(i);
+            String firstStep = instance.steps().isEmpty() ? "-" : instance.steps().get(0).stepNo();
+            ScenarioResult result = ScenarioResult.failed(instance, firstStep, cause, 0);
+            report.add(scenarios.get(i).name(), browser, result);
+            for (ScenarioListener listener : listeners) {
+                try {
+                    listener.scenarioFinished(result);
+                } catch (RuntimeException e) {
+                    logger.warn("Listener failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.base.BrowserFactory;
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.ScenarioEvent;
+import com.example.playwright.utils.Span;
+import com.example.playwright.utils.StepTraffic;
+import com.example.playwright.utils.TestActionExecutor;
+import com.example.playwright.utils.TimeBudget;
+import com.example.playwright.utils.Tracer;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 複数シナリオをワーカープールで並列実行するランナー
+ *
+ * プレフィックス共有が有効な場合、共通の先頭ステップは1回だけ実行し、
+ * 分岐点でストレージ状態とURLをスナップショットして新しいコンテキストにフォークする。
+ * フォーク後のコンテキストはメインフレーム・単一ウィンドウの状態から再開する
+ * （sessionStorageやページ内のJS状態は引き継がれない）。
+ * データ駆動実行では、テンプレートシナリオをデータ行ごとに独立したシナリオとして実行する。
+ */
+public class ParallelScenarioRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScenarioRunner.class);
+    private final TestConfig config;
+    private final WorkerPool pool;
+    // 実行中タスクの数を管理（タスクが子タスクを追加するため Phaser を使用）
+    private final Phaser phaser = new Phaser(1);
+    private final Map<Scenario, ScenarioResult> results = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<ScenarioListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ParallelScenarioRunner(TestConfig config, WorkerPool pool) {
+        this.config = config;
+        this.pool = pool;
+    }
+
+    /**
+     * 実行の進行を受け取るリスナーを追加
+     */
+    public void addListener(ScenarioListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * シナリオ群を実行し、入力順に結果を返す
+     *
+     * @param scenarios     実行するシナリオ
+     * @param prefixSharing trueなら共通の先頭ステップを共有して実行
+     */
+    public List<ScenarioResult> run(List<Scenario> scenarios, boolean prefixSharing) {
+        for (Scenario scenario : scenarios) {
+            notifyListeners(listener -> listener.scenarioQueued(scenario));
+        }
+        List<ScenarioPrefixTree> trees = new ArrayList<>();
+        if (prefixSharing) {
+            trees.add(ScenarioPrefixTree.build(scenarios));
+        } else {
+            for (Scenario scenario : scenarios) {
+                trees.add(ScenarioPrefixTree.build(List.of(scenario)));
+            }
+        }
+
+        for (ScenarioPrefixTree tree : trees) {
+            if (prefixSharing) {
+                logger.info("プレフィックス共有: 総ステップ数={}, 実行ステップ数={}", tree.totalSteps(), tree.uniqueSteps());
+            }
+            for (Scenario scenario : tree.root().endingHere()) {
+                finish(scenario, ScenarioResult.passed(scenario, 0)); // ステップなしのシナリオ
+            }
+            for (ScenarioPrefixTree.Node child : tree.root().children()) {
+                submit(child, null, 0, null);
+            }
+        }
+        phaser.arriveAndAwaitAdvance();
+        return collectResults(scenarios);
+    }
+
+    /**
+     * テンプレートシナリオをデータ行ごとに独立したシナリオとして並列実行
+     *
+     * データ行は実行枠が空くたびに1行ずつ読み込む（全行を先読みしない）。
+     * 結果のシナリオ名には行番号が付与される（例: customer_template.csv#12）。
+     */
+    public List<ScenarioResult> runDataDriven(Scenario template, DataRowReader rows) {
+        // 投入済み・未完了のデータ行数を制限してファイルの先読みを防ぐ
+        Semaphore slots = new Semaphore(config.getRunnerThreads() * 2);
+        List<Scenario> instances = new ArrayList<>();
+        while (rows.hasNext()) {
+            DataRowReader.DataRow row = rows.next();
+            Scenario instance;
+            try {
+                instance = ScenarioTemplate.bind(template, rows.namespace(), row);
+            } catch (IllegalArgumentException e) {
+                instance = new Scenario(ScenarioTemplate.instanceName(template, row), template.steps());
+                instances.add(instance);
+                Scenario queued = instance;
+                notifyListeners(listener -> listener.scenarioQueued(queued));
+                finish(instance, ScenarioResult.failed(instance, "-", e, 0));
+                logger.error("データ行 {} の埋め込みに失敗: {}", row.number(), e.getMessage());
+                continue;
+            }
+            instances.add(instance);
+            Scenario queued = instance;
+            notifyListeners(listener -> listener.scenarioQueued(queued));
+            if (instance.steps().isEmpty()) {
+                finish(instance, ScenarioResult.passed(instance, 0));
+                continue;
+            }
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ScenarioPrefixTree tree = ScenarioPrefixTree.build(List.of(instance));
+            submit(tree.root().children().get(0), null, 0, slots::release);
+        }
+        phaser.arriveAndAwaitAdvance();
+        return collectResults(instances);
+    }
+
+    private List<ScenarioResult> collectResults(List<Scenario> scenarios) {
+        List<ScenarioResult> ordered = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            ordered.add(results.get(scenario));
+        }
+        return ordered;
+    }
+
+    /**
+     * ノード以降の実行をワーカーに投入
+     *
+     * @param snapshot 開始時に復元する状態（nullなら新規コンテキスト）
+     * @param onDone   タスク終了時のコールバック（null可）
+     */
+    private void submit(ScenarioPrefixTree.Node node, Snapshot snapshot, long elapsedMillis, Runnable onDone) {
+        phaser.register();
+        pool.submit(config, browser -> {
+            try {
+                runBranch(browser, node, snapshot, elapsedMillis);
+            } finally {
+                if (onDone != null) {
+                    onDone.run();
+                }
+                phaser.arriveAndDeregister();
+            }
+        });
+    }
+
+    /**
+     * ノードから分岐のない限り同じコンテキストでステップを実行し、分岐点では残りの子をフォークする
+     *
+     * ブラウザを起動できなかった場合は、ノードを通る全シナリオを最初のステップで失敗として記録する。
+     */
+    private void runBranch(Supplier<Browser> browser, ScenarioPrefixTree.Node start, Snapshot snapshot, long elapsedMillis) {
+        ScenarioPrefixTree.Node node = start;
+        BrowserContext context = null;
+        TestActionExecutor executor = null;
+        long stepStartNanos = System.nanoTime();
+        // 分岐（フォーク）ごとに1トレース・1イベント。共有部分のステップはその時点の全シナリオに属する
+        String scenarioNames = start.scenarios().stream().map(Scenario::name).collect(Collectors.joining(", "));
+        Span span = Tracer.start("scenario")
+                .setAttribute("scenario", scenarioNames)
+                .setAttribute("forked", snapshot != null);
+        ScenarioEvent event = new ScenarioEvent();
+        event.begin();
+        try {
+            context = BrowserFactory.newContext(browser.get(), config, snapshot != null ? snapshot.storageState() : null);
+            Page page = context.newPage();
+            if (snapshot != null) {
+                page.navigate(snapshot.url());
+            }
+            executor = new TestActionExecutor(page, config);
+            if (snapshot != null) {
+                executor.putVariables(snapshot.variables());
+            }
+
+            while (true) {
+                ScenarioStep step = node.step();
+                // このステップを共有するシナリオの中で最も長い制限時間から、ここまでの実行時間を引いた残り
+                long limit = timeoutMillis(node);
+                executor.setBudget(limit > 0 ? TimeBudget.ofMillis(limit - elapsedMillis) : TimeBudget.unlimited());
+                stepStartNanos = System.nanoTime();
+                ScenarioPrefixTree.Node current = node;
+                executor.setScenarioName(node.scenarios().stream().map(Scenario::name).collect(Collectors.joining(", ")));
+                notifyListeners(listener -> listener.stepStarted(current.scenarios(), current.step()));
+                executor.executeAction(step.action(), step.element(), step.inputValue(), step.expected());
+                long stepMillis = (System.nanoTime() - stepStartNanos) / 1_000_000;
+                elapsedMillis += stepMillis;
+                List<String> artifacts = executor.drainArtifacts();
+                StepTraffic traffic = executor.drainTraffic();
+                for (Scenario scenario : node.scenarios()) {
+                    notifyStep(new StepRecord(scenario.name(), step, stepMillis, null, artifacts, traffic));
+                }
+
+                for (Scenario scenario : node.endingHere()) {
+                    long timeout = scenario.timeoutMillis(config);
+                    if (timeout > 0 && elapsedMillis > timeout) {
+                        finish(scenario, ScenarioResult.failed(scenario, step.stepNo(),
+                                new IllegalStateException("Scenario time budget exceeded: " + elapsedMillis + "ms > " + timeout + "ms"),
+                                elapsedMillis));
+                        logger.error("シナリオ {} が制限時間を超過: {} ms > {} ms", scenario.name(), elapsedMillis, timeout);
+                        continue;
+                    }
+                    finish(scenario, ScenarioResult.passed(scenario, elapsedMillis));
+                    logger.info("シナリオ成功: {} ({} ms)", scenario.name(), elapsedMillis);
+                }
+
+                List<ScenarioPrefixTree.Node> children = node.children();
+                if (children.isEmpty()) {
+                    event.passed = true;
+                    return;
+                }
+                if (children.size() > 1) {
+                    Snapshot fork = Snapshot.capture(executor);
+                    logger.info("ステップ {} で {} 分岐にフォーク: {}", step.stepNo(), children.size(), fork.url());
+                    for (ScenarioPrefixTree.Node child : children.subList(1, children.size())) {
+                        submit(child, fork, elapsedMillis, null);
+                    }
+                }
+                node = children.get(0);
+            }
+        } catch (Exception | AssertionError e) {
+            ScenarioStep step = node.step();
+            long stepMillis = (System.nanoTime() - stepStartNanos) / 1_000_000;
+            elapsedMillis += stepMillis;
+            List<String> artifacts = new ArrayList<>();
+            StepTraffic traffic = null;
+            if (executor != null) {
+                traffic = executor.drainTraffic();
+                artifacts.addAll(executor.drainArtifacts());
+                if (config.isScreenshotOnFailure()) {
+                    String failureShot = executor.saveScreenshot(
+                            (node.scenarios().get(0).name() + "_step" + step.stepNo()).replaceAll("[\\\\/:*?\"<>|#]", "_"));
+                    if (failureShot != null) {
+                        artifacts.add(failureShot);
+                    }
+                }
+            }
+            for (Scenario scenario : node.scenarios()) {
+                ScenarioResult result = ScenarioResult.failed(scenario, step.stepNo(), e, elapsedMillis);
+                if (results.putIfAbsent(scenario, result) == null) {
+                    notifyStep(new StepRecord(scenario.name(), step, stepMillis, result.message(), artifacts, traffic));
+                    notifyFinished(result);
+                    logger.error("シナリオ {} のステップ {} でエラー: {}", scenario.name(), step.stepNo(), e.getMessage());
+                }
+            }
+            logger.debug("ステップ {} の例外詳細", step.stepNo(), e);
+            span.fail(e);
+            event.failedStep = step.stepNo();
+        } finally {
+            span.close();
+            event.scenario = scenarioNames;
+            event.commit();
+            notifyListeners(ScenarioListener::workerIdle);
+            if (context != null) {
+                try {
+                    context.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close context: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * シナリオの結果を確定してリスナーに通知
+     */
+    private void finish(Scenario scenario, ScenarioResult result) {
+        results.put(scenario, result);
+        notifyFinished(result);
+    }
+
+    private void notifyStep(StepRecord record) {
+        notifyListeners(listener -> listener.stepFinished(record));
+    }
+
+    private void notifyFinished(ScenarioResult result) {
+        notifyListeners(listener -> listener.scenarioFinished(result));
+    }
+
+    /**
+     * 全リスナーに通知（リスナーの例外は実行に影響させない）
+     */
+    private void notifyListeners(Consumer<ScenarioListener> notification) {
+        for (ScenarioListener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                logger.warn("Listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * ノードを通るシナリオの制限時間の最大値（ms、無制限のシナリオを含む場合は0）
+     */
+    private long timeoutMillis(ScenarioPrefixTree.Node node) {
+        long max = 0;
+        for (Scenario scenario : node.scenarios()) {
+            long timeout = scenario.timeoutMillis(config);
+            if (timeout <= 0) {
+                return 0;
+            }
+            max = Math.max(max, timeout);
+        }
+        return max;
+    }
+
+    /**
+     * フォーク用の状態スナップショット
+     *
+     * @param storageState Cookie・localStorageのJSON
+     * @param url          スナップショット時点のURL
+     * @param variables    スナップショット時点のシナリオ変数
+     */
+    record Snapshot(String storageState, String url, Map<String, String> variables) {
+
+        static Snapshot capture(TestActionExecutor executor) {
+            Page page = executor.getPage();
+            return new Snapshot(page.context().storageState(), page.url(), Map.copyOf(executor.getVariables()));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.playwright.runner;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 実行中の進行状況をブラウザで確認するためのローカルHTTPサーバー（JDK 組み込みの HttpServer）
+ *
+ * http://localhost:{port}/ に状況ページを、/events に Server-Sent Events で1秒ごとの集計（JSON）を返す。
+ * 127.0.0.1 のみで待ち受ける。
+ */
+public class ProgressServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressServer.class);
+    private static final long PUSH_INTERVAL_MILLIS = 1000;
+    private static final int SLOWEST_STEPS = 5;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ProgressTracker tracker;
+    private volatile boolean closed;
+
+    public ProgressServer(int port, ProgressTracker tracker) {
+        this.tracker = tracker;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start progress server on port " + port, e);
+        }
+        // SSE の接続ごとにスレッドを占有するため上限なしのデーモンスレッドで処理
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "progress-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/events", this::streamEvents);
+        server.createContext("/", this::page);
+        server.start();
+        logger.info("進行状況: http://localhost:{}/", server.getAddress().getPort());
+    }
+
+    /**
+     * 待ち受けているポート（0 を指定した場合に割り当てられたポートの確認用）
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void page(HttpExchange exchange) throws IOException {
+        byte[] body = PAGE_HTML.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 接続が切れるかサーバーを閉じるまで集計を送り続ける
+     */
+    private void streamEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            while (!closed) {
+                out.write(("data: " + tracker.toJson(SLOWEST_STEPS) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(PUSH_INTERVAL_MILLIS);
+            }
+            // 最終状態を送ってから終了を通知
+            out.write(("data: " + tracker.toJson(SLOWEST_STEPS) + "\n\nevent: end\ndata: {}\n\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // ブラウザ側で切断された
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        server.stop((int) (PUSH_INTERVAL_MILLIS / 1000) + 1);
+        executor.shutdownNow();
+    }
+
+    static final String PAGE_SCRIPT = """
+            const source = new EventSource('events');
+            const text = (id, value) => { document.getElementById(id).textContent = value; };
+            const row = (cells) => '<tr>' + cells.map(c => '<td>' + String(c).replace(/[&<>]/g, ch => ({'&': '&amp;', '<': '&lt;', '>': '&gt;'})[ch]) + '</td>').join('') + '</tr>';
+            source.onmessage = (event) => {
+              const p = JSON.parse(event.data);
+              text('queued', p.queued);
+              text('running', p.running);
+              text('done', p.done + ' (成功 ' + p.passed + ' / 失敗 ' + p.failed + ')');
+              text('throughput', p.stepsPerMinute.toFixed(1) + ' steps/min (平均 ' + p.averageStepsPerMinute.toFixed(1) + ')');
+              text('elapsed', p.elapsedSeconds + ' 秒');
+              document.getElementById('workers').innerHTML = Object.entries(p.workers)
+                .map(([w, s]) => row([w, s.scenarios, s.step, s.action, s.element, s.elapsedMillis])).join('');
+              document.getElementById('slowest').innerHTML = p.slowest
+                .map(s => row([s.scenarios, s.step, s.action, s.element, s.elapsedMillis])).join('');
+            };
+            source.addEventListener('end', () => { text('state', '実行終了'); source.close(); });
+            """;
+
+    private static final String PAGE_HTML = """
+            <!DOCTYPE html>
+            <html lang="ja"><head><meta charset="UTF-8"><title>シナリオ実行の進行状況</title>
+            <style>
+            body { font-family: sans-serif; margin: 1.5em; }
+            table { border-collapse: collapse; font-size: 13px; margin-bottom: 1em; }
+            th, td { border: 1px solid #ccc; padding: 4px 6px; text-align: left; }
+            th { background: #f0f0f0; }
+            </style></head>
+            <body>
+            <h1>シナリオ実行の進行状況 <small id="state">実行中</small></h1>
+            <table>
+            <tr><th>待ち</th><td id="queued">-</td></tr>
+            <tr><th>実行中</th><td id="running">-</td></tr>
+            <tr><th>完了</th><td id="done">-</td></tr>
+            <tr><th>スループット</th><td id="throughput">-</td></tr>
+            <tr><th>経過時間</th><td id="elapsed">-</td></tr>
+            </table>
+            <h2>ワーカー</h2>
+            <table><thead><tr><th>ワーカー</th><th>シナリオ</th><th>ステップ</th><th>アクション</th><th>要素</th><th>経過(ms)</th></tr></thead>
+            <tbody id="workers"></tbody></table>
+            <h2>時間のかかっている実行中ステップ</h2>
+            <table><thead><tr><th>シナリオ</th><th>ステップ</th><th>アクション</th><th>要素</th><th>経過(ms)</th></tr></thead>
+            <tbody id="slowest"></tbody></table>
+            <script>
+            """ + PAGE_SCRIPT + """
+            </script>
+            </body></html>
+            """;
+}
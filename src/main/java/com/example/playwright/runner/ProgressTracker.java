@@ -0,0 +1,128 @@
+package com.example.playwright.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 実行中の進行状況（待ち・実行中・完了のシナリオ数、ワーカーごとの実行中ステップ、スループット）を集計するリスナー
+ *
+ * ProgressServer がこの集計を定期的に JSON にしてブラウザへ送る。
+ */
+public class ProgressTracker implements ScenarioListener {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+
+    private final long startNanos = System.nanoTime();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Map<String, InFlight> workers = new ConcurrentHashMap<>();
+    // 直近1分間に終わったステップの終了時刻（スループット計算用）
+    private final Deque<Long> recentSteps = new ArrayDeque<>();
+    private int queued;
+    private int passed;
+    private int failed;
+    private long stepsDone;
+
+    /**
+     * ワーカー1つが実行中のステップ
+     */
+    record InFlight(String scenarios, ScenarioStep step, long startNanos) {
+    }
+
+    @Override
+    public synchronized void scenarioQueued(Scenario scenario) {
+        queued++;
+    }
+
+    @Override
+    public void stepStarted(List<Scenario> scenarios, ScenarioStep step) {
+        String names = scenarios.stream().map(Scenario::name).collect(Collectors.joining(", "));
+        for (Scenario scenario : scenarios) {
+            running.add(scenario.name());
+        }
+        workers.put(Thread.currentThread().getName(), new InFlight(names, step, System.nanoTime()));
+    }
+
+    @Override
+    public synchronized void stepFinished(StepRecord record) {
+        long now = System.nanoTime();
+        // 共有ステップはシナリオごとに通知されるため、ワーカーの実行中ステップと一致する最初の1件だけ数える
+        InFlight inFlight = workers.get(Thread.currentThread().getName());
+        if (inFlight != null && inFlight.step() == record.step()) {
+            workers.remove(Thread.currentThread().getName());
+            stepsDone++;
+            recentSteps.addLast(now);
+        }
+    }
+
+    @Override
+    public synchronized void scenarioFinished(ScenarioResult result) {
+        running.remove(result.scenarioName());
+        if (result.passed()) {
+            passed++;
+        } else {
+            failed++;
+        }
+    }
+
+    @Override
+    public void workerIdle() {
+        workers.remove(Thread.currentThread().getName());
+    }
+
+    /**
+     * 現在の状況を JSON で取得
+     *
+     * @param slowest 出力する実行中ステップの数（経過時間の長い順）
+     */
+    public synchronized String toJson(int slowest) {
+        long now = System.nanoTime();
+        while (!recentSteps.isEmpty() && now - recentSteps.peekFirst() > WINDOW_NANOS) {
+            recentSteps.removeFirst();
+        }
+        long elapsedNanos = now - startNanos;
+        int done = passed + failed;
+
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("elapsedSeconds", elapsedNanos / 1_000_000_000L);
+        json.put("queued", Math.max(0, queued - done - running.size()));
+        json.put("running", running.size());
+        json.put("done", done);
+        json.put("passed", passed);
+        json.put("failed", failed);
+        json.put("stepsDone", stepsDone);
+        // 直近1分間と開始からの平均（steps/min）
+        json.put("stepsPerMinute", Math.min(elapsedNanos, WINDOW_NANOS) > 0
+                ? recentSteps.size() * 60_000_000_000.0 / Math.min(elapsedNanos, WINDOW_NANOS) : 0);
+        json.put("averageStepsPerMinute", elapsedNanos > 0 ? stepsDone * 60_000_000_000.0 / elapsedNanos : 0);
+
+        ObjectNode workerNodes = json.putObject("workers");
+        new TreeMap<>(workers).forEach((worker, inFlight) -> workerNodes.set(worker, toJson(inFlight, now)));
+        ArrayNode slow = json.putArray("slowest");
+        workers.values().stream()
+                .sorted(Comparator.comparingLong(InFlight::startNanos))
+                .limit(slowest)
+                .forEach(inFlight -> slow.add(toJson(inFlight, now)));
+        return json.toString();
+    }
+
+    private static ObjectNode toJson(InFlight inFlight, long now) {
+        ObjectNode json = MAPPER.createObjectNode();
+        json.put("scenarios", inFlight.scenarios());
+        json.put("step", inFlight.step().stepNo());
+        json.put("action", inFlight.step().action());
+        json.put("element", inFlight.step().element());
+        json.put("elapsedMillis", (now - inFlight.startNanos()) / 1_000_000);
+        return json;
+    }
+}
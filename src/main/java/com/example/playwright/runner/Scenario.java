@@ -0,0 +1,35 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.FakeClock;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 1つのCSVシナリオ（名前とステップ列）
+ *
+ * @param name     シナリオ名（通常はCSVファイル名）
+ * @param steps    実行順のステップ
+ * @param metadata CSV先頭の「#キー=値」行で指定したシナリオ単位の設定
+ */
+public record Scenario(String name, List<ScenarioStep> steps, Map<String, String> metadata) {
+
+    public Scenario {
+        steps = List.copyOf(steps);
+        metadata = Map.copyOf(metadata);
+    }
+
+    public Scenario(String name, List<ScenarioStep> steps) {
+        this(name, steps, Map.of());
+    }
+
+    /**
+     * シナリオの制限時間（ms、0は無制限）
+     * CSVの「#timeout=2m」を優先し、無ければ scenario.timeout を使う
+     */
+    public long timeoutMillis(TestConfig config) {
+        String timeout = metadata.get("timeout");
+        return timeout != null ? FakeClock.parseDuration(timeout) : config.getScenarioTimeout();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.playwright.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * シナリオCSVの読み込みユーティリティ
+ *
+ * - 1行目をヘッダーとして各行をMap化
+ * - 「#」で始まる行はシナリオ単位の設定（#キー=値）として扱い、ステップには含めない
+ * - ダブルクォートで囲まれたセル（カンマを含むセレクタ等）に対応
+ */
+public class ScenarioCsvReader {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioCsvReader.class);
+
+    private ScenarioCsvReader() {
+    }
+
+    /**
+     * CSVファイルを読み込み、各行をヘッダー名→値のMapとして返す
+     *
+     * @param csvFileName フルパスのCSVファイル名
+     * @return 各行をMap化したリスト
+     */
+    public static List<Map<String, String>> readRows(String csvFileName) {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(csvFileName), StandardCharsets.UTF_8)) {
+            List<Map<String, String>> data = new ArrayList<>();
+            String[] headers = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.startsWith("#")) {
+                    continue; // シナリオ単位の設定行
+                }
+                String[] values = parseLine(line);
+                if (headers == null) {
+                    headers = values; // 最初の行はヘッダー
+                    logger.info("CSV Headers: {}", Arrays.toString(headers));
+                } else {
+                    data.add(toRow(headers, values));
+                }
+            }
+            return data;
+        } catch (Exception e) {
+            logger.error("Failed to load CSV file: {}", csvFileName, e);
+            throw new RuntimeException("Failed to load CSV file: " + csvFileName, e);
+        }
+    }
+
+    /**
+     * CSVファイル中の「#キー=値」行を読み込む
+     *
+     * @param csvFileName フルパスのCSVファイル名
+     * @return キー（小文字）と値
+     */
+    public static Map<String, String> readMetadata(String csvFileName) {
+        Map<String, String> metadata = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(csvFileName), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                int eq = line.indexOf('=');
+                if (line.startsWith("#") && eq > 0) {
+                    metadata.put(line.substring(1, eq).trim().toLowerCase(), line.substring(eq + 1).trim());
+                }
+            }
+            return metadata;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load CSV file: " + csvFileName, e);
+        }
+    }
+
+    /**
+     * CSVファイルをシナリオとして読み込む（ステップ番号が空の行は除外）
+     */
+    public static Scenario readScenario(Path csvFile) {
+        List<ScenarioStep> steps = new ArrayList<>();
+        for (Map<String, String> row : readRows(csvFile.toString())) {
+            ScenarioStep step = ScenarioStep.fromRow(row);
+            if (!step.isBlank()) {
+                steps.add(step);
+            }
+        }
+        return new Scenario(csvFile.getFileName().toString(), steps, readMetadata(csvFile.toString()));
+    }
+
+    /**
+     * ヘッダーと値の配列から1行分のMapを作成
+     */
+    static Map<String, String> toRow(String[] headers, String[] values) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < Math.min(headers.length, values.length); i++) {
+            String key = headers[i].trim();
+            String value = values[i].trim();
+            row.put(key, value);
+            logger.debug("  {} = {}", key, value);
+        }
+        return row;
+    }
+
+    /**
+     * CSVの1行をセルに分割（ダブルクォート・エスケープされた""に対応）
+     */
+    public static String[] parseLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"' && cell.toString().trim().isEmpty()) {
+                cell.setLength(0);
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells.toArray(new String[0]);
+    }
+}
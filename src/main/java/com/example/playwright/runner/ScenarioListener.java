@@ -0,0 +1,44 @@
+package com.example.playwright.runner;
+
+import java.util.List;
+
+/**
+ * シナリオ実行の進行を受け取るリスナー（レポート出力等）
+ *
+ * 複数のワーカースレッドから同時に呼ばれるため、実装はスレッドセーフにすること。
+ * 先頭ステップを共有したシナリオでは、共有ステップの結果が各シナリオについて通知される。
+ */
+public interface ScenarioListener {
+
+    /**
+     * シナリオ1件が実行待ちに追加された
+     */
+    default void scenarioQueued(Scenario scenario) {
+    }
+
+    /**
+     * ワーカーがステップ1件の実行を開始した（ステップを実行するワーカースレッドから呼ばれる）
+     *
+     * @param scenarios このステップを共有するシナリオ
+     */
+    default void stepStarted(List<Scenario> scenarios, ScenarioStep step) {
+    }
+
+    /**
+     * ステップ1件の実行が終わった
+     */
+    default void stepFinished(StepRecord record) {
+    }
+
+    /**
+     * シナリオ1件の結果が確定した
+     */
+    default void scenarioFinished(ScenarioResult result) {
+    }
+
+    /**
+     * ワーカーが担当した分岐の実行を終えた（ワーカースレッドから呼ばれる）
+     */
+    default void workerIdle() {
+    }
+}
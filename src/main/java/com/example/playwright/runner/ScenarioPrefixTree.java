@@ -0,0 +1,103 @@
+package com.example.playwright.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 複数シナリオの共通の先頭ステップをまとめたプレフィックスツリー
+ *
+ * 同じ操作（アクション・要素・入力値が一致）で始まるシナリオは同じノードを共有し、
+ * 操作が分かれる地点で子ノードに分岐する。
+ */
+public class ScenarioPrefixTree {
+    private final Node root = new Node(null);
+    private int totalSteps;
+    private int nodeCount;
+
+    private ScenarioPrefixTree() {
+    }
+
+    /**
+     * シナリオ群からツリーを構築
+     */
+    public static ScenarioPrefixTree build(List<Scenario> scenarios) {
+        ScenarioPrefixTree tree = new ScenarioPrefixTree();
+        for (Scenario scenario : scenarios) {
+            tree.add(scenario);
+        }
+        return tree;
+    }
+
+    private void add(Scenario scenario) {
+        Node node = root;
+        node.scenarios.add(scenario);
+        for (ScenarioStep step : scenario.steps()) {
+            Node child = node.children.get(step.signature());
+            if (child == null) {
+                child = new Node(step);
+                node.children.put(step.signature(), child);
+                nodeCount++;
+            }
+            child.scenarios.add(scenario);
+            node = child;
+        }
+        node.endingHere.add(scenario);
+        totalSteps += scenario.steps().size();
+    }
+
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * 全シナリオのステップ数の合計
+     */
+    public int totalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * 実際に実行されるステップ数（ノード数）
+     */
+    public int uniqueSteps() {
+        return nodeCount;
+    }
+
+    /**
+     * ツリーの1ノード（1ステップ）
+     */
+    public static final class Node {
+        private final ScenarioStep step;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        // このノードを通過するシナリオ
+        private final List<Scenario> scenarios = new ArrayList<>();
+        // このノードで最後のステップを迎えるシナリオ
+        private final List<Scenario> endingHere = new ArrayList<>();
+
+        private Node(ScenarioStep step) {
+            this.step = step;
+        }
+
+        /**
+         * このノードのステップ（ルートの場合はnull）
+         */
+        public ScenarioStep step() {
+            return step;
+        }
+
+        public List<Node> children() {
+            return List.copyOf(children.values());
+        }
+
+        public List<Scenario> scenarios() {
+            return Collections.unmodifiableList(scenarios);
+        }
+
+        public List<Scenario> endingHere() {
+            return Collections.unmodifiableList(endingHere);
+        }
+    }
+}
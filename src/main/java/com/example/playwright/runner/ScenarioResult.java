@@ -0,0 +1,33 @@
+package com.example.playwright.runner;
+
+/**
+ * シナリオ1件の実行結果
+ *
+ * @param scenarioName  シナリオ名
+ * @param passed        成功したかどうか
+ * @param failedStep    失敗したステップ番号（成功時はnull）
+ * @param message       失敗理由（成功時はnull）
+ * @param elapsedMillis シナリオのステップ実行時間の合計（共有ステップの時間を含む）
+ */
+public record ScenarioResult(String scenarioName, boolean passed, String failedStep, String message,
+        long elapsedMillis) {
+
+    public static ScenarioResult passed(Scenario scenario, long elapsedMillis) {
+        return new ScenarioResult(scenario.name(), true, null, null, elapsedMillis);
+    }
+
+    public static ScenarioResult failed(Scenario scenario, String failedStep, Throwable cause, long elapsedMillis) {
+        return new ScenarioResult(scenario.name(), false, failedStep, rootMessage(cause), elapsedMillis);
+    }
+
+    /**
+     * 例外チェーンの最も内側のメッセージを取得
+     */
+    private static String rootMessage(Throwable cause) {
+        Throwable t = cause;
+        while (t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+    }
+}
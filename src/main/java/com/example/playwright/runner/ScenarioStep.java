@@ -0,0 +1,45 @@
+package com.example.playwright.runner;
+
+import java.util.Map;
+
+/**
+ * シナリオCSVの1行（1ステップ）を表す不変オブジェクト
+ *
+ * @param stepNo      ステップ番号
+ * @param action      アクション名
+ * @param element     対象要素
+ * @param inputValue  入力値
+ * @param expected    期待結果
+ * @param description 説明
+ */
+public record ScenarioStep(String stepNo, String action, String element, String inputValue,
+        String expected, String description) {
+
+    /**
+     * CSVの1行（ヘッダー名→値のMap）からステップを生成
+     */
+    public static ScenarioStep fromRow(Map<String, String> row) {
+        return new ScenarioStep(
+                row.getOrDefault("ステップ", ""),
+                row.getOrDefault("アクション", ""),
+                row.getOrDefault("要素", ""),
+                row.getOrDefault("入力値", ""),
+                row.getOrDefault("期待結果", ""),
+                row.getOrDefault("説明", ""));
+    }
+
+    /**
+     * ステップ番号が空の行（コメント行・空行）かどうか
+     */
+    public boolean isBlank() {
+        return stepNo == null || stepNo.trim().isEmpty();
+    }
+
+    /**
+     * 実行内容を識別するキー（ステップ番号・説明は含めない）
+     * 同じキーを持つステップは同じ操作として共有できる
+     */
+    public String signature() {
+        return action.toLowerCase().trim() + '\u0000' + element + '\u0000' + inputValue + '\u0000' + expected;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.playwright.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * プレースホルダー（${customer.email} 等）を含むシナリオにデータ行を埋め込む
+ *
+ * 要素・入力値・期待結果の各セルが対象。
+ * ${名前空間.列名} と ${列名} のどちらでも参照できる。
+ * データ行に無い ${名前} は実行中に保存されるシナリオ変数（api アクション等）として残す。
+ */
+public class ScenarioTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    private ScenarioTemplate() {
+    }
+
+    /**
+     * テンプレートにデータ行を埋め込んだシナリオを作成
+     *
+     * @throws IllegalArgumentException データ行に存在しない ${名前空間.列名} がある場合
+     */
+    public static Scenario bind(Scenario template, String namespace, DataRowReader.DataRow row) {
+        List<ScenarioStep> steps = new ArrayList<>();
+        for (ScenarioStep step : template.steps()) {
+            steps.add(new ScenarioStep(step.stepNo(), step.action(),
+                    resolve(step.element(), namespace, row.values()),
+                    resolve(step.inputValue(), namespace, row.values()),
+                    resolve(step.expected(), namespace, row.values()),
+                    step.description()));
+        }
+        return new Scenario(instanceName(template, row), steps, template.metadata());
+    }
+
+    /**
+     * データ行ごとのシナリオ名（失敗をどの行か特定できるよう行番号を付与）
+     */
+    public static String instanceName(Scenario template, DataRowReader.DataRow row) {
+        return template.name() + "#" + row.number();
+    }
+
+    /**
+     * 文字列中のプレースホルダーを値で置換
+     */
+    public static String resolve(String text, String namespace, Map<String, String> values) {
+        if (text == null || !text.contains("${")) {
+            return text;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String key = matcher.group(1).trim();
+            boolean qualified = key.startsWith(namespace + ".");
+            String column = qualified ? key.substring(namespace.length() + 1) : key;
+            String value = values.get(column);
+            if (value == null) {
+                if (qualified) {
+                    throw new IllegalArgumentException("Unbound placeholder: ${" + key + "}");
+                }
+                // シナリオ変数として実行時に解決する
+                value = matcher.group();
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.utils.StepTraffic;
+
+import java.util.List;
+
+/**
+ * ステップ1件の実行記録
+ *
+ * @param scenarioName   シナリオ名
+ * @param step           実行したステップ
+ * @param durationMillis 実行時間（ms）
+ * @param error          失敗理由（成功時はnull）
+ * @param artifacts      このステップで保存したファイル（スクリーンショット等）のパス
+ * @param traffic        このステップで開始した通信の集計（network.stepStats が無効ならnull）
+ */
+public record StepRecord(String scenarioName, ScenarioStep step, long durationMillis, String error,
+        List<String> artifacts, StepTraffic traffic) {
+
+    public StepRecord {
+        artifacts = List.copyOf(artifacts);
+    }
+
+    public StepRecord(String scenarioName, ScenarioStep step, long durationMillis, String error, List<String> artifacts) {
+        this(scenarioName, step, durationMillis, error, artifacts, null);
+    }
+
+    public boolean passed() {
+        return error == null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.playwright.runner;
+
+import com.example.playwright.base.BrowserFactory;
+import com.example.playwright.config.TestConfig;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * シナリオ実行用のワーカースレッドプール
+ *
+ * PlaywrightはスレッドセーフではないためワーカーごとにPlaywrightとブラウザの種類ごとのBrowserを保持し、
+ * タスクには実行中ワーカーのBrowserの取得処理を渡す。BrowserContextはタスク側で作成・破棄する。
+ * 起動の失敗はタスク内で Browser を取得した時点で例外になるため、タスク側で結果として記録できる
+ * （起動に失敗した種類はワーカーごとに記録し、以降のタスクでは起動をやり直さない）。
+ * ブラウザの種類ごとに同時実行数の上限を指定でき、上限に達した種類のタスクはワーカーを占有せずに
+ * プール側で待たせ、その間は他の種類のタスクを実行する（複数ブラウザのマトリクス実行用）。
+ */
+public class WorkerPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerPool.class);
+    private final TestConfig config;
+    private final ExecutorService executor;
+    // ワーカーごとのPlaywrightと、ブラウザの種類 → Browser（初回タスク実行時に起動）
+    private final ThreadLocal<Playwright> workerPlaywright = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, Browser>> browsers = ThreadLocal.withInitial(HashMap::new);
+    // ワーカーごとの、起動に失敗したブラウザの種類 → 失敗の内容
+    private final ThreadLocal<Map<String, RuntimeException>> failures = ThreadLocal.withInitial(HashMap::new);
+    // ブラウザの起動設定 → Browser の起動処理（ワーカースレッド上で呼ばれる）
+    private final Function<TestConfig, Browser> launcher;
+    // ブラウザの種類ごとの同時実行数の上限・実行中のタスク数・上限で待っているタスク
+    private final Map<String, Integer> limits;
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Queue<Runnable>> waiting = new LinkedHashMap<>();
+    // 終了時にまとめて解放するPlaywrightインスタンス
+    private final Queue<Playwright> playwrights = new ConcurrentLinkedQueue<>();
+
+    public WorkerPool(TestConfig config, int threads) {
+        this(config, threads, Map.of());
+    }
+
+    /**
+     * @param limits ブラウザの種類 → 同時実行数の上限（指定の無い種類はワーカー数まで）
+     */
+    public WorkerPool(TestConfig config, int threads, Map<String, Integer> limits) {
+        this(config, threads, limits, null);
+    }
+
+    /**
+     * @param limits   ブラウザの種類 → 同時実行数の上限（指定の無い種類はワーカー数まで）
+     * @param launcher ブラウザの種類 → Browser の起動処理（nullならワーカーごとのPlaywrightで起動）
+     */
+    public WorkerPool(TestConfig config, int threads, Map<String, Integer> limits, Function<String, Browser> launcher) {
+        this.config = config;
+        this.limits = Map.copyOf(limits);
+        this.launcher = launcher != null ? browserConfig -> launcher.apply(browserConfig.getBrowser()) : this::launch;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads,
+                r -> new Thread(r, "scenario-worker-" + sequence.incrementAndGet()));
+        logger.info("ワーカープールを作成しました: threads={}", threads);
+    }
+
+    /**
+     * タスクをワーカーで実行（タスクにはワーカー専用のBrowserの取得処理が渡される）
+     */
+    public void submit(Consumer<Supplier<Browser>> task) {
+        submit(config.getBrowser(), task);
+    }
+
+    /**
+     * 指定した種類のブラウザでタスクを実行（その種類の同時実行数が上限に達していれば空くまで待たせる）
+     */
+    public void submit(String browserName, Consumer<Supplier<Browser>> task) {
+        submit(config.withBrowser(browserName), task);
+    }
+
+    /**
+     * 指定した設定のブラウザ（playwright.browser の種類・起動オプション）でタスクを実行
+     *
+     * 起動済みのBrowserはワーカーごと・種類ごとに使い回すため、同じ種類は同じ設定で投入すること。
+     */
+    public void submit(TestConfig browserConfig, Consumer<Supplier<Browser>> task) {
+        String browserName = browserConfig.getBrowser();
+        synchronized (this) {
+            waiting.computeIfAbsent(browserName, key -> new ArrayDeque<>()).add(() -> task.accept(() -> browser(browserConfig)));
+        }
+        dispatch();
+    }
+
+    /**
+     * 上限に空きのある種類の待ちタスクをワーカーに渡す
+     */
+    private synchronized void dispatch() {
+        waiting.forEach((browserName, queue) -> {
+            int limit = limits.getOrDefault(browserName, Integer.MAX_VALUE);
+            while (!queue.isEmpty() && running.getOrDefault(browserName, 0) < limit) {
+                Runnable task = queue.poll();
+                running.merge(browserName, 1, Integer::sum);
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        release(browserName);
+                    }
+                });
+            }
+        });
+    }
+
+    private void release(String browserName) {
+        synchronized (this) {
+            running.merge(browserName, -1, Integer::sum);
+        }
+        dispatch();
+    }
+
+    /**
+     * 実行中ワーカーの指定した種類のBrowserを取得（未起動なら起動）
+     *
+     * @throws IllegalStateException このワーカーでその種類のブラウザを起動できなかった場合
+     */
+    private Browser browser(TestConfig browserConfig) {
+        String browserName = browserConfig.getBrowser();
+        Map<String, Browser> launched = browsers.get();
+        Browser browser = launched.get(browserName);
+        if (browser != null) {
+            return browser;
+        }
+        RuntimeException failure = failures.get().get(browserName);
+        if (failure == null) {
+            try {
+                browser = launcher.apply(browserConfig);
+                launched.put(browserName, browser);
+                logger.info("ワーカー {} でブラウザ {} を起動しました", Thread.currentThread().getName(), browserName);
+                return browser;
+            } catch (RuntimeException e) {
+                failure = e;
+                failures.get().put(browserName, e);
+                logger.error("ワーカー {} でブラウザ {} を起動できません: {}",
+                        Thread.currentThread().getName(), browserName, e.getMessage());
+            }
+        }
+        throw new IllegalStateException("Failed to launch browser " + browserName + ": " + failure.getMessage(), failure);
+    }
+
+    /**
+     * 実行中ワーカーのPlaywrightでブラウザを起動（Playwrightはワーカーごとに初回のみ作成）
+     */
+    private Browser launch(TestConfig browserConfig) {
+        Playwright playwright = workerPlaywright.get();
+        if (playwright == null) {
+            playwright = Playwright.create();
+            playwrights.add(playwright);
+            workerPlaywright.set(playwright);
+        }
+        return BrowserFactory.launch(playwright, browserConfig);
+    }
+
+    /**
+     * 全タスクの終了を待ってからブラウザを解放（上限で待っているタスクが無くなってから呼ぶこと）
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Playwright playwright;
+        while ((playwright = playwrights.poll()) != null) {
+            try {
+                playwright.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close Playwright: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.RequestOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CSVの api アクション（UIを介さずにバックエンドへHTTPリクエストを送る）
+ *
+ * リクエストは現在の BrowserContext のリクエストコンテキストから送るため、
+ * ログイン済みのCookieがそのまま使われ、レスポンスで設定されたCookieも画面側に反映される。
+ *
+ * <pre>
+ * 要素:     POST /api/customers          （メソッド省略時は GET、相対URLは現在のページ基準）
+ * 入力値:   {"name":"山田","plan":"pro"}  （リクエストボディ、省略可）
+ * 期待結果: 201; customerId=$.id; token=$.data.token
+ *           （数値は期待するステータス、名前=パス はレスポンスJSONの値を変数に保存）
+ * </pre>
+ */
+public class ApiCall {
+    private static final Logger logger = LoggerFactory.getLogger(ApiCall.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String method;
+    private final String url;
+    private final Integer expectedStatus;
+    private final Map<String, String> captures;
+
+    private ApiCall(String method, String url, Integer expectedStatus, Map<String, String> captures) {
+        this.method = method;
+        this.url = url;
+        this.expectedStatus = expectedStatus;
+        this.captures = captures;
+    }
+
+    /**
+     * CSVの要素列（メソッドとURL）と期待結果列を解析
+     */
+    public static ApiCall parse(String request, String expected) {
+        if (request == null || request.trim().isEmpty()) {
+            throw new IllegalArgumentException("API request is empty");
+        }
+        String[] parts = request.trim().split("\\s+", 2);
+        String method = parts.length == 2 ? parts[0].toUpperCase() : "GET";
+        String url = parts.length == 2 ? parts[1].trim() : parts[0];
+
+        Integer expectedStatus = null;
+        Map<String, String> captures = new LinkedHashMap<>();
+        if (expected != null) {
+            for (String entry : expected.split(";")) {
+                String item = entry.trim();
+                int eq = item.indexOf('=');
+                if (eq > 0) {
+                    captures.put(item.substring(0, eq).trim(), item.substring(eq + 1).trim());
+                } else if (item.matches("\\d{3}")) {
+                    expectedStatus = Integer.parseInt(item);
+                } else if (!item.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid API expectation: " + item);
+                }
+            }
+        }
+        return new ApiCall(method, url, expectedStatus, captures);
+    }
+
+    /**
+     * リクエストを送信し、保存対象の値を返す
+     *
+     * @param page 現在のページ（Cookieの共有と相対URLの基準に使用）
+     * @param body リクエストボディ（省略可）
+     * @param baseUrl 現在のページがHTTPでない場合に相対URLの基準とするURL
+     * @return 変数名と値
+     */
+    public Map<String, String> send(Page page, String body, String baseUrl) {
+        String target = resolveUrl(page.url().startsWith("http") ? page.url() : baseUrl, url);
+        RequestOptions options = RequestOptions.create().setMethod(method);
+        if (body != null && !body.trim().isEmpty()) {
+            String data = body.trim();
+            if (data.startsWith("{") || data.startsWith("[")) {
+                options.setHeader("Content-Type", "application/json");
+            }
+            options.setData(data);
+        }
+
+        long start = System.nanoTime();
+        APIResponse response = page.context().request().fetch(target, options);
+        try {
+            int status = response.status();
+            logger.info("API {} {} -> {} ({} ms)", method, target, status, (System.nanoTime() - start) / 1_000_000);
+            if (expectedStatus != null ? status != expectedStatus : !response.ok()) {
+                throw new AssertionError("API " + method + " " + target + " returned " + status
+                        + (expectedStatus != null ? " (expected " + expectedStatus + ")" : "")
+                        + ": " + abbreviate(response.text()));
+            }
+            if (captures.isEmpty()) {
+                return Map.of();
+            }
+            return capture(response.text());
+        } finally {
+            response.dispose();
+        }
+    }
+
+    /**
+     * レスポンスJSONから保存対象の値を取り出す
+     */
+    Map<String, String> capture(String responseText) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(responseText);
+        } catch (IOException e) {
+            throw new RuntimeException("API response is not JSON: " + abbreviate(responseText), e);
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> capture : captures.entrySet()) {
+            JsonNode node = select(root, capture.getValue());
+            if (node == null || node.isMissingNode() || node.isNull()) {
+                throw new RuntimeException("API response field not found: " + capture.getValue());
+            }
+            values.put(capture.getKey(), node.isValueNode() ? node.asText() : node.toString());
+        }
+        return values;
+    }
+
+    /**
+     * パス（$.data.items[0].id または data.items.0.id 形式）でJSONの値を取得
+     */
+    public static JsonNode select(JsonNode root, String path) {
+        String normalized = path.trim();
+        if (normalized.startsWith("$")) {
+            normalized = normalized.substring(1);
+        }
+        JsonNode node = root;
+        for (String token : normalized.replaceAll("\\[(\\d+)]", ".$1").split("\\.")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (node == null) {
+                return null;
+            }
+            node = node.isArray() && token.matches("\\d+") ? node.get(Integer.parseInt(token)) : node.get(token);
+        }
+        return node;
+    }
+
+    static String resolveUrl(String base, String url) {
+        if (url.contains("://")) {
+            return url;
+        }
+        return URI.create(base).resolve(url).toString();
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+}
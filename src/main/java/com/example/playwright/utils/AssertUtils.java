@@ -1,167 +1,429 @@
 package com.example.playwright.utils;
 
+import com.example.playwright.config.TestConfig;
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.assertions.LocatorAssertions;
+import com.microsoft.playwright.assertions.PageAssertions;
+import com.microsoft.playwright.assertions.PlaywrightAssertions;
+import com.microsoft.playwright.options.WaitForSelectorState;
 import org.junit.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
+import java.util.regex.Pattern;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 /**
  * 汎用的なアサーションユーティリティクラス
+ *
+ * 各アサーションは条件が成立するまで自動リトライし（最大 assert.timeout ミリ秒）、成立した時点で即座に戻る。
+ * 共通設定以外の待機時間（実行中のシナリオの設定等）を使う場合は timeout を引数に取る版を使う。
+ * タイトル・テキスト・属性・状態・件数の検証は Playwright の assertThat（ブラウザ側で条件成立まで待機）を使い、
+ * 表示・存在・URLの検証はPlaywrightのイベント待機で条件成立を待ってから判定する。
  */
 public class AssertUtils {
     private static final Logger logger = LoggerFactory.getLogger(AssertUtils.class);
+
+    /**
+     * ソフトアサーションを開始（検証をまとめて1回のページ評価で実行し、不一致を一括報告）
+     */
+    public static SoftAssertions softly(Page page) {
+        return new SoftAssertions(page);
+    }
+
+    /**
+     * ソフトアサーションを開始（assertAll() で全ての検証が成立するまで最大 timeout ミリ秒評価を繰り返す）
+     */
+    public static SoftAssertions softly(Page page, double timeout) {
+        return new SoftAssertions(page, timeout);
+    }
+
     /**
      * ページタイトルをアサート
      */
     public static void assertTitle(Page page, String expectedTitle) {
-        String actualTitle = page.title();
-        logger.info("タイトル検証: actual='{}', expected='{}'", actualTitle, expectedTitle);
-        assertThat("ページタイトルが期待値と異なります", actualTitle, equalTo(expectedTitle));
+        assertTitle(page, expectedTitle, timeout());
+    }
+    
+    /**
+     * ページタイトルをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertTitle(Page page, String expectedTitle, double timeout) {
+        logger.info("タイトル検証: expected='{}'", expectedTitle);
+        expect("ページタイトルが期待値と異なります", () -> PlaywrightAssertions.assertThat(page)
+                .hasTitle(expectedTitle, new PageAssertions.HasTitleOptions().setTimeout(timeout)));
     }
     
     /**
      * ページタイトルに指定の文字列が含まれることをアサート
      */
     public static void assertTitleContains(Page page, String expectedText) {
-        String actualTitle = page.title();
-        logger.info("タイトル部分一致検証: actual='{}', contains='{}'", actualTitle, expectedText);
-        assertThat("ページタイトルに期待される文字列が含まれていません", actualTitle, containsString(expectedText));
+        assertTitleContains(page, expectedText, timeout());
+    }
+    
+    /**
+     * ページタイトルに指定の文字列が含まれることをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertTitleContains(Page page, String expectedText, double timeout) {
+        logger.info("タイトル部分一致検証: contains='{}'", expectedText);
+        expect("ページタイトルに期待される文字列が含まれていません", () -> PlaywrightAssertions.assertThat(page)
+                .hasTitle(Pattern.compile(Pattern.quote(expectedText)), new PageAssertions.HasTitleOptions().setTimeout(timeout)));
     }
     
     /**
      * URLをアサート
      */
     public static void assertUrl(Page page, String expectedUrl) {
-        String actualUrl = page.url();
-        logger.info("URL検証: actual='{}', expected='{}'", actualUrl, expectedUrl);
-        assertThat("URLが期待値と異なります", actualUrl, equalTo(expectedUrl));
+        assertUrl(page, expectedUrl, timeout());
+    }
+    
+    /**
+     * URLをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertUrl(Page page, String expectedUrl, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.waitForURL(url -> url.equals(expectedUrl),
+                new Page.WaitForURLOptions().setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            String actualUrl = page.url();
+            logger.info("URL検証: actual='{}', expected='{}'", actualUrl, expectedUrl);
+            assertThat("URLが期待値と異なります", actualUrl, equalTo(expectedUrl));
+        });
     }
     
     /**
      * URLに指定の文字列が含まれることをアサート
      */
     public static void assertUrlContains(Page page, String expectedText) {
-        String actualUrl = page.url();
-        logger.info("URL部分一致検証: actual='{}', contains='{}'", actualUrl, expectedText);
-        assertThat("URLに期待される文字列が含まれていません", actualUrl, containsString(expectedText));
+        assertUrlContains(page, expectedText, timeout());
+    }
+    
+    /**
+     * URLに指定の文字列が含まれることをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertUrlContains(Page page, String expectedText, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.waitForURL(url -> url.contains(expectedText),
+                new Page.WaitForURLOptions().setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            String actualUrl = page.url();
+            logger.info("URL部分一致検証: actual='{}', contains='{}'", actualUrl, expectedText);
+            assertThat("URLに期待される文字列が含まれていません", actualUrl, containsString(expectedText));
+        });
     }
     
     /**
      * 要素の表示をアサート
      */
     public static void assertElementVisible(Page page, String selector) {
-        boolean isVisible = page.locator(selector).isVisible();
-        logger.info("要素表示検証: selector='{}', isVisible={}", selector, isVisible);
-        Assert.assertTrue("要素が表示されていません: " + selector, isVisible);
+        assertElementVisible(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の表示をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementVisible(Page page, String selector, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.locator(selector).first().waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE).setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            boolean isVisible = page.locator(selector).isVisible();
+            logger.info("要素表示検証: selector='{}', isVisible={}", selector, isVisible);
+            Assert.assertTrue("要素が表示されていません: " + selector, isVisible);
+        });
     }
     
     /**
      * 要素の非表示をアサート
      */
     public static void assertElementNotVisible(Page page, String selector) {
-        boolean isVisible = page.locator(selector).isVisible();
-        logger.info("要素非表示検証: selector='{}', isVisible={}", selector, isVisible);
-        Assert.assertFalse("要素が表示されています: " + selector, isVisible);
+        assertElementNotVisible(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の非表示をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementNotVisible(Page page, String selector, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.locator(selector).first().waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.HIDDEN).setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            boolean isVisible = page.locator(selector).isVisible();
+            logger.info("要素非表示検証: selector='{}', isVisible={}", selector, isVisible);
+            Assert.assertFalse("要素が表示されています: " + selector, isVisible);
+        });
     }
     
     /**
      * 要素の存在をアサート
      */
     public static void assertElementExists(Page page, String selector) {
-        int count = page.locator(selector).count();
-        logger.info("要素存在検証: selector='{}', count={}", selector, count);
-        Assert.assertTrue("要素が存在しません: " + selector, count > 0);
+        assertElementExists(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の存在をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementExists(Page page, String selector, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.locator(selector).first().waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.ATTACHED).setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            int count = page.locator(selector).count();
+            logger.info("要素存在検証: selector='{}', count={}", selector, count);
+            Assert.assertTrue("要素が存在しません: " + selector, count > 0);
+        });
     }
     
     /**
      * 要素の非存在をアサート
      */
     public static void assertElementNotExists(Page page, String selector) {
-        int count = page.locator(selector).count();
-        logger.info("要素非存在検証: selector='{}', count={}", selector, count);
-        Assert.assertEquals("要素が存在します: " + selector, 0, count);
+        assertElementNotExists(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の非存在をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementNotExists(Page page, String selector, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        awaitQuietly(() -> page.locator(selector).first().waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.DETACHED).setTimeout(timeout)));
+        retryUntilDeadline(deadline, () -> {
+            int count = page.locator(selector).count();
+            logger.info("要素非存在検証: selector='{}', count={}", selector, count);
+            Assert.assertEquals("要素が存在します: " + selector, 0, count);
+        });
     }
     
     /**
      * 要素のテキストをアサート
      */
     public static void assertElementText(Page page, String selector, String expectedText) {
-        String actualText = page.locator(selector).textContent();
-        logger.info("要素テキスト検証: selector='{}', actualText='{}', expectedText='{}'", selector, actualText, expectedText);
-        assertThat("要素のテキストが期待値と異なります", actualText, equalTo(expectedText));
+        assertElementText(page, selector, expectedText, timeout());
+    }
+    
+    /**
+     * 要素のテキストをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementText(Page page, String selector, String expectedText, double timeout) {
+        logger.info("要素テキスト検証: selector='{}', expectedText='{}'", selector, expectedText);
+        expect("要素のテキストが期待値と異なります", () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .hasText(expectedText, new LocatorAssertions.HasTextOptions().setTimeout(timeout)));
     }
     
     /**
      * 要素のテキストに指定の文字列が含まれることをアサート
      */
     public static void assertElementTextContains(Page page, String selector, String expectedText) {
-        String actualText = page.locator(selector).textContent();
-        logger.info("要素テキスト部分一致検証: selector='{}', actualText='{}', contains='{}'", selector, actualText, expectedText);
-        assertThat("要素のテキストに期待される文字列が含まれていません", actualText, containsString(expectedText));
+        assertElementTextContains(page, selector, expectedText, timeout());
+    }
+    
+    /**
+     * 要素のテキストに指定の文字列が含まれることをアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementTextContains(Page page, String selector, String expectedText, double timeout) {
+        logger.info("要素テキスト部分一致検証: selector='{}', contains='{}'", selector, expectedText);
+        expect("要素のテキストに期待される文字列が含まれていません", () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .containsText(expectedText, new LocatorAssertions.ContainsTextOptions().setTimeout(timeout)));
     }
     
     /**
      * 要素の属性値をアサート
      */
     public static void assertElementAttribute(Page page, String selector, String attribute, String expectedValue) {
-        String actualValue = page.locator(selector).getAttribute(attribute);
-        logger.info("要素属性値検証: selector='{}', attribute='{}', actualValue='{}', expectedValue='{}'", selector, attribute, actualValue, expectedValue);
-        assertThat("要素の属性値が期待値と異なります", actualValue, equalTo(expectedValue));
+        assertElementAttribute(page, selector, attribute, expectedValue, timeout());
+    }
+    
+    /**
+     * 要素の属性値をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementAttribute(Page page, String selector, String attribute, String expectedValue, double timeout) {
+        logger.info("要素属性値検証: selector='{}', attribute='{}', expectedValue='{}'", selector, attribute, expectedValue);
+        expect("要素の属性値が期待値と異なります", () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .hasAttribute(attribute, expectedValue, new LocatorAssertions.HasAttributeOptions().setTimeout(timeout)));
     }
     
     /**
      * 要素の有効性をアサート
      */
     public static void assertElementEnabled(Page page, String selector) {
-        boolean isEnabled = page.locator(selector).isEnabled();
-        logger.info("要素有効性検証: selector='{}', isEnabled={}", selector, isEnabled);
-        Assert.assertTrue("要素が有効ではありません: " + selector, isEnabled);
+        assertElementEnabled(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の有効性をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementEnabled(Page page, String selector, double timeout) {
+        logger.info("要素有効性検証: selector='{}'", selector);
+        expect("要素が有効ではありません: " + selector, () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .isEnabled(new LocatorAssertions.IsEnabledOptions().setTimeout(timeout)));
     }
     
     /**
      * 要素の無効性をアサート
      */
     public static void assertElementDisabled(Page page, String selector) {
-        boolean isEnabled = page.locator(selector).isEnabled();
-        logger.info("要素無効性検証: selector='{}', isEnabled={}", selector, isEnabled);
-        Assert.assertFalse("要素が有効です: " + selector, isEnabled);
+        assertElementDisabled(page, selector, timeout());
+    }
+    
+    /**
+     * 要素の無効性をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementDisabled(Page page, String selector, double timeout) {
+        logger.info("要素無効性検証: selector='{}'", selector);
+        expect("要素が有効です: " + selector, () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .isDisabled(new LocatorAssertions.IsDisabledOptions().setTimeout(timeout)));
     }
     
     /**
      * 要素数をアサート
      */
     public static void assertElementCount(Page page, String selector, int expectedCount) {
-        int actualCount = page.locator(selector).count();
-        logger.info("要素数検証: selector='{}', actualCount={}, expectedCount={}", selector, actualCount, expectedCount);
-        Assert.assertEquals("要素数が期待値と異なります", expectedCount, actualCount);
+        assertElementCount(page, selector, expectedCount, timeout());
+    }
+    
+    /**
+     * 要素数をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertElementCount(Page page, String selector, int expectedCount, double timeout) {
+        logger.info("要素数検証: selector='{}', expectedCount={}", selector, expectedCount);
+        expect("要素数が期待値と異なります", () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .hasCount(expectedCount, new LocatorAssertions.HasCountOptions().setTimeout(timeout)));
     }
     
     /**
      * チェックボックスのチェック状態をアサート
      */
     public static void assertCheckboxChecked(Page page, String selector) {
-        boolean isChecked = page.locator(selector).isChecked();
-        logger.info("チェックボックスチェック状態検証: selector='{}', isChecked={}", selector, isChecked);
-        Assert.assertTrue("チェックボックスがチェックされていません: " + selector, isChecked);
+        assertCheckboxChecked(page, selector, timeout());
+    }
+    
+    /**
+     * チェックボックスのチェック状態をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertCheckboxChecked(Page page, String selector, double timeout) {
+        logger.info("チェックボックスチェック状態検証: selector='{}'", selector);
+        expect("チェックボックスがチェックされていません: " + selector, () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .isChecked(new LocatorAssertions.IsCheckedOptions().setTimeout(timeout)));
     }
     
     /**
      * チェックボックスの非チェック状態をアサート
      */
     public static void assertCheckboxUnchecked(Page page, String selector) {
-        boolean isChecked = page.locator(selector).isChecked();
-        logger.info("チェックボックス非チェック状態検証: selector='{}', isChecked={}", selector, isChecked);
-        Assert.assertFalse("チェックボックスがチェックされています: " + selector, isChecked);
+        assertCheckboxUnchecked(page, selector, timeout());
+    }
+    
+    /**
+     * チェックボックスの非チェック状態をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertCheckboxUnchecked(Page page, String selector, double timeout) {
+        logger.info("チェックボックス非チェック状態検証: selector='{}'", selector);
+        expect("チェックボックスがチェックされています: " + selector, () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .isChecked(new LocatorAssertions.IsCheckedOptions().setChecked(false).setTimeout(timeout)));
     }
     
     /**
      * 入力フィールドの値をアサート
      */
     public static void assertInputValue(Page page, String selector, String expectedValue) {
-        String actualValue = page.locator(selector).inputValue();
-        logger.info("入力フィールド値検証: selector='{}', actualValue='{}', expectedValue='{}'", selector, actualValue, expectedValue);
-        assertThat("入力フィールドの値が期待値と異なります", actualValue, equalTo(expectedValue));
+        assertInputValue(page, selector, expectedValue, timeout());
+    }
+    
+    /**
+     * 入力フィールドの値をアサート（待機の上限を指定）
+     *
+     * @param timeout 条件の成立を待つ最大時間（ms）
+     */
+    public static void assertInputValue(Page page, String selector, String expectedValue, double timeout) {
+        logger.info("入力フィールド値検証: selector='{}', expectedValue='{}'", selector, expectedValue);
+        expect("入力フィールドの値が期待値と異なります", () -> PlaywrightAssertions.assertThat(page.locator(selector))
+                .hasValue(expectedValue, new LocatorAssertions.HasValueOptions().setTimeout(timeout)));
+    }
+    
+    /**
+     * Playwright の assertThat を実行し、失敗時はこのクラスのメッセージを先頭に付けて報告
+     */
+    private static void expect(String message, Runnable assertion) {
+        try {
+            assertion.run();
+        } catch (AssertionError e) {
+            throw new AssertionError(message + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 検証が成功するまで再試行（間隔は50msから最大500msまで延長、上限は deadline）
+     */
+    private static void retryUntilDeadline(long deadline, Runnable assertion) {
+        long backoff = 50;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() + backoff > deadline) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while retrying assertion", e);
+            }
+            backoff = Math.min(backoff * 2, 500);
+        }
+    }
+    
+    /**
+     * 条件成立を待機（タイムアウトしても例外にせず、直後の検証で失敗させる）
+     */
+    private static void awaitQuietly(Runnable wait) {
+        try {
+            wait.run();
+        } catch (PlaywrightException e) {
+            logger.debug("待機がタイムアウトしました: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 待機の上限を指定しない場合の既定値（共通設定の assert.timeout）
+     */
+    private static int timeout() {
+        return TestConfig.getInstance().getAssertTimeout();
     }
 }
@@ -0,0 +1,183 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.FrameLocator;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Page・Locator 経由の Playwright ドライバー呼び出しをステップごとに数える
+ *
+ * instrument() した Page と、そこから作った Locator・FrameLocator の呼び出し回数と累計時間を
+ * 実行中のステップ（beginStep() から endStep() まで）ごとに集計し、report() で時間のかかった順に出力する。
+ * ロケーターの作成（page.locator() 等）と url()・context()・isClosed() はドライバーと通信しないため数えない。
+ *
+ * Playwright 本体に渡す場合（assertThat 等）は unwrap() で元のオブジェクトに戻すこと。
+ */
+public class DriverCallStats {
+    private static final Set<String> LOCAL_METHODS = Set.of("url", "context", "isClosed");
+    private static final String OUTSIDE_STEP = "(ステップ外)";
+
+    private static final Map<String, StepStats> STEPS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_STEP = new ThreadLocal<>();
+
+    private DriverCallStats() {
+    }
+
+    /**
+     * 呼び出しを数える Page を作成
+     */
+    public static Page instrument(Page page) {
+        return wrap(page, Page.class);
+    }
+
+    /**
+     * instrument() で作ったオブジェクトを元に戻す（それ以外はそのまま返す）
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unwrap(T target) {
+        if (target != null && Proxy.isProxyClass(target.getClass())
+                && Proxy.getInvocationHandler(target) instanceof Handler handler) {
+            return (T) handler.target;
+        }
+        return target;
+    }
+
+    /**
+     * 現在のスレッドで実行するステップの開始（同じラベルのステップはまとめて集計）
+     */
+    public static void beginStep(String label) {
+        CURRENT_STEP.set(label);
+        STEPS.computeIfAbsent(label, key -> new StepStats()).executions.increment();
+    }
+
+    public static void endStep() {
+        CURRENT_STEP.remove();
+    }
+
+    /**
+     * 累計時間の長いステップから順に、呼び出し回数と内訳を整形
+     *
+     * @param limit 出力するステップ数
+     */
+    public static String report(int limit) {
+        List<Map.Entry<String, StepStats>> ranked = new ArrayList<>(STEPS.entrySet());
+        ranked.removeIf(entry -> entry.getValue().calls() == 0);
+        ranked.sort(Comparator.comparingLong((Map.Entry<String, StepStats> entry) -> entry.getValue().nanos()).reversed());
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, StepStats> entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            StepStats stats = entry.getValue();
+            report.append(String.format("%s: 実行 %d 回, 呼び出し %d 回, %d ms [%s]%n",
+                    entry.getKey(), stats.executions.sum(), stats.calls(), stats.nanos() / 1_000_000,
+                    stats.byMethod().entrySet().stream()
+                            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                            .map(method -> method.getKey() + " " + method.getValue())
+                            .collect(Collectors.joining(", "))));
+        }
+        return report.toString();
+    }
+
+    /**
+     * 集計を消去
+     */
+    public static void reset() {
+        STEPS.clear();
+    }
+
+    private static void record(String method, long nanos) {
+        String step = CURRENT_STEP.get();
+        LongAdder[] counters = STEPS.computeIfAbsent(step != null ? step : OUTSIDE_STEP, key -> new StepStats())
+                .methods.computeIfAbsent(method, key -> new LongAdder[] { new LongAdder(), new LongAdder() });
+        counters[0].increment();
+        counters[1].add(nanos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(T target, Class<T> type) {
+        if (target == null || unwrap(target) != target) {
+            return target;
+        }
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new Handler(target, type));
+    }
+
+    private static final class Handler implements InvocationHandler {
+        private final Object target;
+        private final String typeName;
+
+        Handler(Object target, Class<?> type) {
+            this.target = target;
+            this.typeName = type.getSimpleName();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> target.equals(unwrap(args[0]));
+                    case "hashCode" -> target.hashCode();
+                    default -> target.toString();
+                };
+            }
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = unwrap(args[i]);
+                }
+            }
+            Class<?> returnType = method.getReturnType();
+            boolean builder = returnType == Locator.class || returnType == FrameLocator.class;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (!builder && !LOCAL_METHODS.contains(method.getName())) {
+                    record(typeName + "." + method.getName(), System.nanoTime() - start);
+                }
+            }
+            if (returnType == Locator.class) {
+                return wrap((Locator) result, Locator.class);
+            }
+            if (returnType == FrameLocator.class) {
+                return wrap((FrameLocator) result, FrameLocator.class);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * ステップ1種類分の集計（メソッド名 → [回数, 累計ナノ秒]）
+     */
+    private static final class StepStats {
+        final LongAdder executions = new LongAdder();
+        final Map<String, LongAdder[]> methods = new ConcurrentHashMap<>();
+
+        long calls() {
+            return methods.values().stream().mapToLong(counters -> counters[0].sum()).sum();
+        }
+
+        long nanos() {
+            return methods.values().stream().mapToLong(counters -> counters[1].sum()).sum();
+        }
+
+        Map<String, Long> byMethod() {
+            Map<String, Long> counts = new TreeMap<>();
+            methods.forEach((method, counters) -> counts.put(method, counters[0].sum()));
+            return counts;
+        }
+    }
+}
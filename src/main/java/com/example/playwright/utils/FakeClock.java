@@ -0,0 +1,221 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Frame;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ページ内の時計（Date・performance.now・setTimeout・setInterval）を操作可能にする
+ *
+ * 初期化スクリプトとしてブラウザコンテキストに登録するため、以降に開く全てのページ・フレームに適用される。
+ * 時計は通常どおり実時間で進み、fastForward で指定時間だけ一気に進められる。
+ * 進めた時間内に期限を迎えるタイマーは期限の順に直ちに実行される（setInterval は経過した周期の回数だけ実行）。
+ * 進めた時間はタブ内で保持するため、同じオリジン内で画面遷移しても時刻は巻き戻らない。
+ */
+public class FakeClock {
+    private static final Logger logger = LoggerFactory.getLogger(FakeClock.class);
+    private static final Pattern DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(ms|h|m|s|時間|分|秒|ミリ秒)?");
+    // 1回の fastForward でフレームごとに実行するタイマーの上限（短い周期の setInterval で止まらなくなるのを防ぐ）
+    static final int MAX_TIMER_RUNS = 1000;
+
+    private FakeClock() {
+    }
+
+    /**
+     * ブラウザコンテキストに時計を登録（以降に読み込むページに適用）
+     */
+    public static void install(BrowserContext context) {
+        context.addInitScript(INSTALL_SCRIPT);
+        logger.info("Fake clock installed");
+    }
+
+    /**
+     * ブラウザコンテキストに時計を登録し、読み込み済みのページにも即座に適用
+     */
+    public static void install(Page page) {
+        install(page.context());
+        for (Frame frame : page.frames()) {
+            frame.evaluate(INSTALL_SCRIPT);
+        }
+    }
+
+    /**
+     * ページ内の時計を進め、その間に期限を迎えるタイマーを実行
+     *
+     * 実行回数がフレームごとの上限（MAX_TIMER_RUNS）に達した場合、残りの周期は実行せずに進めた後の時刻から数え直す。
+     *
+     * @return 実行したタイマーの数
+     */
+    public static int fastForward(Page page, long millis) {
+        int fired = 0;
+        for (Frame frame : page.frames()) {
+            Object count = frame.evaluate(FAST_FORWARD_SCRIPT, List.of(millis, MAX_TIMER_RUNS));
+            int runs = count instanceof Number number ? number.intValue() : 0;
+            if (runs >= MAX_TIMER_RUNS) {
+                logger.warn("Timer runs reached the limit (" + MAX_TIMER_RUNS + ") in frame: " + frame.url());
+            }
+            fired += runs;
+        }
+        logger.info("Fast-forwarded clock by " + millis + "ms (" + fired + " timers fired)");
+        return fired;
+    }
+
+    /**
+     * 経過時間の指定をミリ秒に変換（例: 5m, 30s, 1h30m, 500ms, 5分, 90秒, 1時間。単位なしはミリ秒）
+     */
+    public static long parseDuration(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Duration is empty");
+        }
+        String spec = text.trim().replace(" ", "");
+        Matcher matcher = DURATION.matcher(spec);
+        double total = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double value = Double.parseDouble(matcher.group(1));
+            String unit = matcher.group(2) == null ? "ms" : matcher.group(2);
+            total += value * switch (unit) {
+                case "h", "時間" -> 3_600_000;
+                case "m", "分" -> 60_000;
+                case "s", "秒" -> 1_000;
+                default -> 1;
+            };
+            end = matcher.end();
+        }
+        if (end != spec.length()) {
+            throw new IllegalArgumentException("Invalid duration: " + text);
+        }
+        return (long) total;
+    }
+
+    // 時計を置き換える初期化スクリプト（同じ文書に二重に適用しない）
+    private static final String INSTALL_SCRIPT = """
+            (() => {
+              if (window.__fakeClock) return;
+              const OriginalDate = Date;
+              const realNow = OriginalDate.now.bind(OriginalDate);
+              const realPerformanceNow = performance.now.bind(performance);
+              const realSetTimeout = window.setTimeout.bind(window);
+              const realClearTimeout = window.clearTimeout.bind(window);
+              let offset = 0;
+              try {
+                offset = Number(sessionStorage.getItem('__fakeClockOffset')) || 0;
+              } catch (e) {
+                offset = 0;
+              }
+              const now = () => realNow() + offset;
+              const timers = new Map();
+              let nextId = 1;
+
+              const arm = (id, timer) => {
+                realClearTimeout(timer.handle);
+                timer.handle = realSetTimeout(() => fire(id), Math.max(0, timer.due - now()));
+              };
+              // 次の期限へ進める（setTimeout は削除）
+              const advance = (id, timer) => {
+                if (timer.interval) {
+                  timer.due += timer.interval;
+                } else {
+                  realClearTimeout(timer.handle);
+                  timers.delete(id);
+                }
+              };
+              const fire = id => {
+                const timer = timers.get(id);
+                if (!timer) return;
+                advance(id, timer);
+                if (timer.interval) {
+                  if (timer.due <= now()) timer.due = now() + timer.interval;
+                  arm(id, timer);
+                }
+                timer.callback(...timer.args);
+              };
+              const schedule = (callback, delay, args, repeat) => {
+                const id = nextId++;
+                const wait = Math.max(0, Number(delay) || 0);
+                const timer = {
+                  callback: typeof callback === 'function' ? callback : () => (0, eval)(String(callback)),
+                  args,
+                  due: now() + wait,
+                  interval: repeat ? Math.max(1, wait) : 0,
+                  handle: null
+                };
+                timers.set(id, timer);
+                arm(id, timer);
+                return id;
+              };
+              const clear = id => {
+                const timer = timers.get(id);
+                if (timer) {
+                  realClearTimeout(timer.handle);
+                  timers.delete(id);
+                }
+              };
+
+              function FakeDate(...args) {
+                if (!new.target) return new OriginalDate(now()).toString();
+                return args.length ? new OriginalDate(...args) : new OriginalDate(now());
+              }
+              FakeDate.prototype = OriginalDate.prototype;
+              FakeDate.now = now;
+              FakeDate.parse = OriginalDate.parse;
+              FakeDate.UTC = OriginalDate.UTC;
+              window.Date = FakeDate;
+              performance.now = () => realPerformanceNow() + offset;
+              window.setTimeout = (callback, delay, ...args) => schedule(callback, delay, args, false);
+              window.setInterval = (callback, delay, ...args) => schedule(callback, delay, args, true);
+              window.clearTimeout = clear;
+              window.clearInterval = clear;
+
+              window.__fakeClock = {
+                fastForward: (millis, limit) => {
+                  offset += millis;
+                  try {
+                    sessionStorage.setItem('__fakeClockOffset', String(offset));
+                  } catch (e) {
+                    // sessionStorage が使えない文書では保持しない
+                  }
+                  // 進めた後の時刻までに期限を迎えるタイマーを期限の順に実行（setInterval は周期ごとに実行）
+                  const target = now();
+                  let fired = 0;
+                  while (fired < limit) {
+                    let nextId = null;
+                    let next = null;
+                    for (const [id, timer] of timers) {
+                      if (timer.due <= target && (!next || timer.due < next.due)) {
+                        nextId = id;
+                        next = timer;
+                      }
+                    }
+                    if (!next) break;
+                    advance(nextId, next);
+                    fired++;
+                    try {
+                      next.callback(...next.args);
+                    } catch (e) {
+                      // 通常のタイマーと同様に、例外は他のタイマーを止めずにページのエラーとして報告
+                      realSetTimeout(() => { throw e; }, 0);
+                    }
+                  }
+                  // 上限で打ち切った周期は実行せず、進めた後の時刻から次の周期を数える
+                  timers.forEach((timer, id) => {
+                    if (timer.due <= now()) timer.due = now() + timer.interval;
+                    arm(id, timer);
+                  });
+                  return fired;
+                }
+              };
+            })()
+            """;
+
+    // 時計を進めるスクリプト（時計が無い文書では何もしない）
+    private static final String FAST_FORWARD_SCRIPT = """
+            ([millis, limit]) => window.__fakeClock ? window.__fakeClock.fastForward(millis, limit) : 0
+            """;
+}
@@ -0,0 +1,305 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.FrameLocator;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.AriaRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * メインフレームと全ての子フレーム（入れ子を含む）から要素を探す
+ *
+ * 同一オリジンのフレームはページ内の1回のスクリプト実行でまとめて探索する。
+ * 中身を参照できない別オリジンのフレームと、CSSとして解釈できないセレクタ・テキストやラベル等の
+ * セレクタ以外の検索の場合のみフレームごとにLocatorで確認する。
+ * 見つからない場合は、要素やフレームが後から表示されることがあるため、ページ（同一オリジンのフレームを含む）の
+ * 変化を待って指定時間まで探索を繰り返す。
+ *
+ * フレームの位置は「各階層での iframe/frame 要素の出現順」のリスト（フレームパス）で表し、
+ * 見つかったパスをセレクタごとに記録する。以降のステップは記録したパス、
+ * または直前に見つかったフレームを先に確認するため、同じフレーム内の操作は探索せずに解決できる。
+ */
+public class FrameSearch {
+    private static final Logger logger = LoggerFactory.getLogger(FrameSearch.class);
+    private static final String FRAME_ELEMENTS = "iframe, frame";
+    private static final Query FRAMES = Query.selector(FRAME_ELEMENTS);
+    // ページの変化を確認する間隔（ms）
+    private static final double POLLING_INTERVAL = 100;
+    // 変化を検知できない別オリジンのフレームも確認するため、変化が無くても再探索する間隔（ms）
+    private static final double RESCAN_INTERVAL = 1000;
+    // セレクタごとの見つかったフレームパス
+    private final Map<String, List<Integer>> pathCache = new HashMap<>();
+    // 直前に要素が見つかったフレームパス
+    private List<Integer> lastPath = List.of();
+
+    /**
+     * フレーム内で要素を取得する方法（メインフレームと子フレームに同じ検索を適用する）
+     *
+     * @param key      記録したフレームパスの検索キー
+     * @param selector スクリプトでまとめて探索できるセレクタ（テキスト・ラベル等の検索はnull）
+     */
+    public record Query(String key, String selector, Function<Page, Locator> inPage,
+            Function<FrameLocator, Locator> inFrame) {
+
+        public static Query selector(String selector) {
+            return new Query(selector, selector, page -> page.locator(selector), frame -> frame.locator(selector));
+        }
+
+        public static Query text(String text) {
+            return new Query("text:" + text, null, page -> page.getByText(text), frame -> frame.getByText(text));
+        }
+
+        public static Query label(String label) {
+            return new Query("label:" + label, null, page -> page.getByLabel(label), frame -> frame.getByLabel(label));
+        }
+
+        public static Query placeholder(String placeholder) {
+            return new Query("placeholder:" + placeholder, null,
+                    page -> page.getByPlaceholder(placeholder), frame -> frame.getByPlaceholder(placeholder));
+        }
+
+        public static Query role(AriaRole role, String name) {
+            return new Query("role:" + role + ":" + name, null,
+                    page -> page.getByRole(role, new Page.GetByRoleOptions().setName(name)),
+                    frame -> frame.getByRole(role, new FrameLocator.GetByRoleOptions().setName(name)));
+        }
+    }
+
+    /**
+     * 要素を含むフレームのLocatorを取得
+     *
+     * @param timeout 見つからない場合に探索を繰り返す最大時間（ms）。
+     *                0なら1回だけ探索し、どのフレームにも無ければメインフレームのLocatorを返す
+     * @throws TimeoutError timeout が正で、その時間内にどのフレームにも見つからない場合
+     */
+    public Locator locate(Page page, String selector, double timeout) {
+        return locate(page, Query.selector(selector), timeout);
+    }
+
+    /**
+     * @see #locate(Page, String, double)
+     */
+    public Locator locate(Page page, Query query, double timeout) {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        while (true) {
+            List<Integer> path = find(page, query);
+            if (path != null) {
+                return locatorAt(page, path, query);
+            }
+            if (timeout <= 0) {
+                logger.debug("Element not found in any frame: {}", query.key());
+                return query.inPage().apply(page);
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutError("Element not found in any frame within " + (long) timeout + "ms: " + query.key());
+            }
+            awaitChange(page, query, Math.min(remaining, RESCAN_INTERVAL));
+        }
+    }
+
+    /**
+     * 同一オリジンのフレームに要素が現れるか、ページの内容・フレーム構成が変わるまで待機
+     *
+     * 別オリジンのフレームの変化は検知できないため、変化が無くても timeout で戻って再探索させる。
+     */
+    private static void awaitChange(Page page, Query query, double timeout) {
+        Map<String, Object> arg = new LinkedHashMap<>();
+        arg.put("selector", query.selector());
+        arg.put("fingerprint", null);
+        try {
+            arg.put("fingerprint", page.evaluate(CHANGE_SCRIPT, arg));
+            page.waitForFunction(CHANGE_SCRIPT, arg,
+                    new Page.WaitForFunctionOptions().setTimeout(timeout).setPollingInterval(POLLING_INTERVAL));
+        } catch (PlaywrightException e) {
+            // 変化が無い・遷移中でスクリプトを実行できない場合も再探索する
+            logger.debug("Waiting for frame changes ended: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 記録したフレームパス、直前のフレーム、全フレームの順に探索（見つからなければ null）
+     */
+    private List<Integer> find(Page page, Query query) {
+        List<Integer> cached = pathCache.get(query.key());
+        if (cached != null) {
+            if (locatorAt(page, cached, query).count() > 0) {
+                return cached;
+            }
+            pathCache.remove(query.key());
+        }
+        if (!lastPath.isEmpty() && locatorAt(page, lastPath, query).count() > 0) {
+            pathCache.put(query.key(), lastPath);
+            return lastPath;
+        }
+
+        List<Integer> path = scan(page, query);
+        if (path != null) {
+            pathCache.put(query.key(), path);
+            lastPath = path;
+            logger.info("Found '{}' in frame: {}", query.key(), describe(path));
+        }
+        return path;
+    }
+
+    /**
+     * 記録したフレームパスを破棄（ウィンドウ切り替え時等）
+     */
+    public void clear() {
+        pathCache.clear();
+        lastPath = List.of();
+    }
+
+    /**
+     * 全フレームを1回で探索し、要素が見つかったフレームパスを返す（見つからなければ null）
+     */
+    private List<Integer> scan(Page page, Query query) {
+        if (query.selector() == null) {
+            return probe(page, List.of(), query);
+        }
+        Map<?, ?> result = (Map<?, ?>) page.evaluate(SCAN_SCRIPT, query.selector());
+        if (Boolean.TRUE.equals(result.get("invalidSelector"))) {
+            return probe(page, List.of(), query);
+        }
+        if (result.get("found") instanceof List<?> found) {
+            return toPath(found);
+        }
+        // 別オリジンのフレームはスクリプトから参照できないためLocatorで確認
+        for (Object opaque : (List<?>) result.get("opaque")) {
+            List<Integer> path = probe(page, toPath((List<?>) opaque), query);
+            if (path != null) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 指定フレームとその子フレームをLocatorで順に確認
+     */
+    private List<Integer> probe(Page page, List<Integer> path, Query query) {
+        if (locatorAt(page, path, query).count() > 0) {
+            return path;
+        }
+        int children = locatorAt(page, path, FRAMES).count();
+        for (int i = 0; i < children; i++) {
+            List<Integer> childPath = new ArrayList<>(path);
+            childPath.add(i);
+            List<Integer> found = probe(page, childPath, query);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * フレームパスが指すフレーム内のLocator
+     */
+    private static Locator locatorAt(Page page, List<Integer> path, Query query) {
+        if (path.isEmpty()) {
+            return query.inPage().apply(page);
+        }
+        FrameLocator frame = page.locator(FRAME_ELEMENTS).nth(path.get(0)).contentFrame();
+        for (int i = 1; i < path.size(); i++) {
+            frame = frame.locator(FRAME_ELEMENTS).nth(path.get(i)).contentFrame();
+        }
+        return query.inFrame().apply(frame);
+    }
+
+    private static List<Integer> toPath(List<?> values) {
+        List<Integer> path = new ArrayList<>();
+        for (Object value : values) {
+            path.add(((Number) value).intValue());
+        }
+        return List.copyOf(path);
+    }
+
+    /**
+     * フレームパスを表示用の文字列にする（例: main > frame[1] > frame[0]）
+     */
+    public static String describe(List<Integer> path) {
+        StringBuilder text = new StringBuilder("main");
+        for (int index : path) {
+            text.append(" > frame[").append(index).append(']');
+        }
+        return text.toString();
+    }
+
+    // fingerprint が null なら同一オリジンの全フレームの内容の要約を返し、
+    // 指定されていれば要素が見つかったか要約が変わった場合に true を返すスクリプト
+    private static final String CHANGE_SCRIPT = """
+            ({ selector, fingerprint }) => {
+              let found = false;
+              const parts = [];
+              const walk = (doc) => {
+                if (selector && !found) {
+                  try {
+                    found = !!doc.querySelector(selector);
+                  } catch (e) {
+                    // CSSとして解釈できないセレクタは内容の変化だけで判定
+                  }
+                }
+                const root = doc.documentElement;
+                parts.push(doc.readyState, doc.getElementsByTagName('*').length, root ? root.textContent.length : 0);
+                for (const frame of doc.querySelectorAll('iframe, frame')) {
+                  let child = null;
+                  try {
+                    child = frame.contentDocument;
+                  } catch (e) {
+                    child = null;
+                  }
+                  parts.push(child ? '[' : '-');
+                  if (child) {
+                    walk(child);
+                    parts.push(']');
+                  }
+                }
+              };
+              walk(document);
+              const current = parts.join(',');
+              return fingerprint == null ? current : found || current !== fingerprint;
+            }
+            """;
+
+    // 同一オリジンのフレームを深さ優先で探索し、見つかったフレームパスと参照できなかったフレームのパスを返すスクリプト
+    private static final String SCAN_SCRIPT = """
+            selector => {
+              const opaque = [];
+              const walk = (doc, path) => {
+                if (doc.querySelector(selector)) return path;
+                const frames = doc.querySelectorAll('iframe, frame');
+                for (let i = 0; i < frames.length; i++) {
+                  let child = null;
+                  try {
+                    child = frames[i].contentDocument;
+                  } catch (e) {
+                    child = null;
+                  }
+                  if (!child) {
+                    opaque.push(path.concat(i));
+                    continue;
+                  }
+                  const found = walk(child, path.concat(i));
+                  if (found) return found;
+                }
+                return null;
+              };
+              try {
+                return { found: walk(document, []), opaque };
+              } catch (e) {
+                return { invalidSelector: true };
+              }
+            }
+            """;
+}
@@ -0,0 +1,77 @@
+package com.example.playwright.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * シナリオの繰り返しでメモリ指標が増え続けているかを判定する
+ *
+ * 各回（iteration）のサンプルの最小値（床）を指標ごとに記録し、直近 window 回の床が
+ * 一度も下がらずに増え続けていればリークの疑いとする。JSヒープは GC の時期によって
+ * ステップごとの値が上下するため、最大値や最後の値ではなく床で比べる。
+ */
+public class LeakDetector {
+    private final int window;
+    // 実行中の回の指標ごとの最小値
+    private final Map<String, Double> floor = new LinkedHashMap<>();
+    // 終わった回の指標ごとの最小値
+    private final Map<String, List<Double>> floors = new LinkedHashMap<>();
+
+    /**
+     * @param window 増加が続いたと判定する回数（2以上）
+     */
+    public LeakDetector(int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Leak window must be at least 2: " + window);
+        }
+        this.window = window;
+    }
+
+    /**
+     * 実行中の回のサンプルを追加
+     */
+    public void add(Map<String, Double> sample) {
+        sample.forEach((metric, value) -> floor.merge(metric, value, Math::min));
+    }
+
+    /**
+     * 実行中の回を終える（サンプルが無ければ何もしない）
+     */
+    public void endIteration() {
+        floor.forEach((metric, value) -> floors.computeIfAbsent(metric, key -> new ArrayList<>()).add(value));
+        floor.clear();
+    }
+
+    /**
+     * 終わった回の数
+     */
+    public int iterations() {
+        return floors.values().stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    /**
+     * 直近 window 回で増え続けている指標（例: Nodes: 直近 5 回の床が増え続けている (1200 → 1450, +20.8%)）
+     */
+    public List<String> suspects() {
+        List<String> suspects = new ArrayList<>();
+        floors.forEach((metric, values) -> {
+            if (values.size() < window) {
+                return;
+            }
+            List<Double> recent = values.subList(values.size() - window, values.size());
+            for (int i = 1; i < recent.size(); i++) {
+                if (recent.get(i) <= recent.get(i - 1)) {
+                    return;
+                }
+            }
+            double first = recent.get(0);
+            double last = recent.get(recent.size() - 1);
+            suspects.add(String.format(Locale.ROOT, "%s: 直近 %d 回の床が増え続けている (%.0f → %.0f, %+.1f%%)",
+                    metric, window, first, last, first > 0 ? (last - first) * 100 / first : 100.0));
+        });
+        return suspects;
+    }
+}
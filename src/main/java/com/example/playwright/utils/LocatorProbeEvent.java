@@ -0,0 +1,25 @@
+package com.example.playwright.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * クリック・入力対象を探す手法1件の試行（JFR イベント）
+ */
+@Name("com.example.playwright.LocatorProbe")
+@Label("Locator Probe")
+@Category({ "Playwright AutoTest" })
+@Description("クリック・入力で要素を探す手法（text, label, placeholder 等）の1回の試行")
+public class LocatorProbeEvent extends Event {
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Element")
+    public String element;
+
+    @Label("Matched")
+    public boolean matched;
+}
@@ -0,0 +1,139 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ステップごとに JSヒープ・DOMノード数・イベントリスナー数を CDP で取得し、時系列として記録する（Chromium系のみ）
+ *
+ * 取得は Performance.getMetrics の1回の呼び出しのみ（GC の強制やヒープスナップショットは行わない）のため、
+ * 夜間の長時間実行でも常に有効にしておける。Firefox・WebKit では CDP が使えないため何もしない。
+ * 結果は1行1件の JSON で memory.file に追記し、繰り返し実行では LeakDetector で増加を判定する。
+ */
+public class MemorySampler {
+    private static final Logger logger = LoggerFactory.getLogger(MemorySampler.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // 記録する指標（Performance.getMetrics の名前）
+    static final Set<String> METRICS = Set.of("JSHeapUsedSize", "JSHeapTotalSize", "Nodes", "JSEventListeners", "Documents");
+
+    private final Path file;
+    private final LeakDetector leaks;
+    // CDP セッションと、それを作ったページ（ウィンドウを切り替えたら作り直す）
+    private Page sessionPage;
+    private CDPSession session;
+    // 一度でも取得できたか（できていなければ失敗時に CDP 非対応とみなす）
+    private boolean sampled;
+    private boolean unsupported;
+    private int iteration = 1;
+
+    public MemorySampler(Path file, int leakWindow) {
+        this.file = file;
+        this.leaks = new LeakDetector(leakWindow);
+    }
+
+    /**
+     * 現在のページの指標を取得して記録
+     *
+     * @return 指標名 → 値（Chromium系以外、ページが閉じている場合はnull）
+     */
+    public Map<String, Double> sample(Page page, String scenarioName, String step) {
+        if (unsupported || page == null || page.isClosed()) {
+            return null;
+        }
+        Map<String, Double> values;
+        try {
+            values = metrics(page);
+        } catch (RuntimeException e) {
+            if (!sampled) {
+                // CDP セッションを作れないブラウザ（Firefox・WebKit）
+                unsupported = true;
+                logger.info("Memory sampling is only available on Chromium: {}", e.getMessage());
+            } else {
+                logger.debug("Failed to sample memory: {}", e.getMessage());
+            }
+            sessionPage = null;
+            session = null;
+            return null;
+        }
+        sampled = true;
+        leaks.add(values);
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("timestamp", Instant.now().toString());
+        record.put("scenario", scenarioName);
+        record.put("iteration", iteration);
+        record.put("step", step);
+        record.put("url", page.url());
+        values.forEach((metric, value) -> record.put(metric, value.longValue()));
+        PerformanceLog.append(file, record);
+        return values;
+    }
+
+    private Map<String, Double> metrics(Page page) {
+        // driver.callStats のプロキシは CDP セッションの作成に渡せないため元のページを使う
+        Page target = DriverCallStats.unwrap(page);
+        if (session == null || sessionPage != target) {
+            detach();
+            session = target.context().newCDPSession(target);
+            session.send("Performance.enable");
+            sessionPage = target;
+        }
+        JsonObject result = session.send("Performance.getMetrics");
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (JsonElement metric : result.getAsJsonArray("metrics")) {
+            String name = metric.getAsJsonObject().get("name").getAsString();
+            if (METRICS.contains(name)) {
+                values.put(name, metric.getAsJsonObject().get("value").getAsDouble());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * シナリオの次の回を始める（同じページでシナリオを繰り返す場合に各回の最初に呼ぶ）
+     */
+    public void nextIteration() {
+        leaks.endIteration();
+        iteration++;
+    }
+
+    /**
+     * 実行中の回を締めて、増え続けている指標を返す（疑いがあれば警告ログと memory.file への記録も行う）
+     */
+    public List<String> checkLeaks(String scenarioName) {
+        leaks.endIteration();
+        List<String> suspects = leaks.suspects();
+        if (!suspects.isEmpty()) {
+            logger.warn("メモリ増加の疑い（{}、{} 回）: {}", scenarioName, leaks.iterations(), suspects);
+            ObjectNode record = MAPPER.createObjectNode();
+            record.put("timestamp", Instant.now().toString());
+            record.put("scenario", scenarioName);
+            record.put("iterations", leaks.iterations());
+            suspects.forEach(record.putArray("leakSuspects")::add);
+            PerformanceLog.append(file, record);
+        }
+        return suspects;
+    }
+
+    private void detach() {
+        if (session != null) {
+            try {
+                session.detach();
+            } catch (RuntimeException e) {
+                // ページが閉じていればセッションも切れている
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.options.Sizes;
+import com.microsoft.playwright.options.Timing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ブラウザコンテキストの全リクエストを、それを開始したステップに割り当てて集計する
+ *
+ * ポップアップ等を含めてコンテキスト単位でイベントを受け取り、endStep() でステップ中に開始した
+ * リクエストの件数・転送量・時間・失敗・第三者（ファーストパーティ以外のサイト）の割合をまとめる。
+ * ファーストパーティは設定 network.firstParty のドメインと、メインフレームの遷移先のサイト。
+ * 転送量の取得（Request.sizes）はドライバーとの通信が必要なため、イベント処理中ではなく endStep() で行う。
+ */
+public class NetworkAccounting {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkAccounting.class);
+    private final Set<String> firstPartySites = ConcurrentHashMap.newKeySet();
+    // 実行中のステップで開始したリクエストと、開始時に判定した第三者かどうか
+    private final Map<Request, Boolean> started = new ConcurrentHashMap<>();
+    private final List<Request> order = new CopyOnWriteArrayList<>();
+    private final Map<Request, Long> startNanos = new ConcurrentHashMap<>();
+    private final Map<Request, Long> endNanos = new ConcurrentHashMap<>();
+    private final Map<Request, Integer> statuses = new ConcurrentHashMap<>();
+    private final StepTraffic total = new StepTraffic();
+
+    public NetworkAccounting(BrowserContext context, List<String> firstPartyDomains) {
+        for (String domain : firstPartyDomains) {
+            firstPartySites.add(StepTraffic.site(domain.trim().toLowerCase()));
+        }
+        context.onRequest(this::started);
+        context.onResponse(response -> statuses.put(response.request(), response.status()));
+        context.onRequestFinished(request -> endNanos.put(request, System.nanoTime()));
+        context.onRequestFailed(request -> endNanos.put(request, System.nanoTime()));
+    }
+
+    private void started(Request request) {
+        String site = StepTraffic.site(StepTraffic.host(request.url()));
+        if (isMainFrameNavigation(request)) {
+            firstPartySites.add(site);
+        }
+        started.put(request, !site.isEmpty() && !firstPartySites.contains(site));
+        order.add(request);
+        startNanos.put(request, System.nanoTime());
+    }
+
+    private static boolean isMainFrameNavigation(Request request) {
+        try {
+            return request.isNavigationRequest() && request.frame().parentFrame() == null;
+        } catch (RuntimeException e) {
+            // Service Worker のリクエスト等はフレームを持たない
+            return false;
+        }
+    }
+
+    /**
+     * ステップの区切り（これ以降に開始したリクエストを次のステップに計上する）
+     *
+     * 前のステップの終了後に届いたイベントは破棄する。
+     */
+    public void beginStep() {
+        clear();
+    }
+
+    /**
+     * ステップ中に開始したリクエストを集計する
+     *
+     * @param page ブラウザ側で発生済みの通信イベントを受け取るために1往復の通信を行うページ（閉じていれば省略）
+     */
+    public StepTraffic endStep(Page page) {
+        if (page != null && !page.isClosed()) {
+            try {
+                page.evaluate("() => 0");
+            } catch (RuntimeException e) {
+                logger.debug("Failed to flush network events: {}", e.getMessage());
+            }
+        }
+        StepTraffic traffic = new StepTraffic();
+        for (Request request : order) {
+            boolean thirdParty = started.get(request);
+            Long end = endNanos.get(request);
+            if (end == null) {
+                traffic.addPending(request.url(), thirdParty);
+                continue;
+            }
+            String failure = request.failure();
+            int status = statuses.getOrDefault(request, 0);
+            if (failure == null && status >= 400) {
+                failure = "HTTP " + status;
+            }
+            traffic.add(new StepTraffic.Entry(request.method(), request.url(), status, bytes(request),
+                    duration(request, end), failure), thirdParty);
+        }
+        clear();
+        total.merge(traffic);
+        return traffic;
+    }
+
+    /**
+     * これまでの全ステップの合計
+     */
+    public StepTraffic total() {
+        StepTraffic copy = new StepTraffic();
+        copy.merge(total);
+        return copy;
+    }
+
+    private void clear() {
+        order.clear();
+        started.clear();
+        startNanos.clear();
+        endNanos.clear();
+        statuses.clear();
+    }
+
+    private static long bytes(Request request) {
+        try {
+            Sizes sizes = request.sizes();
+            return (long) sizes.requestHeadersSize + sizes.requestBodySize
+                    + sizes.responseHeadersSize + sizes.responseBodySize;
+        } catch (RuntimeException e) {
+            // 通信エラーで終わったリクエストはサイズを取得できない
+            return 0;
+        }
+    }
+
+    /**
+     * ブラウザの計測（開始から受信完了まで）を優先し、無ければイベントを受け取った時刻の差
+     */
+    private double duration(Request request, long end) {
+        Timing timing = request.timing();
+        if (timing != null && timing.responseEnd > 0) {
+            return timing.responseEnd;
+        }
+        return (end - startNanos.getOrDefault(request, end)) / 1e6;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * ブラウザコンテキストの通信をイベントで記録し、通信を条件とした待機を提供する
+ *
+ * 通信はコンテキスト作成直後から常に記録しており、mark() で区切った時点以降の
+ * リクエスト・レスポンスを待機の対象とする。アクションの開始時に区切るため、
+ * 「クリック → レスポンス待機」のように待機を後のステップに書いても、クリック中に
+ * 届いたレスポンスを取りこぼさない（待機をクリックより前に登録したのと同じになる）。
+ */
+public class NetworkWatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkWatcher.class);
+    // 区切り以降のリクエストとレスポンス（待機で一致したものは取り除く）
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final List<Response> responses = new CopyOnWriteArrayList<>();
+    // 完了していないリクエスト
+    private final Set<Request> inFlight = ConcurrentHashMap.newKeySet();
+    // 最後に通信の開始・完了があった時刻
+    private volatile long lastActivityNanos = System.nanoTime();
+
+    public NetworkWatcher(BrowserContext context) {
+        context.onRequest(request -> {
+            requests.add(request);
+            inFlight.add(request);
+            lastActivityNanos = System.nanoTime();
+        });
+        context.onResponse(responses::add);
+        context.onRequestFinished(this::finished);
+        context.onRequestFailed(this::finished);
+    }
+
+    private void finished(Request request) {
+        inFlight.remove(request);
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * 待機対象の区切り（これより前の通信は以降の待機で一致させない）
+     */
+    public void mark() {
+        requests.clear();
+        responses.clear();
+    }
+
+    /**
+     * URLが一致するレスポンスを待機（区切り以降に既に届いていれば即座に返す）
+     *
+     * @param urlPattern URLのglob（* は / 以外の任意文字列、** は任意文字列。ワイルドカードが無ければ部分一致）
+     * @param status     期待するステータス（null の場合は問わない）
+     * @param timeout    最大待機時間（ms）
+     */
+    public Response awaitResponse(Page page, String urlPattern, Integer status, double timeout) {
+        Pattern url = globToRegex(urlPattern);
+        Predicate<Response> matches = r -> url.matcher(r.url()).matches() && (status == null || r.status() == status);
+        Response response = await(page, responses, matches, timeout,
+                "No response matching " + urlPattern + (status != null ? " with status " + status : ""));
+        logger.info("Response received: " + response.status() + " " + response.url());
+        return response;
+    }
+
+    /**
+     * URLが一致するリクエストの送信を待機（区切り以降に既に送信されていれば即座に返す）
+     */
+    public Request awaitRequest(Page page, String urlPattern, double timeout) {
+        Pattern url = globToRegex(urlPattern);
+        Request request = await(page, requests, r -> url.matcher(r.url()).matches(), timeout,
+                "No request matching " + urlPattern);
+        logger.info("Request sent: " + request.method() + " " + request.url());
+        return request;
+    }
+
+    /**
+     * 通信中のリクエストが無い状態が quietMillis 続くまで待機
+     */
+    public void awaitIdle(Page page, long quietMillis, double timeout) {
+        long deadline = System.nanoTime() + (long) (timeout * 1_000_000);
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new RuntimeException("Network did not become idle within " + (long) timeout + "ms ("
+                        + inFlight.size() + " requests in flight)");
+            }
+            if (inFlight.isEmpty()) {
+                long quietFor = (System.nanoTime() - lastActivityNanos) / 1_000_000;
+                if (quietFor >= quietMillis) {
+                    logger.info("Network idle for " + quietFor + "ms");
+                    return;
+                }
+                // 静穏期間の残りだけ待ち、その間の通信イベントも処理する
+                page.waitForTimeout(Math.min(quietMillis - quietFor, remainingMillis));
+            } else {
+                try {
+                    page.waitForCondition(inFlight::isEmpty,
+                            new Page.WaitForConditionOptions().setTimeout(remainingMillis));
+                } catch (TimeoutError e) {
+                    // 次のループでタイムアウトとして扱う
+                }
+            }
+        }
+    }
+
+    private static <T> T await(Page page, List<T> recorded, Predicate<T> matches, double timeout, String message) {
+        T found = take(recorded, matches);
+        if (found != null) {
+            return found;
+        }
+        try {
+            page.waitForCondition(() -> recorded.stream().anyMatch(matches),
+                    new Page.WaitForConditionOptions().setTimeout(timeout));
+        } catch (TimeoutError e) {
+            throw new RuntimeException(message + " within " + (long) timeout + "ms", e);
+        }
+        return take(recorded, matches);
+    }
+
+    private static <T> T take(List<T> recorded, Predicate<T> matches) {
+        for (T item : recorded) {
+            if (matches.test(item)) {
+                recorded.remove(item);
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * URLのglobを正規表現に変換（ワイルドカードが無い場合は部分一致）
+     */
+    public static Pattern globToRegex(String glob) {
+        String pattern = glob.trim();
+        if (!pattern.contains("*")) {
+            return Pattern.compile(".*" + Pattern.quote(pattern) + ".*");
+        }
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*') {
+                boolean doubleStar = i + 1 < pattern.length() && pattern.charAt(i + 1) == '*';
+                regex.append(doubleStar ? ".*" : "[^/]*");
+                if (doubleStar) {
+                    i++;
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
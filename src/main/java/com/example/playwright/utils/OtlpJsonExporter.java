@@ -0,0 +1,164 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 終了した区間を OTLP JSON 形式でファイルに書き出す
+ *
+ * 区間はキューに入れるだけで戻り、専用スレッドがまとめて（最大 BATCH_SIZE 件または1秒ごと）
+ * 1行1リクエストの形式（OpenTelemetry Collector の file exporter と同じ）で追記する。
+ * キューが一杯の場合は区間を捨てて件数だけ数える（ステップの実行を待たせない）。
+ */
+public class OtlpJsonExporter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OtlpJsonExporter.class);
+    private static final int BATCH_SIZE = 512;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BlockingQueue<Span> queue = new ArrayBlockingQueue<>(16_384);
+    private final AtomicLong dropped = new AtomicLong();
+    private final BufferedWriter writer;
+    private final String serviceName;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public OtlpJsonExporter(Path file, String serviceName) {
+        this.serviceName = serviceName;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open trace file: " + file, e);
+        }
+        this.worker = new Thread(this::drainLoop, "trace-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 区間を出力キューに追加（待たずに戻る）
+     */
+    public void export(Span span) {
+        if (closed || !queue.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drainLoop() {
+        List<Span> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    write(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+        }
+    }
+
+    private void write(List<Span> batch) {
+        try {
+            writer.write(MAPPER.writeValueAsString(toRequest(batch)));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to write spans: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * ExportTraceServiceRequest の JSON 表現を作成
+     */
+    private ObjectNode toRequest(List<Span> batch) {
+        ObjectNode request = MAPPER.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", "com.example.playwright");
+        ArrayNode spans = scopeSpans.putArray("spans");
+        for (Span span : batch) {
+            ObjectNode json = spans.addObject();
+            json.put("traceId", span.traceId());
+            json.put("spanId", span.spanId());
+            if (span.parentSpanId() != null) {
+                json.put("parentSpanId", span.parentSpanId());
+            }
+            json.put("name", span.name());
+            json.put("kind", 1); // SPAN_KIND_INTERNAL
+            json.put("startTimeUnixNano", String.valueOf(span.startEpochNanos()));
+            json.put("endTimeUnixNano", String.valueOf(span.endEpochNanos()));
+            ArrayNode attributes = json.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : span.attributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            ObjectNode status = json.putObject("status");
+            if (span.errorMessage() == null) {
+                status.put("code", 1); // STATUS_CODE_OK
+            } else {
+                status.put("code", 2); // STATUS_CODE_ERROR
+                status.put("message", span.errorMessage());
+            }
+        }
+        return request;
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode json = attribute.putObject("value");
+        if (value instanceof Boolean bool) {
+            json.put("boolValue", bool);
+        } else if (value instanceof Integer || value instanceof Long) {
+            json.put("intValue", String.valueOf(value));
+        } else if (value instanceof Number number) {
+            json.put("doubleValue", number.doubleValue());
+        } else {
+            json.put("stringValue", String.valueOf(value));
+        }
+    }
+
+    /**
+     * キューに残った区間を書き出してからファイルを閉じる
+     */
+    @Override
+    public void close() {
+        Tracer.uninstall(this);
+        closed = true;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close trace file: {}", e.getMessage());
+        }
+        if (dropped.get() > 0) {
+            logger.warn("出力キューが一杯のため {} 件の区間を破棄しました", dropped.get());
+        }
+    }
+}
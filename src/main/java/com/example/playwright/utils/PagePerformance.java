@@ -0,0 +1,156 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.playwright.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ページのフロントエンド性能（Navigation Timing・Resource Timing・LCP・CLS・Long Task）を取得
+ *
+ * ブラウザの Performance API から取得するため、ページ側の計測コードは不要。
+ * LCP・CLS・Long Task はブラウザが対応していない場合（Firefox・WebKit の一部）は null になる。
+ */
+public class PagePerformance {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private PagePerformance() {
+    }
+
+    /**
+     * 現在のページの性能指標を取得（時間は ms、サイズは byte）
+     *
+     * <pre>
+     * { "navigation": { "ttfb", "domContentLoaded", "load", "transferSize", ... },
+     *   "fcp", "lcp", "cls", "longTasks": { "count", "totalDuration", "blockingTime" },
+     *   "resources": { "count", "transferSize", "byType": { ... }, "slowest": [ ... ] },
+     *   "supportedEntryTypes": [ ... ] }
+     * </pre>
+     */
+    public static ObjectNode collect(Page page) {
+        return collect(page, 0);
+    }
+
+    /**
+     * 指定時刻以降に開始したリソースに限って取得（リソースの件数・転送量のみ絞り込む）
+     *
+     * @param sinceEpochMillis この時刻（エポックミリ秒）以降に開始したリソースのみ数える（0 はページ全体）
+     */
+    public static ObjectNode collect(Page page, long sinceEpochMillis) {
+        return MAPPER.valueToTree(page.evaluate(COLLECT_SCRIPT, sinceEpochMillis));
+    }
+
+    /**
+     * ログ出力用の要約（例: LCP 1234ms, CLS 0.012, requests 45, transfer 1.2MB）
+     */
+    public static String summary(JsonNode metrics) {
+        List<String> parts = new ArrayList<>();
+        JsonNode navigation = metrics.path("navigation");
+        if (navigation.has("ttfb")) {
+            parts.add("TTFB " + navigation.get("ttfb").asLong() + "ms");
+            parts.add("load " + navigation.get("load").asLong() + "ms");
+        }
+        if (metrics.hasNonNull("lcp")) {
+            parts.add("LCP " + metrics.get("lcp").asLong() + "ms");
+        }
+        if (metrics.hasNonNull("cls")) {
+            parts.add(String.format(Locale.ROOT, "CLS %.3f", metrics.get("cls").asDouble()));
+        }
+        if (metrics.path("longTasks").has("count")) {
+            parts.add("long tasks " + metrics.path("longTasks").get("count").asInt());
+        }
+        JsonNode resources = metrics.path("resources");
+        parts.add("requests " + resources.path("count").asInt());
+        parts.add(String.format(Locale.ROOT, "transfer %.1fKB", resources.path("transferSize").asLong() / 1024.0));
+        return String.join(", ", parts);
+    }
+
+    // PerformanceObserver の buffered 指定でページ読み込み時からのエントリを取得する
+    static final String COLLECT_SCRIPT = """
+            async (since) => {
+              const round = (value) => value == null ? null : Math.round(value);
+              const supported = PerformanceObserver.supportedEntryTypes || [];
+              const observe = (type) => new Promise((resolve) => {
+                if (!supported.includes(type)) {
+                  resolve(null);
+                  return;
+                }
+                const entries = [];
+                const observer = new PerformanceObserver((list) => entries.push(...list.getEntries()));
+                observer.observe({ type, buffered: true });
+                setTimeout(() => {
+                  entries.push(...observer.takeRecords());
+                  observer.disconnect();
+                  resolve(entries);
+                }, 50);
+              });
+              const [lcpEntries, shifts, longTasks] = await Promise.all(
+                  [observe('largest-contentful-paint'), observe('layout-shift'), observe('longtask')]);
+
+              // CLS: 1秒以内の間隔・最大5秒のセッションごとの合計の最大値
+              let cls = null;
+              if (shifts) {
+                let session = 0;
+                let first = 0;
+                let last = 0;
+                cls = 0;
+                for (const shift of shifts) {
+                  if (shift.hadRecentInput) {
+                    continue;
+                  }
+                  if (session > 0 && shift.startTime - last < 1000 && shift.startTime - first < 5000) {
+                    session += shift.value;
+                  } else {
+                    session = shift.value;
+                    first = shift.startTime;
+                  }
+                  last = shift.startTime;
+                  cls = Math.max(cls, session);
+                }
+              }
+
+              const nav = performance.getEntriesByType('navigation')[0];
+              const fcp = performance.getEntriesByType('paint').find((entry) => entry.name === 'first-contentful-paint');
+              const resources = performance.getEntriesByType('resource')
+                  .filter((resource) => !since || performance.timeOrigin + resource.startTime >= since);
+              const byType = {};
+              let transferSize = 0;
+              for (const resource of resources) {
+                const type = byType[resource.initiatorType] || (byType[resource.initiatorType] = { count: 0, transferSize: 0 });
+                type.count++;
+                type.transferSize += resource.transferSize || 0;
+                transferSize += resource.transferSize || 0;
+              }
+              const slowest = [...resources]
+                  .sort((a, b) => b.duration - a.duration)
+                  .slice(0, 5)
+                  .map((resource) => ({ name: resource.name, duration: round(resource.duration), transferSize: resource.transferSize || 0 }));
+
+              return {
+                url: location.href,
+                navigation: nav ? {
+                  type: nav.type,
+                  ttfb: round(nav.responseStart),
+                  domContentLoaded: round(nav.domContentLoadedEventEnd),
+                  load: round(nav.loadEventEnd),
+                  duration: round(nav.duration),
+                  transferSize: nav.transferSize || 0
+                } : {},
+                fcp: fcp ? round(fcp.startTime) : null,
+                lcp: lcpEntries && lcpEntries.length ? round(lcpEntries[lcpEntries.length - 1].startTime) : null,
+                cls: cls == null ? null : Math.round(cls * 10000) / 10000,
+                longTasks: longTasks ? {
+                  count: longTasks.length,
+                  totalDuration: round(longTasks.reduce((sum, task) => sum + task.duration, 0)),
+                  blockingTime: round(longTasks.reduce((sum, task) => sum + Math.max(0, task.duration - 50), 0))
+                } : {},
+                resources: { count: resources.length, transferSize, byType, slowest },
+                supportedEntryTypes: [...supported]
+              };
+            }
+            """;
+}
@@ -0,0 +1,162 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 性能指標の予算（例: LCP < 2500ms, requests < 80, transfer < 1.5MB）
+ *
+ * 指標名は大文字小文字を区別しない。時間は ms・s、サイズは B・KB・MB で指定でき、単位なしは ms・byte・件数として扱う。
+ * 対応する指標: lcp, fcp, cls, ttfb, domcontentloaded, load, longtasks, tbt（Long Task のブロッキング時間）,
+ * requests（リソース数）, transfer（リソースの転送量）
+ *
+ * @param metric 指標名（小文字）
+ * @param op     比較演算子（&lt;, &lt;=, &gt;, &gt;=）
+ * @param limit  予算（ms・byte・件数に換算した値）
+ * @param text   元の指定（メッセージ用）
+ */
+public record PerformanceBudget(String metric, String op, double limit, String text) {
+    private static final Pattern EXPRESSION = Pattern.compile(
+            "\\s*([A-Za-z]+)\\s*(<=|>=|<|>)\\s*([0-9]+(?:\\.[0-9]+)?)\\s*(ms|s|b|kb|mb)?\\s*", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * 予算の指定を解析（; または改行で複数指定可）
+     *
+     * @throws IllegalArgumentException 形式や指標名が不正な場合
+     */
+    public static List<PerformanceBudget> parse(String expressions) {
+        List<PerformanceBudget> budgets = new ArrayList<>();
+        for (String expression : expressions.split("[;\\n]")) {
+            if (expression.isBlank()) {
+                continue;
+            }
+            Matcher matcher = EXPRESSION.matcher(expression);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid performance budget: " + expression.trim());
+            }
+            String metric = matcher.group(1).toLowerCase(Locale.ROOT);
+            if (path(metric) == null) {
+                throw new IllegalArgumentException("Unknown performance metric: " + matcher.group(1));
+            }
+            double value = Double.parseDouble(matcher.group(3));
+            String unit = matcher.group(4) == null ? "" : matcher.group(4).toLowerCase(Locale.ROOT);
+            double limit = switch (unit) {
+                case "s" -> value * 1000;
+                case "kb" -> value * 1024;
+                case "mb" -> value * 1024 * 1024;
+                default -> value;
+            };
+            budgets.add(new PerformanceBudget(metric, matcher.group(2), limit, expression.trim()));
+        }
+        return budgets;
+    }
+
+    /**
+     * URLに一致する全体予算を取得
+     *
+     * @param definitions 予算名 → 「URLパターン | 予算の指定」（test.properties の perf.budget.*）
+     * @param url         計測したページのURL
+     */
+    public static List<PerformanceBudget> forUrl(Map<String, String> definitions, String url) {
+        List<PerformanceBudget> budgets = new ArrayList<>();
+        for (Map.Entry<String, String> definition : definitions.entrySet()) {
+            int separator = definition.getValue().indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("perf.budget." + definition.getKey()
+                        + " must be 'URL pattern | budgets': " + definition.getValue());
+            }
+            String pattern = definition.getValue().substring(0, separator).trim();
+            if (NetworkWatcher.globToRegex(pattern).matcher(url).matches()) {
+                budgets.addAll(parse(definition.getValue().substring(separator + 1)));
+            }
+        }
+        return budgets;
+    }
+
+    /**
+     * 計測に使う Performance API をブラウザが提供しているか（Firefox・WebKit の LCP・CLS 等は提供されない）
+     *
+     * 計測結果に supportedEntryTypes が無い場合は提供されているものとして扱う。
+     */
+    public boolean isSupported(JsonNode metrics) {
+        JsonNode supported = metrics.path("supportedEntryTypes");
+        String entryType = entryType(metric);
+        if (entryType == null || !supported.isArray()) {
+            return true;
+        }
+        for (JsonNode type : supported) {
+            if (entryType.equals(type.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 計測値が予算を満たさない場合にその内容を返す（満たす場合はnull）
+     *
+     * ブラウザが対応しているのに計測できない指標（ページに該当する描画が無い等）は予算を確認できないため違反として扱う。
+     * ブラウザが対応していない指標は呼び出し側で isSupported() により除外する。
+     */
+    public String violation(JsonNode metrics) {
+        JsonNode value = metrics.at(path(metric));
+        if (value.isMissingNode() || value.isNull()) {
+            return metric.toUpperCase(Locale.ROOT) + " を計測できません（予算: " + text + "）";
+        }
+        double measured = value.asDouble();
+        boolean ok = switch (op) {
+            case "<" -> measured < limit;
+            case "<=" -> measured <= limit;
+            case ">" -> measured > limit;
+            default -> measured >= limit;
+        };
+        return ok ? null : metric.toUpperCase(Locale.ROOT) + " = " + format(measured) + "（予算: " + text + "）";
+    }
+
+    private String format(double measured) {
+        return switch (metric) {
+            case "cls" -> String.format(Locale.ROOT, "%.3f", measured);
+            case "transfer" -> String.format(Locale.ROOT, "%.1fKB", measured / 1024);
+            case "requests", "longtasks" -> String.valueOf((long) measured);
+            default -> (long) measured + "ms";
+        };
+    }
+
+    /**
+     * 指標の計測に必要な PerformanceObserver のエントリ種別（Navigation・Resource Timing のみで計測できる指標は null）
+     */
+    private static String entryType(String metric) {
+        return switch (metric) {
+            case "lcp" -> "largest-contentful-paint";
+            case "fcp" -> "paint";
+            case "cls" -> "layout-shift";
+            case "longtasks", "tbt" -> "longtask";
+            default -> null;
+        };
+    }
+
+    /**
+     * PagePerformance.collect() の結果での指標の位置
+     */
+    private static String path(String metric) {
+        return switch (metric) {
+            case "lcp" -> "/lcp";
+            case "fcp" -> "/fcp";
+            case "cls" -> "/cls";
+            case "ttfb" -> "/navigation/ttfb";
+            case "domcontentloaded" -> "/navigation/domContentLoaded";
+            case "load" -> "/navigation/load";
+            case "longtasks" -> "/longTasks/count";
+            case "tbt" -> "/longTasks/blockingTime";
+            case "requests" -> "/resources/count";
+            case "transfer" -> "/resources/transferSize";
+            default -> null;
+        };
+    }
+}
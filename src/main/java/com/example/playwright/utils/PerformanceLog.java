@@ -0,0 +1,59 @@
+package com.example.playwright.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 性能計測の結果を実行単位のファイル（1行1件の JSON）に追記する
+ *
+ * ファイルは実行（JVM）内で最初に書き込むときに作り直し、以降は全ワーカーから同じファイルに追記する。
+ */
+public class PerformanceLog {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceLog.class);
+    private static final Map<Path, BufferedWriter> WRITERS = new HashMap<>();
+
+    private PerformanceLog() {
+    }
+
+    /**
+     * 1件追記（書き込みに失敗してもステップは失敗させない）
+     */
+    public static synchronized void append(Path file, JsonNode record) {
+        try {
+            BufferedWriter writer = WRITERS.get(file.toAbsolutePath());
+            if (writer == null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                WRITERS.put(file.toAbsolutePath(), writer);
+            }
+            writer.write(record.toString());
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to write performance metrics: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 開いているファイルをすべて閉じる
+     */
+    public static synchronized void closeAll() {
+        for (BufferedWriter writer : WRITERS.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close performance metrics: {}", e.getMessage());
+            }
+        }
+        WRITERS.clear();
+    }
+}
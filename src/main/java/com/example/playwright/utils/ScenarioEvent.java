@@ -0,0 +1,29 @@
+package com.example.playwright.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * シナリオ1件の実行（JFR イベント）
+ *
+ * -XX:StartFlightRecording で記録すると、GC・スレッド状態・ドライバーとのソケット I/O と
+ * 同じタイムライン上にシナリオの実行区間が表示される。
+ * 並列実行では先頭ステップを共有する分岐ごと（scenario は分岐を通るシナリオ名の一覧）、負荷実行では1回の繰り返しごとに記録する。
+ */
+@Name("com.example.playwright.Scenario")
+@Label("Scenario")
+@Category({ "Playwright AutoTest" })
+@Description("CSVシナリオ1件の実行")
+public class ScenarioEvent extends Event {
+    @Label("Scenario")
+    public String scenario;
+
+    @Label("Passed")
+    public boolean passed;
+
+    @Label("Failed Step")
+    public String failedStep;
+}
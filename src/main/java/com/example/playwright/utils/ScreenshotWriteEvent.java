@@ -0,0 +1,32 @@
+package com.example.playwright.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * スクリーンショットの取得と保存（JFR イベント）
+ *
+ * イベント全体の時間のうち、ブラウザでの取得にかかった時間を captureDuration に記録する
+ * （残りがファイルへの書き込み）。
+ */
+@Name("com.example.playwright.ScreenshotWrite")
+@Label("Screenshot Write")
+@Category({ "Playwright AutoTest" })
+@Description("スクリーンショットの取得とファイルへの保存")
+public class ScreenshotWriteEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Capture Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long captureDuration;
+}
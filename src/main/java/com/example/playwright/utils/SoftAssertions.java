@@ -0,0 +1,274 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ソフトアサーション（検証をまとめて実行し、不一致を一括で報告する）
+ *
+ * 検証はキューに溜めておき、assertAll() でページ内の1回のスクリプト実行にまとめて評価する。
+ * セレクタはCSSセレクタとして評価し、CSSとして解釈できないもの（text= や >> 等の
+ * Playwright独自セレクタ）はその検証だけ通常のLocator呼び出しで評価する。
+ * 待機時間を指定した場合、assertAll() は全ての検証が成立するか待機時間を過ぎるまで評価を繰り返す。
+ *
+ * <pre>
+ * AssertUtils.softly(page)
+ *         .titleContains("Dashboard")
+ *         .elementText("#name", "山田太郎")
+ *         .elementCount(".item", 3)
+ *         .assertAll();
+ * </pre>
+ */
+public class SoftAssertions {
+    private static final Logger logger = LoggerFactory.getLogger(SoftAssertions.class);
+    private final Page page;
+    // assertAll() で検証の成立を待つ最大時間（ms、0なら1回だけ評価）
+    private final double timeout;
+    private final List<Check> checks = new ArrayList<>();
+
+    public SoftAssertions(Page page) {
+        this(page, 0);
+    }
+
+    /**
+     * @param timeout assertAll() で検証の成立を待つ最大時間（ms）
+     */
+    public SoftAssertions(Page page, double timeout) {
+        this.page = page;
+        this.timeout = timeout;
+    }
+
+    public SoftAssertions title(String expectedTitle) {
+        return add("title", null, null, expectedTitle, false);
+    }
+
+    public SoftAssertions titleContains(String expectedText) {
+        return add("title", null, null, expectedText, true);
+    }
+
+    public SoftAssertions url(String expectedUrl) {
+        return add("url", null, null, expectedUrl, false);
+    }
+
+    public SoftAssertions urlContains(String expectedText) {
+        return add("url", null, null, expectedText, true);
+    }
+
+    public SoftAssertions elementVisible(String selector) {
+        return add("visible", selector, null, true, false);
+    }
+
+    public SoftAssertions elementNotVisible(String selector) {
+        return add("visible", selector, null, false, false);
+    }
+
+    public SoftAssertions elementExists(String selector) {
+        return add("exists", selector, null, true, false);
+    }
+
+    public SoftAssertions elementNotExists(String selector) {
+        return add("exists", selector, null, false, false);
+    }
+
+    public SoftAssertions elementText(String selector, String expectedText) {
+        return add("text", selector, null, expectedText, false);
+    }
+
+    public SoftAssertions elementTextContains(String selector, String expectedText) {
+        return add("text", selector, null, expectedText, true);
+    }
+
+    public SoftAssertions elementAttribute(String selector, String attribute, String expectedValue) {
+        return add("attribute", selector, attribute, expectedValue, false);
+    }
+
+    public SoftAssertions elementEnabled(String selector) {
+        return add("enabled", selector, null, true, false);
+    }
+
+    public SoftAssertions elementDisabled(String selector) {
+        return add("enabled", selector, null, false, false);
+    }
+
+    public SoftAssertions elementCount(String selector, int expectedCount) {
+        return add("count", selector, null, expectedCount, false);
+    }
+
+    public SoftAssertions checkboxChecked(String selector) {
+        return add("checked", selector, null, true, false);
+    }
+
+    public SoftAssertions checkboxUnchecked(String selector) {
+        return add("checked", selector, null, false, false);
+    }
+
+    public SoftAssertions inputValue(String selector, String expectedValue) {
+        return add("value", selector, null, expectedValue, false);
+    }
+
+    private SoftAssertions add(String type, String selector, String attribute, Object expected, boolean contains) {
+        checks.add(new Check(type, selector, attribute, expected, contains));
+        return this;
+    }
+
+    /**
+     * 溜めた検証を全て評価し、不一致があれば全件をまとめたAssertionErrorを投げる
+     *
+     * 待機時間の指定があれば、不一致が無くなるまで評価を繰り返す（間隔は50msから最大500msまで延長）。
+     */
+    public void assertAll() {
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        long backoff = 50;
+        List<String> failures = evaluate();
+        while (!failures.isEmpty() && System.currentTimeMillis() + backoff <= deadline) {
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while retrying soft assertions", e);
+            }
+            backoff = Math.min(backoff * 2, 500);
+            failures = evaluate();
+        }
+        checks.clear();
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " 件の検証に失敗しました:\n  - "
+                    + String.join("\n  - ", failures));
+        }
+    }
+
+    /**
+     * 溜めた検証を全て評価し、不一致の内容を返す（例外は投げない）
+     */
+    public List<String> verify() {
+        List<String> failures = evaluate();
+        checks.clear();
+        return failures;
+    }
+
+    /**
+     * 溜めた検証を全て評価（検証はキューに残す）
+     */
+    private List<String> evaluate() {
+        List<String> failures = new ArrayList<>();
+        if (checks.isEmpty()) {
+            return failures;
+        }
+        List<Map<String, Object>> payload = new ArrayList<>();
+        for (Check check : checks) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("type", check.type());
+            item.put("selector", check.selector());
+            item.put("attribute", check.attribute());
+            payload.add(item);
+        }
+        List<?> actuals = (List<?>) page.evaluate(BATCH_SCRIPT, payload);
+
+        for (int i = 0; i < checks.size(); i++) {
+            Check check = checks.get(i);
+            Object actual = actuals.get(i);
+            if (actual instanceof Map<?, ?> marker && Boolean.TRUE.equals(marker.get("invalidSelector"))) {
+                actual = evaluateByLocator(check);
+            }
+            boolean passed = check.matches(actual);
+            logger.info("ソフト検証: {} actual='{}' -> {}", check.describe(), actual, passed ? "OK" : "NG");
+            if (!passed) {
+                failures.add(check.describe() + " (実際の値: '" + actual + "')");
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * CSSセレクタとして評価できない検証を通常のLocator呼び出しで評価
+     */
+    private Object evaluateByLocator(Check check) {
+        Locator locator = page.locator(check.selector());
+        return switch (check.type()) {
+            case "count" -> locator.count();
+            case "exists" -> locator.count() > 0;
+            case "visible" -> locator.first().isVisible();
+            case "text" -> locator.count() > 0 ? locator.first().textContent() : null;
+            case "attribute" -> locator.count() > 0 ? locator.first().getAttribute(check.attribute()) : null;
+            case "enabled" -> locator.count() > 0 && locator.first().isEnabled();
+            case "checked" -> locator.count() > 0 && locator.first().isChecked();
+            case "value" -> locator.count() > 0 ? locator.first().inputValue() : null;
+            default -> throw new IllegalArgumentException("Unknown check type: " + check.type());
+        };
+    }
+
+    /**
+     * キューに溜めた1件の検証
+     */
+    private record Check(String type, String selector, String attribute, Object expected, boolean contains) {
+
+        boolean matches(Object actual) {
+            if (expected instanceof Integer expectedCount) {
+                return actual instanceof Number number && number.intValue() == expectedCount;
+            }
+            if (expected instanceof Boolean) {
+                return expected.equals(actual);
+            }
+            if (contains) {
+                return actual != null && actual.toString().contains(expected.toString());
+            }
+            return Objects.equals(expected, actual);
+        }
+
+        String describe() {
+            String label = switch (type) {
+                case "title" -> "タイトル";
+                case "url" -> "URL";
+                case "visible" -> "表示状態";
+                case "exists" -> "存在";
+                case "text" -> "テキスト";
+                case "attribute" -> "属性[" + attribute + "]";
+                case "enabled" -> "有効状態";
+                case "count" -> "要素数";
+                case "checked" -> "チェック状態";
+                case "value" -> "入力値";
+                default -> type;
+            };
+            String target = selector != null ? "(" + selector + ")" : "";
+            return label + target + (contains ? " に '" + expected + "' が含まれる" : " = '" + expected + "'");
+        }
+    }
+
+    // 全ての検証対象の値をページ内で一括取得するスクリプト
+    private static final String BATCH_SCRIPT = """
+            checks => checks.map(({ type, selector, attribute }) => {
+              if (type === 'title') return document.title;
+              if (type === 'url') return location.href;
+              let elements;
+              try {
+                elements = document.querySelectorAll(selector);
+              } catch (e) {
+                return { invalidSelector: true };
+              }
+              const el = elements[0] || null;
+              switch (type) {
+                case 'count': return elements.length;
+                case 'exists': return elements.length > 0;
+                case 'visible': {
+                  if (!el) return false;
+                  const rect = el.getBoundingClientRect();
+                  return rect.width > 0 && rect.height > 0 && getComputedStyle(el).visibility !== 'hidden';
+                }
+                case 'text': return el ? el.textContent : null;
+                case 'attribute': return el ? el.getAttribute(attribute) : null;
+                case 'enabled': return !!el && !el.matches(':disabled');
+                case 'checked': return !!el && !!el.checked;
+                case 'value': return el && 'value' in el ? el.value : null;
+                default: return null;
+              }
+            })
+            """;
+}
@@ -0,0 +1,100 @@
+package com.example.playwright.utils;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * トレースの区間（シナリオ・ステップ・候補の試行等）
+ *
+ * Tracer.start() で開始し、try-with-resources で閉じると終了して出力キューに渡される。
+ * 開始したスレッドでのみ操作すること。
+ */
+public class Span implements AutoCloseable {
+    // トレース出力が無効な場合に返す何もしない区間
+    static final Span NOOP = new Span(null, null, null, null);
+
+    private final String name;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long endEpochNanos;
+    private String errorMessage;
+    private boolean ended;
+
+    Span(String name, String traceId, String spanId, String parentSpanId) {
+        this.name = name;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        Instant now = Instant.now();
+        this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 属性を設定（値は文字列・数値・真偽値）
+     */
+    public Span setAttribute(String key, Object value) {
+        if (this != NOOP && value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * 失敗として記録
+     */
+    public Span fail(Throwable error) {
+        if (this != NOOP) {
+            errorMessage = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (this == NOOP || ended) {
+            return;
+        }
+        ended = true;
+        endEpochNanos = startEpochNanos + (System.nanoTime() - startNanos);
+        setAttribute("outcome", errorMessage == null ? "ok" : "error");
+        Tracer.end(this);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    public String parentSpanId() {
+        return parentSpanId;
+    }
+
+    public long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public Map<String, Object> attributes() {
+        return attributes;
+    }
+
+    public String errorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.playwright.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * アクション1件（シナリオの1ステップ）の実行（JFR イベント）
+ */
+@Name("com.example.playwright.Step")
+@Label("Step")
+@Category({ "Playwright AutoTest" })
+@Description("TestActionExecutor.executeAction の1回の実行")
+public class StepEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Element")
+    public String element;
+
+    @Label("URL")
+    public String url;
+
+    @Label("Passed")
+    public boolean passed;
+}
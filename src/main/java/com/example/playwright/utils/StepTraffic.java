@@ -0,0 +1,233 @@
+package com.example.playwright.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ステップ（またはシナリオ全体）の通信量の集計
+ *
+ * リクエストはそれを開始したステップに計上する。ステップ終了時に完了していないリクエストは
+ * 件数と第三者判定のみ数え（pending）、転送量・時間には含めない。
+ */
+public class StepTraffic {
+    // 保持する遅いリクエスト・失敗したリクエストの件数
+    static final int SLOWEST_LIMIT = 5;
+    static final int FAILED_LIMIT = 10;
+
+    private int requests;
+    private int pending;
+    private long bytes;
+    private int thirdPartyRequests;
+    private long thirdPartyBytes;
+    private int failedCount;
+    private final List<Entry> slowest = new ArrayList<>();
+    private final List<Entry> failed = new ArrayList<>();
+    // ホスト → [件数, 転送量]
+    private final Map<String, long[]> hosts = new HashMap<>();
+
+    /**
+     * 完了したリクエスト1件
+     *
+     * @param method         HTTPメソッド
+     * @param url            URL
+     * @param status         ステータス（レスポンスが無い場合は0）
+     * @param bytes          転送量（ヘッダーを含む）
+     * @param durationMillis 開始から受信完了までの時間
+     * @param failure        通信エラー・4xx/5xx の内容（成功時はnull）
+     */
+    public record Entry(String method, String url, int status, long bytes, double durationMillis, String failure) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %s %s %.0f ms", method, url,
+                    failure != null ? failure : String.valueOf(status), durationMillis);
+        }
+    }
+
+    /**
+     * 完了したリクエストを記録
+     */
+    public void add(Entry entry, boolean thirdParty) {
+        requests++;
+        bytes += entry.bytes();
+        if (thirdParty) {
+            thirdPartyRequests++;
+            thirdPartyBytes += entry.bytes();
+        }
+        long[] host = hosts.computeIfAbsent(host(entry.url()), key -> new long[2]);
+        host[0]++;
+        host[1] += entry.bytes();
+        if (entry.failure() != null) {
+            failedCount++;
+            if (failed.size() < FAILED_LIMIT) {
+                failed.add(entry);
+            }
+        }
+        keepSlowest(entry);
+    }
+
+    /**
+     * ステップ終了時に完了していなかったリクエストを記録
+     */
+    public void addPending(String url, boolean thirdParty) {
+        requests++;
+        pending++;
+        if (thirdParty) {
+            thirdPartyRequests++;
+        }
+        hosts.computeIfAbsent(host(url), key -> new long[2])[0]++;
+    }
+
+    /**
+     * 別の集計を加算（シナリオ全体の合計用）
+     */
+    public void merge(StepTraffic other) {
+        requests += other.requests;
+        pending += other.pending;
+        bytes += other.bytes;
+        thirdPartyRequests += other.thirdPartyRequests;
+        thirdPartyBytes += other.thirdPartyBytes;
+        failedCount += other.failedCount;
+        for (Entry entry : other.failed) {
+            if (failed.size() < FAILED_LIMIT) {
+                failed.add(entry);
+            }
+        }
+        other.slowest.forEach(this::keepSlowest);
+        other.hosts.forEach((host, counts) -> {
+            long[] total = hosts.computeIfAbsent(host, key -> new long[2]);
+            total[0] += counts[0];
+            total[1] += counts[1];
+        });
+    }
+
+    private void keepSlowest(Entry entry) {
+        slowest.add(entry);
+        slowest.sort(Comparator.comparingDouble(Entry::durationMillis).reversed());
+        if (slowest.size() > SLOWEST_LIMIT) {
+            slowest.remove(SLOWEST_LIMIT);
+        }
+    }
+
+    public int requests() {
+        return requests;
+    }
+
+    public int pending() {
+        return pending;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public int thirdPartyRequests() {
+        return thirdPartyRequests;
+    }
+
+    public long thirdPartyBytes() {
+        return thirdPartyBytes;
+    }
+
+    public int failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 時間の長い順のリクエスト（最大 SLOWEST_LIMIT 件）
+     */
+    public List<Entry> slowest() {
+        return List.copyOf(slowest);
+    }
+
+    /**
+     * 失敗したリクエスト（最大 FAILED_LIMIT 件）
+     */
+    public List<Entry> failed() {
+        return List.copyOf(failed);
+    }
+
+    /**
+     * 転送量の多い順のホスト（ホスト → [件数, 転送量]）
+     */
+    public List<Map.Entry<String, long[]>> topHosts(int limit) {
+        return hosts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1])
+                        .thenComparingLong(e -> e.getValue()[0]).reversed())
+                .limit(limit)
+                .map(e -> Map.entry(e.getKey(), e.getValue().clone()))
+                .toList();
+    }
+
+    /**
+     * 1行の要約（例: 32 件, 1.2 MB, 第三者 40% (12 件 / 310 KB), 失敗 1, 最遅 GET https://... 200 850 ms）
+     */
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append(requests).append(" 件, ").append(formatBytes(bytes));
+        if (requests > 0) {
+            text.append(String.format(Locale.ROOT, ", 第三者 %.0f%% (%d 件 / %s)",
+                    bytes > 0 ? thirdPartyBytes * 100.0 / bytes : thirdPartyRequests * 100.0 / requests,
+                    thirdPartyRequests, formatBytes(thirdPartyBytes)));
+        }
+        if (failedCount > 0) {
+            text.append(", 失敗 ").append(failedCount);
+        }
+        if (pending > 0) {
+            text.append(", 未完了 ").append(pending);
+        }
+        if (!slowest.isEmpty()) {
+            text.append(", 最遅 ").append(slowest.get(0));
+        }
+        return text.toString();
+    }
+
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * URLのホスト名（取得できない場合は空文字）
+     */
+    public static String host(String url) {
+        try {
+            String host = java.net.URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * ホスト名のサイト（登録可能ドメイン）
+     *
+     * Public Suffix List は使わず、「co.jp」「com.au」のような2階層のサフィックスのみ考慮する近似。
+     * IPアドレス・localhost はそのまま返す。
+     */
+    public static String site(String host) {
+        if (host.isEmpty() || host.indexOf('.') < 0 || host.contains(":") || host.matches("[0-9.]+")) {
+            return host;
+        }
+        String[] labels = host.split("\\.");
+        int keep = 2;
+        if (labels.length >= 3 && labels[labels.length - 1].length() == 2
+                && SECOND_LEVEL.contains(labels[labels.length - 2])) {
+            keep = 3;
+        }
+        return String.join(".", java.util.Arrays.copyOfRange(labels, Math.max(0, labels.length - keep), labels.length));
+    }
+
+    // 国別ドメインの下で使われる一般的な第2レベル（co.jp, com.au, ac.uk 等）
+    private static final java.util.Set<String> SECOND_LEVEL = java.util.Set.of(
+            "co", "or", "ne", "ac", "go", "ed", "gr", "lg", "ad", "com", "net", "org", "gov", "edu");
+}
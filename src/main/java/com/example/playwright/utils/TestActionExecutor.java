@@ -1,11 +1,17 @@
 package com.example.playwright.utils;
 
+import com.example.playwright.config.TestConfig;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.assertions.LocatorAssertions;
+import com.microsoft.playwright.assertions.PageAssertions;
+import com.microsoft.playwright.options.WaitForSelectorState;
 import com.microsoft.playwright.options.WaitUntilState;
 import com.microsoft.playwright.options.AriaRole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+
 /**
  * 汎用的なE2Eテストアクション実行エンジン
  * 
@@ -20,10 +26,45 @@ public class TestActionExecutor {
     private Page page;
     // 現在のiframeセレクタ（nullならメインフレーム）
     private String currentIframeSelector;
-    // ウィンドウハンドルのリスト
-    private java.util.List<Page> windowHandles;
-    // 現在のウィンドウインデックス
-    private int currentWindowIndex;
+    // 全フレームから要素を探すか（iframeを明示的に選択していない場合のみ有効）
+    private boolean searchAllFrames;
+    // 全フレーム探索で見つかったフレームの記録
+    private final FrameSearch frameSearch = new FrameSearch();
+    // シナリオ変数（api アクションで保存し、以降のステップで ${変数名} として参照）
+    private final java.util.Map<String, String> variables = new java.util.LinkedHashMap<>();
+    // シナリオ変数の参照
+    private static final java.util.regex.Pattern VARIABLE = java.util.regex.Pattern.compile("\\$\\{([^}]+)}");
+    // 開いているウィンドウの追跡（ポップアップの生成・クローズをイベントで反映）
+    private final WindowTracker windows;
+    // 通信の記録（レスポンス待機・通信待機アクション用）
+    private final NetworkWatcher network;
+    // ステップごとの通信量の集計（network.stepStats が無効ならnull）
+    private final NetworkAccounting traffic;
+    // 直前のステップの通信量（まだレポートに渡していないもの）
+    private StepTraffic lastTraffic;
+    // ステップごとのメモリ指標の記録（memory.sample が無効ならnull）
+    private final MemorySampler memory;
+    // 設定（ワーカー・シナリオごとに上書きしたものを渡せる）
+    private final TestConfig config;
+    // 確認アクションの最大待機時間（ms）
+    private final int assertTimeout;
+    // シナリオの制限時間（各操作の待機時間は残り時間で切り詰める）
+    private TimeBudget budget = TimeBudget.unlimited();
+    // 実行中のシナリオ名（性能計測の記録用）
+    private String scenarioName;
+    // 直前の性能計測の結果（未計測ならnull）
+    private com.fasterxml.jackson.databind.node.ObjectNode lastPerformance;
+    // 実行中・直前のステップの開始時刻（エポックミリ秒、直前のステップ以降の通信量の予算確認用）
+    private long stepStartEpochMillis;
+    private long previousStepStartEpochMillis;
+    // 保存したファイル（スクリーンショット等）のうち、まだレポートに渡していないもの
+    private final java.util.List<String> artifacts = new java.util.ArrayList<>();
+    // 検索結果の表示を待つ最大時間（ms）
+    private static final double SEARCH_RESULT_TIMEOUT = 10000;
+    // 検索ボタン・検索ボックス等の候補を探す最大時間（ms）
+    private static final double SEARCH_PROBE_TIMEOUT = 5000;
+    // 新しいウィンドウのタイトルを待つ最大時間（ms）
+    private static final double WINDOW_TITLE_TIMEOUT = 10000;
 
     /**
      * コンストラクタ
@@ -31,11 +72,137 @@ public class TestActionExecutor {
      * @param page PlaywrightのPageインスタンス
      */
     public TestActionExecutor(Page page) {
-        this.page = page;
+        this(page, TestConfig.getInstance());
+    }
+
+    /**
+     * コンストラクタ（設定を指定）
+     * 
+     * @param page   PlaywrightのPageインスタンス
+     * @param config 使用する設定
+     */
+    public TestActionExecutor(Page page, TestConfig config) {
+        this.config = config;
+        this.page = attach(page);
         this.currentIframeSelector = null; // デフォルトはメインフレーム
-        this.windowHandles = new java.util.ArrayList<>();
-        this.windowHandles.add(page); // 最初のページを追加
-        this.currentWindowIndex = 0;
+        this.windows = new WindowTracker(page);
+        this.network = new NetworkWatcher(page.context());
+        this.traffic = config.isNetworkStepStatsEnabled()
+                ? new NetworkAccounting(page.context(), config.getFirstPartyDomains()) : null;
+        this.memory = config.isMemorySampleEnabled()
+                ? new MemorySampler(java.nio.file.Paths.get(config.getMemoryFile()), config.getMemoryLeakWindow()) : null;
+        this.searchAllFrames = config.isSearchAllFramesEnabled();
+        this.assertTimeout = config.getAssertTimeout();
+    }
+
+    /**
+     * 現在操作対象のページ（ウィンドウ切り替え後はそのウィンドウ）を取得
+     */
+    public Page getPage() {
+        return page;
+    }
+
+    /**
+     * 現在のページのソフトアサーションを開始（このシナリオの assert.timeout と残り時間で待機する）
+     */
+    public SoftAssertions softly() {
+        return AssertUtils.softly(page, budgeted(assertTimeout));
+    }
+
+    /**
+     * シナリオの制限時間を設定（以降の全アクションの待機時間が残り時間に制限される）
+     */
+    public void setBudget(TimeBudget budget) {
+        this.budget = budget;
+        if (budget.isUnlimited()) {
+            page.context().setDefaultTimeout(config.getTimeout());
+        }
+    }
+
+    /**
+     * 待機時間を残り時間で切り詰め、ブラウザ操作の既定の待機時間にも反映する
+     * 
+     * @return このステップ（または候補の試行）で使える待機時間（ms）
+     * @throws IllegalStateException 制限時間を使い切っている場合
+     */
+    private double applyBudget() {
+        double timeout = budget.cap(config.getTimeout());
+        if (!budget.isUnlimited()) {
+            page.context().setDefaultTimeout(timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * 個別の待機時間を残り時間で切り詰める
+     */
+    private double budgeted(double timeout) {
+        return budget.cap(timeout);
+    }
+
+    /**
+     * 実行中のシナリオ名を設定（性能計測の記録に含める）
+     */
+    public void setScenarioName(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    /**
+     * 直前の性能計測（perf アクション・遷移時の自動計測）の結果
+     */
+    public com.fasterxml.jackson.databind.node.ObjectNode getLastPerformance() {
+        return lastPerformance;
+    }
+
+    /**
+     * シナリオ変数の一覧を取得
+     */
+    public java.util.Map<String, String> getVariables() {
+        return java.util.Collections.unmodifiableMap(variables);
+    }
+
+    /**
+     * シナリオ変数を設定（並列実行で分岐したシナリオへの引き継ぎ等）
+     */
+    public void putVariables(java.util.Map<String, String> values) {
+        variables.putAll(values);
+    }
+
+    /**
+     * 文字列中の ${変数名} をシナリオ変数の値で置換
+     */
+    private String resolveVariables(String text) {
+        if (text == null || !text.contains("${")) {
+            return text;
+        }
+        java.util.regex.Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1).trim();
+            String value = variables.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Unbound scenario variable: ${" + name + "}");
+            }
+            matcher.appendReplacement(resolved, java.util.regex.Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * APIを呼び出し、レスポンスの値をシナリオ変数に保存
+     * 
+     * @param request  メソッドとURL（例: POST /api/customers）
+     * @param body     リクエストボディ（省略可）
+     * @param expected 期待するステータスと保存する値（例: 201; customerId=$.id）
+     */
+    private void callApi(String request, String body, String expected) {
+        java.util.Map<String, String> captured = ApiCall.parse(request, expected)
+                .send(page, body, config.getBaseUrl());
+        variables.putAll(captured);
+        if (!captured.isEmpty()) {
+            logger.info("Captured variables: " + captured.keySet());
+        }
     }
 
     /**
@@ -46,12 +213,59 @@ public class TestActionExecutor {
      * @param inputValue 入力値（必要な場合のみ）
      */
     public void executeAction(String action, String element, String inputValue) {
+        executeAction(action, element, inputValue, null);
+    }
+
+    /**
+     * アクションを実行（期待結果列を使うアクション向け）
+     * 
+     * 要素・入力値・期待結果に含まれる ${変数名} はシナリオ変数の値に置き換えてから実行する。
+     * 
+     * @param expected 期待結果（api アクションのステータス・保存する値の指定）
+     */
+    public void executeAction(String action, String element, String inputValue, String expected) {
+        // ステップの集計はデータ行ごとに分かれないよう、変数を置き換える前のセルの値で行う
+        String stepLabel = action.trim() + (element == null || element.isEmpty() ? "" : " " + element);
+        element = resolveVariables(element);
+        inputValue = resolveVariables(inputValue);
+        expected = resolveVariables(expected);
+        Span span = Tracer.start("step")
+                .setAttribute("action", action)
+                .setAttribute("element", element)
+                .setAttribute("url", page.url());
+        StepEvent event = new StepEvent();
+        event.begin();
+        previousStepStartEpochMillis = stepStartEpochMillis;
+        stepStartEpochMillis = System.currentTimeMillis();
+        if (config.isDriverCallStatsEnabled()) {
+            DriverCallStats.beginStep(stepLabel);
+        }
+        if (traffic != null) {
+            traffic.beginStep();
+        }
         try {
-            switch (action.toLowerCase().trim()) {
+            applyBudget();
+            ensureCurrentWindowOpen();
+            windows.mark();
+            String normalizedAction = action.toLowerCase().trim();
+            if (!isNetworkWait(normalizedAction)) {
+                // 通信待機アクションは直前のアクション開始以降の通信を対象にする
+                network.mark();
+            }
+            switch (normalizedAction) {
                 case "navigate", "goto", "アクセス", "移動" -> navigate(element); // URL遷移
                 case "click", "クリック", "押下" -> click(element); // 要素クリック
                 case "input", "type", "入力", "タイプ" -> input(element, inputValue); // テキスト入力
+                case "fillform", "フォーム一括入力", "一括入力" -> fillForm(element, inputValue); // フォーム一括入力
+                case "api", "api呼出", "api呼び出し" -> callApi(element, inputValue, expected); // API呼び出し
+                case "perf", "性能計測" -> measurePerformance(action, element); // フロントエンド性能の計測
+                case "budget", "予算確認", "性能予算" -> checkBudget(action, element, inputValue); // 性能予算の確認
                 case "wait", "待機", "wait for" -> waitForElement(element); // 要素の表示待機
+                case "waitresponse", "レスポンス待機" -> waitForResponse(element, inputValue); // レスポンス待機
+                case "waitrequest", "リクエスト待機" -> waitForRequest(element); // リクエスト待機
+                case "networkidle", "通信待機" -> waitForNetworkIdle(element); // 通信完了待機
+                case "fakeclock", "時計制御" -> FakeClock.install(page); // 時計の置き換え
+                case "fastforward", "時間経過" -> fastForward(element != null && !element.trim().isEmpty() ? element : inputValue); // 時計を進める
                 case "verify", "確認", "検証", "assertion" -> verify(element, inputValue); // 値検証
                 case "select", "選択", "dropdown" -> selectOption(element, inputValue); // プルダウン選択
                 case "check", "チェック", "checkbox" -> checkElement(element); // チェックボックスON
@@ -64,13 +278,39 @@ public class TestActionExecutor {
                 case "screenshot", "スクリーンショット", "画面キャプチャ" -> takeScreenshot(element); // スクショ
                 case "iframe", "アイフレーム", "フレーム" -> switchToIframe(element); // iframe切替
                 case "main", "メイン", "親フレーム" -> switchToMainFrame(); // メインフレーム復帰
+                case "framesearch", "全フレーム検索" -> setSearchAllFrames(element); // 全フレーム探索の切替
                 case "newwindow", "新しいウィンドウ", "ポップアップ" -> switchToNewWindow(element); // 新規ウィンドウ切替
                 case "closewindow", "ウィンドウを閉じる", "ポップアップを閉じる" -> closeWindow(element); // ウィンドウ閉じる
                 case "window", "ウィンドウ", "ウィンドウ切り替え" -> switchToWindow(element != null && !element.trim().isEmpty() ? element : inputValue); // 指定ウィンドウ切替
                 default -> logger.warn("Unknown action: " + action);
             }
+            event.passed = true;
+        } catch (AssertionError e) {
+            // 検証・性能予算の不合格はそのまま呼び出し元へ
+            span.fail(e);
+            throw e;
         } catch (Exception e) {
+            span.fail(e);
             throw new RuntimeException("Failed to execute action: " + action + " on element: " + element, e);
+        } finally {
+            if (config.isDriverCallStatsEnabled()) {
+                DriverCallStats.endStep();
+            }
+            if (traffic != null) {
+                lastTraffic = traffic.endStep(page);
+                logger.info("ステップの通信: {}", lastTraffic.summary());
+            }
+            if (memory != null) {
+                memory.sample(page, scenarioName, stepLabel);
+            }
+            span.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.action = action;
+                event.element = element;
+                event.url = page.isClosed() ? null : page.url();
+                event.commit();
+            }
         }
     }
 
@@ -90,7 +330,7 @@ public class TestActionExecutor {
                 getLocator("[aria-label='" + element + "'], label:has-text('" + element + "') + select")
                         .selectOption(value);
             } else {
-                page.getByLabel(element).selectOption(value);
+                getByLabel(element).selectOption(value);
             }
         }
         logger.info("Selected '{}' from: {}", value, element);
@@ -101,9 +341,9 @@ public class TestActionExecutor {
      */
     private void checkElement(String element) {
         if (element.startsWith("#") || element.startsWith(".") || element.contains("[")) {
-            page.locator(element).check();
+            getLocator(element).check();
         } else {
-            page.getByLabel(element).check();
+            getByLabel(element).check();
         }
         logger.info("Checked: {}", element);
     }
@@ -113,9 +353,9 @@ public class TestActionExecutor {
      */
     private void uncheckElement(String element) {
         if (element.startsWith("#") || element.startsWith(".") || element.contains("[")) {
-            page.locator(element).uncheck();
+            getLocator(element).uncheck();
         } else {
-            page.getByLabel(element).uncheck();
+            getByLabel(element).uncheck();
         }
         logger.info("Unchecked: {}", element);
     }
@@ -125,9 +365,9 @@ public class TestActionExecutor {
      */
     private void hoverElement(String element) {
         if (element.startsWith("#") || element.startsWith(".") || element.contains("[")) {
-            page.locator(element).hover();
+            getLocator(element).hover();
         } else {
-            page.getByText(element).hover();
+            getByText(element).hover();
         }
         logger.info("Hovered: {}", element);
     }
@@ -137,9 +377,9 @@ public class TestActionExecutor {
      */
     private void scrollTo(String element) {
         if (element.startsWith("#") || element.startsWith(".") || element.contains("[")) {
-            page.locator(element).scrollIntoViewIfNeeded();
+            getLocator(element).scrollIntoViewIfNeeded();
         } else {
-            page.getByText(element).scrollIntoViewIfNeeded();
+            getByText(element).scrollIntoViewIfNeeded();
         }
         logger.info("Scrolled to: {}", element);
     }
@@ -174,8 +414,18 @@ public class TestActionExecutor {
      * @param fileName ファイル名（null可）
      */
     private void takeScreenshot(String fileName) {
+        saveScreenshot(fileName);
+    }
+
+    /**
+     * スクリーンショットを保存し、保存先をレポート用の記録に追加
+     * 
+     * @param fileName ファイル名（タイムスタンプと拡張子は自動付与）
+     * @return 保存先のパス（失敗時はnull）
+     */
+    public String saveScreenshot(String fileName) {
         try {
-            java.nio.file.Path screenshotPath = java.nio.file.Paths.get("screenshots");
+            java.nio.file.Path screenshotPath = java.nio.file.Paths.get(config.getScreenshotDirectory());
             if (!java.nio.file.Files.exists(screenshotPath)) {
                 java.nio.file.Files.createDirectories(screenshotPath);
             }
@@ -184,14 +434,70 @@ public class TestActionExecutor {
             String fullFileName = (fileName != null && !fileName.isEmpty()) ? fileName + "_" + timestamp + ".png"
                     : "screenshot_" + timestamp + ".png";
             java.nio.file.Path filePath = screenshotPath.resolve(fullFileName);
+            ScreenshotWriteEvent event = new ScreenshotWriteEvent();
+            event.begin();
+            long captureStart = System.nanoTime();
             byte[] screenshot = page.screenshot();
+            event.captureDuration = System.nanoTime() - captureStart;
             java.nio.file.Files.write(filePath, screenshot);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = filePath.toString();
+                event.bytes = screenshot.length;
+                event.commit();
+            }
             logger.info("Screenshot saved: {}", filePath.toAbsolutePath());
+            artifacts.add(filePath.toString());
+            return filePath.toString();
         } catch (Exception e) {
             logger.error("Failed to take screenshot: {}", fileName, e);
+            return null;
+        }
+    }
+
+    /**
+     * 前回の呼び出し以降に保存したファイルのパスを取得（取得した分は記録から消す）
+     */
+    public java.util.List<String> drainArtifacts() {
+        java.util.List<String> drained = java.util.List.copyOf(artifacts);
+        artifacts.clear();
+        return drained;
+    }
+
+    /**
+     * 同じページでシナリオを繰り返す場合に、各回の最初に呼ぶ（メモリ指標を回ごとに比べるため）
+     */
+    public void startIteration() {
+        if (memory != null) {
+            memory.nextIteration();
         }
     }
 
+    /**
+     * 繰り返しでメモリ指標が増え続けていないか確認（memory.sample が無効なら空）
+     * 
+     * @return 増え続けている指標の説明
+     */
+    public java.util.List<String> checkMemoryGrowth() {
+        return memory != null ? memory.checkLeaks(scenarioName) : java.util.List.of();
+    }
+
+    /**
+     * 直前のステップの通信量を取り出す（network.stepStats が無効、または取り出し済みならnull）
+     */
+    public StepTraffic drainTraffic() {
+        StepTraffic drained = lastTraffic;
+        lastTraffic = null;
+        return drained;
+    }
+
+    /**
+     * これまでの全ステップの通信量の合計（network.stepStats が無効ならnull）
+     */
+    public StepTraffic getTrafficTotal() {
+        return traffic != null ? traffic.total() : null;
+    }
+
     /**
      * 指定URLへナビゲート
      */
@@ -214,13 +520,90 @@ public class TestActionExecutor {
         handleCommonConsentButtons();
 
         logger.info("Navigated to: " + url);
+        // 全体予算（perf.budget.*）が一致するページは perf.onNavigate に関係なく計測して確認
+        if (config.isPerfOnNavigate() || !PerformanceBudget.forUrl(config.getPerfBudgets(), page.url()).isEmpty()) {
+            measurePerformance("navigate", url);
+        }
+    }
+
+    /**
+     * 現在のページの性能指標を取得して perf.file に記録し、URLに一致する全体予算（perf.budget.*）を確認
+     * 
+     * load イベントまで待ってから取得する（LCP・CLS はその時点までの値）。
+     * 
+     * @param action 記録するアクション名
+     * @param label  記録する要素（計測箇所の名前、省略可）
+     */
+    private void measurePerformance(String action, String label) {
+        page.waitForLoadState(com.microsoft.playwright.options.LoadState.LOAD,
+                new Page.WaitForLoadStateOptions().setTimeout(budgeted(config.getTimeout())));
+        com.fasterxml.jackson.databind.node.ObjectNode metrics = recordPerformance(action, label, 0);
+        assertBudgets(PerformanceBudget.forUrl(config.getPerfBudgets(), metrics.path("url").asText()), metrics);
+    }
+
+    /**
+     * 性能予算を確認（例: LCP < 2500ms; requests < 80; transfer < 1.5MB）
+     * 
+     * @param expressions 予算の指定（; 区切りで複数指定可）
+     * @param scope       「ステップ」を指定するとリソース数・転送量を直前のステップ以降に限る（省略時はページ全体）
+     */
+    private void checkBudget(String action, String expressions, String scope) {
+        java.util.List<PerformanceBudget> budgets = PerformanceBudget.parse(expressions);
+        boolean sinceLastStep = scope != null && java.util.Set.of("ステップ", "直前のステップ", "step")
+                .contains(scope.trim().toLowerCase());
+        if (!sinceLastStep) {
+            page.waitForLoadState(com.microsoft.playwright.options.LoadState.LOAD,
+                    new Page.WaitForLoadStateOptions().setTimeout(budgeted(config.getTimeout())));
+        }
+        assertBudgets(budgets, recordPerformance(action, expressions, sinceLastStep ? previousStepStartEpochMillis : 0));
+    }
+
+    /**
+     * 予算を満たさない指標があれば計測値とともに失敗させる
+     */
+    private void assertBudgets(java.util.List<PerformanceBudget> budgets, com.fasterxml.jackson.databind.JsonNode metrics) {
+        java.util.List<String> violations = new java.util.ArrayList<>();
+        for (PerformanceBudget budget : budgets) {
+            if (!budget.isSupported(metrics)) {
+                logger.warn("このブラウザでは計測できない指標のため予算の確認を省略します: " + budget.text());
+                continue;
+            }
+            String violation = budget.violation(metrics);
+            if (violation != null) {
+                violations.add(violation);
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Performance budget exceeded on " + metrics.path("url").asText() + ": "
+                    + String.join(", ", violations));
+        }
+    }
+
+    /**
+     * 性能指標を取得して perf.file に記録
+     * 
+     * @param sinceEpochMillis この時刻以降のリソースに限る（0 はページ全体）
+     */
+    private com.fasterxml.jackson.databind.node.ObjectNode recordPerformance(String action, String label, long sinceEpochMillis) {
+        com.fasterxml.jackson.databind.node.ObjectNode metrics = PagePerformance.collect(page, sinceEpochMillis);
+        lastPerformance = metrics;
+        logger.info("Performance: " + PagePerformance.summary(metrics));
+
+        com.fasterxml.jackson.databind.node.ObjectNode record = metrics.objectNode();
+        record.put("timestamp", java.time.Instant.now().toString());
+        record.put("scenario", scenarioName);
+        record.put("action", action);
+        record.put("element", label);
+        record.setAll(metrics);
+        PerformanceLog.append(java.nio.file.Paths.get(config.getPerfFile()), record);
+        return metrics;
     }
 
     /**
      * 一般的な同意ボタンを処理
      */
     private void handleCommonConsentButtons() {
-        try {
+        try (Span span = Tracer.start("consent-check")) {
             // 一般的な同意ボタンのパターン
             String[] consentSelectors = {
                     "button:has-text('すべて同意')",
@@ -239,6 +622,7 @@ public class TestActionExecutor {
                 if (page.locator(selector).count() > 0 && page.locator(selector).isVisible()) {
                     page.locator(selector).first().click();
                     logger.info("Clicked consent button: " + selector);
+                    span.setAttribute("strategy", selector);
                     Thread.sleep(1000); // 同意後の処理を待機
                     break;
                 }
@@ -328,14 +712,28 @@ public class TestActionExecutor {
         };
 
         for (String[] method : clickMethods) {
+            // 候補ごとに残り時間を反映（使い切った時点で打ち切る）
+            applyBudget();
+            LocatorProbeEvent event = new LocatorProbeEvent();
+            event.begin();
+            Span probe = Tracer.start("probe").setAttribute("strategy", method[0]);
             try {
-                if (tryClickMethod(method[0], method[1])) {
+                boolean matched = tryClickMethod(method[0], method[1]);
+                probe.setAttribute("matched", matched);
+                event.matched = matched;
+                if (matched) {
                     logger.info("Successfully clicked using method: " + method[0] + " with value: " + method[1]);
                     return true;
                 }
             } catch (Exception e) {
                 // 次の手法を試行
+                probe.fail(e);
                 continue;
+            } finally {
+                probe.close();
+                event.strategy = method[0];
+                event.element = element;
+                event.commit();
             }
         }
 
@@ -349,71 +747,69 @@ public class TestActionExecutor {
         try {
             switch (method) {
                 case "text":
-                    if (page.getByText(value).count() > 0) {
-                        page.getByText(value).first().click();
+                    if (candidate(FrameSearch.Query.text(value)).count() > 0) {
+                        candidate(FrameSearch.Query.text(value)).first().click();
                         return true;
                     }
                     break;
                 case "placeholder":
-                    if (page.getByPlaceholder(value).count() > 0) {
-                        page.getByPlaceholder(value).click();
+                    if (candidate(FrameSearch.Query.placeholder(value)).count() > 0) {
+                        candidate(FrameSearch.Query.placeholder(value)).click();
                         return true;
                     }
                     break;
                 case "label":
-                    if (page.getByLabel(value).count() > 0) {
-                        page.getByLabel(value).click();
+                    if (candidate(FrameSearch.Query.label(value)).count() > 0) {
+                        candidate(FrameSearch.Query.label(value)).click();
                         return true;
                     }
                     break;
                 case "title":
-                    if (page.locator("[title='" + value + "']").count() > 0) {
-                        page.locator("[title='" + value + "']").click();
+                    if (candidate(FrameSearch.Query.selector("[title='" + value + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[title='" + value + "']")).click();
                         return true;
                     }
                     break;
                 case "alt":
-                    if (page.locator("[alt='" + value + "']").count() > 0) {
-                        page.locator("[alt='" + value + "']").click();
+                    if (candidate(FrameSearch.Query.selector("[alt='" + value + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[alt='" + value + "']")).click();
                         return true;
                     }
                     break;
                 case "value":
-                    if (page.locator("[value='" + value + "']").count() > 0) {
-                        page.locator("[value='" + value + "']").click();
+                    if (candidate(FrameSearch.Query.selector("[value='" + value + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[value='" + value + "']")).click();
                         return true;
                     }
                     break;
                 case "name":
-                    if (page.locator("[name='" + value + "']").count() > 0) {
-                        page.locator("[name='" + value + "']").click();
+                    if (candidate(FrameSearch.Query.selector("[name='" + value + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[name='" + value + "']")).click();
                         return true;
                     }
                     break;
                 case "id":
-                    if (page.locator("#" + value).count() > 0) {
-                        page.locator("#" + value).click();
+                    if (candidate(FrameSearch.Query.selector("#" + value)).count() > 0) {
+                        candidate(FrameSearch.Query.selector("#" + value)).click();
                         return true;
                     }
                     break;
                 case "class":
-                    if (page.locator("." + value).count() > 0) {
-                        page.locator("." + value).first().click();
+                    if (candidate(FrameSearch.Query.selector("." + value)).count() > 0) {
+                        candidate(FrameSearch.Query.selector("." + value)).first().click();
                         return true;
                     }
                     break;
                 case "partial-text":
-                    if (page.locator(":has-text('" + value + "')").count() > 0) {
-                        page.locator(":has-text('" + value + "')").first().click();
+                    if (candidate(FrameSearch.Query.selector(":has-text('" + value + "')")).count() > 0) {
+                        candidate(FrameSearch.Query.selector(":has-text('" + value + "')")).first().click();
                         return true;
                     }
                     break;
                 case "role-button":
                     try {
-                        if (page.getByRole(AriaRole.BUTTON,
-                                new Page.GetByRoleOptions().setName(value)).count() > 0) {
-                            page.getByRole(AriaRole.BUTTON,
-                                    new Page.GetByRoleOptions().setName(value)).click();
+                        if (candidate(FrameSearch.Query.role(AriaRole.BUTTON, value)).count() > 0) {
+                            candidate(FrameSearch.Query.role(AriaRole.BUTTON, value)).click();
                             return true;
                         }
                     } catch (Exception e) {
@@ -443,47 +839,28 @@ public class TestActionExecutor {
                 "center input[type='submit']"
         };
 
-        boolean clickSuccess = false;
-
-        // まずボタンを探してクリックを試行
-        for (String selector : buttonSelectors) {
-            try {
-                if (page.locator(selector).count() > 0 && page.locator(selector).isVisible()) {
-                    page.locator(selector).click();
-                    clickSuccess = true;
-                    logger.info("Clicked search button using selector: " + selector);
-                    break;
-                }
-            } catch (Exception e) {
-                continue;
-            }
-        }
-
         // ボタンが見つからない場合はEnterキーを使用
-        if (!clickSuccess) {
-            try {
-                String[] searchBoxSelectors = {
-                        "input[name='q']",
-                        "textarea[name='q']",
-                        "input[title='検索']"
-                };
-
-                for (String selector : searchBoxSelectors) {
-                    if (page.locator(selector).count() > 0) {
-                        page.locator(selector).press("Enter");
-                        logger.info("Pressed Enter on search box: " + selector);
-                        clickSuccess = true;
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                throw new RuntimeException("Could not click search button or press Enter", e);
-            }
-        }
+        String[] searchBoxSelectors = {
+                "input[name='q']",
+                "textarea[name='q']",
+                "input[title='検索']"
+        };
 
-        if (!clickSuccess) {
+        // ボタンと検索ボックスを同時に待機（両方表示されている場合はボタンを優先）
+        String[] candidates = java.util.stream.Stream.concat(
+                java.util.Arrays.stream(buttonSelectors), java.util.Arrays.stream(searchBoxSelectors))
+                .toArray(String[]::new);
+        int found = WaitUtils.waitForFirstVisible(locators(candidates), budgeted(SEARCH_PROBE_TIMEOUT));
+        if (found < 0) {
             throw new RuntimeException("Could not find or click search button");
         }
+        if (found < buttonSelectors.length) {
+            WaitUtils.visible(page.locator(candidates[found])).first().click();
+            logger.info("Clicked search button using selector: " + candidates[found]);
+        } else {
+            WaitUtils.visible(page.locator(candidates[found])).first().press("Enter");
+            logger.info("Pressed Enter on search box: " + candidates[found]);
+        }
     }
 
     /**
@@ -493,8 +870,7 @@ public class TestActionExecutor {
         try {
             logger.info("Waiting for search results to appear...");
 
-            // 検索結果が表示されるまで待機（複数の条件で試行）
-            boolean resultsFound = false;
+            // 検索結果が表示されるまで待機（全候補を同時に監視し、最初に表示されたもので判定）
             String[] waitSelectors = {
                     "div#search",
                     "#rso",
@@ -504,19 +880,10 @@ public class TestActionExecutor {
                     "h3"
             };
 
-            for (String selector : waitSelectors) {
-                try {
-                    page.waitForSelector(selector, new Page.WaitForSelectorOptions().setTimeout(10000));
-                    logger.info("Found search results with selector: " + selector);
-                    resultsFound = true;
-                    break;
-                } catch (Exception e) {
-                    logger.info("Selector not found: " + selector);
-                    continue;
-                }
-            }
-
-            if (!resultsFound) {
+            int found = WaitUtils.waitForFirstVisible(locators(waitSelectors), budgeted(SEARCH_RESULT_TIMEOUT));
+            if (found >= 0) {
+                logger.info("Found search results with selector: " + waitSelectors[found]);
+            } else {
                 logger.info("No search results found with standard selectors, checking page content...");
                 String pageContent = page.textContent("body");
                 if (pageContent.contains("playwright") || pageContent.contains("Playwright")) {
@@ -526,10 +893,7 @@ public class TestActionExecutor {
                 }
             }
 
-            // 少し待機してページを安定させる
-            Thread.sleep(2000);
-
-            // 複数のセレクタで検索結果を探す
+            // 複数のセレクタで検索結果を探す（表示された最初の候補をクリック）
             String[] resultSelectors = {
                     "#search .g:first-child a[href]:not([href*='googleadservices']):not([href*='doubleclick'])",
                     "#rso .g:first-child a[href]",
@@ -542,28 +906,12 @@ public class TestActionExecutor {
             };
 
             boolean clickSuccess = false;
-
-            for (String selector : resultSelectors) {
-                try {
-                    int count = page.locator(selector).count();
-                    logger.info("Selector '" + selector + "' found " + count + " elements");
-
-                    if (count > 0) {
-                        // 最初の要素が表示されているかチェック
-                        if (page.locator(selector).first().isVisible()) {
-                            logger.info("Clicking element with selector: " + selector);
-                            page.locator(selector).first().click();
-                            logger.info("Successfully clicked first search result");
-                            clickSuccess = true;
-                            break;
-                        } else {
-                            logger.info("Element not visible with selector: " + selector);
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.info("Failed with selector '" + selector + "': " + e.getMessage());
-                    continue;
-                }
+            int result = WaitUtils.waitForFirstVisible(locators(resultSelectors), budgeted(SEARCH_PROBE_TIMEOUT));
+            if (result >= 0) {
+                logger.info("Clicking element with selector: " + resultSelectors[result]);
+                WaitUtils.visible(page.locator(resultSelectors[result])).first().click();
+                logger.info("Successfully clicked first search result");
+                clickSuccess = true;
             }
 
             if (!clickSuccess) {
@@ -587,9 +935,6 @@ public class TestActionExecutor {
                 }
             }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Thread interrupted while waiting", e);
         } catch (Exception e) {
             throw new RuntimeException("Failed to click first search result", e);
         }
@@ -659,14 +1004,28 @@ public class TestActionExecutor {
         };
 
         for (String[] method : inputMethods) {
+            // 候補ごとに残り時間を反映（使い切った時点で打ち切る）
+            applyBudget();
+            LocatorProbeEvent event = new LocatorProbeEvent();
+            event.begin();
+            Span probe = Tracer.start("probe").setAttribute("strategy", method[0]);
             try {
-                if (tryInputMethod(method[0], method[1], value)) {
+                boolean matched = tryInputMethod(method[0], method[1], value);
+                probe.setAttribute("matched", matched);
+                event.matched = matched;
+                if (matched) {
                     logger.info("Successfully input using method: " + method[0] + " with selector: " + method[1]);
                     return true;
                 }
             } catch (Exception e) {
                 // 次の手法を試行
+                probe.fail(e);
                 continue;
+            } finally {
+                probe.close();
+                event.strategy = method[0];
+                event.element = element;
+                event.commit();
             }
         }
 
@@ -680,68 +1039,68 @@ public class TestActionExecutor {
         try {
             switch (method) {
                 case "placeholder":
-                    if (page.getByPlaceholder(selector).count() > 0) {
-                        page.getByPlaceholder(selector).fill(value);
+                    if (candidate(FrameSearch.Query.placeholder(selector)).count() > 0) {
+                        candidate(FrameSearch.Query.placeholder(selector)).fill(value);
                         return true;
                     }
                     break;
                 case "label":
-                    if (page.getByLabel(selector).count() > 0) {
-                        page.getByLabel(selector).fill(value);
+                    if (candidate(FrameSearch.Query.label(selector)).count() > 0) {
+                        candidate(FrameSearch.Query.label(selector)).fill(value);
                         return true;
                     }
                     break;
                 case "name":
-                    if (page.locator("[name='" + selector + "']").count() > 0) {
-                        page.locator("[name='" + selector + "']").fill(value);
+                    if (candidate(FrameSearch.Query.selector("[name='" + selector + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[name='" + selector + "']")).fill(value);
                         return true;
                     }
                     break;
                 case "id":
-                    if (page.locator("#" + selector).count() > 0) {
-                        page.locator("#" + selector).fill(value);
+                    if (candidate(FrameSearch.Query.selector("#" + selector)).count() > 0) {
+                        candidate(FrameSearch.Query.selector("#" + selector)).fill(value);
                         return true;
                     }
                     break;
                 case "title":
-                    if (page.locator("[title='" + selector + "']").count() > 0) {
-                        page.locator("[title='" + selector + "']").fill(value);
+                    if (candidate(FrameSearch.Query.selector("[title='" + selector + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[title='" + selector + "']")).fill(value);
                         return true;
                     }
                     break;
                 case "aria-label":
-                    if (page.locator("[aria-label='" + selector + "']").count() > 0) {
-                        page.locator("[aria-label='" + selector + "']").fill(value);
+                    if (candidate(FrameSearch.Query.selector("[aria-label='" + selector + "']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("[aria-label='" + selector + "']")).fill(value);
                         return true;
                     }
                     break;
                 case "class":
-                    if (page.locator("." + selector).count() > 0) {
-                        page.locator("." + selector).first().fill(value);
+                    if (candidate(FrameSearch.Query.selector("." + selector)).count() > 0) {
+                        candidate(FrameSearch.Query.selector("." + selector)).first().fill(value);
                         return true;
                     }
                     break;
                 case "type-text":
-                    if (page.locator("input[type='text']").count() > 0) {
-                        page.locator("input[type='text']").first().fill(value);
+                    if (candidate(FrameSearch.Query.selector("input[type='text']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("input[type='text']")).first().fill(value);
                         return true;
                     }
                     break;
                 case "type-email":
-                    if (page.locator("input[type='email']").count() > 0) {
-                        page.locator("input[type='email']").first().fill(value);
+                    if (candidate(FrameSearch.Query.selector("input[type='email']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("input[type='email']")).first().fill(value);
                         return true;
                     }
                     break;
                 case "type-password":
-                    if (page.locator("input[type='password']").count() > 0) {
-                        page.locator("input[type='password']").first().fill(value);
+                    if (candidate(FrameSearch.Query.selector("input[type='password']")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("input[type='password']")).first().fill(value);
                         return true;
                     }
                     break;
                 case "textarea":
-                    if (page.locator("textarea").count() > 0) {
-                        page.locator("textarea").first().fill(value);
+                    if (candidate(FrameSearch.Query.selector("textarea")).count() > 0) {
+                        candidate(FrameSearch.Query.selector("textarea")).first().fill(value);
                         return true;
                     }
                     break;
@@ -776,53 +1135,252 @@ public class TestActionExecutor {
                 "input[type='text']:visible" // 表示されているテキスト入力（最後の手段）
         };
 
-        boolean inputSuccess = false;
+        // いずれかの検索ボックスが表示されるまで全候補を同時に待機
+        int found = WaitUtils.waitForFirstVisible(locators(selectors), budgeted(SEARCH_PROBE_TIMEOUT));
+        if (found < 0) {
+            throw new RuntimeException("Could not find search box with any known selector");
+        }
+        WaitUtils.visible(page.locator(selectors[found])).first().fill(value);
+        logger.info("Successfully input using search box selector: " + selectors[found]);
+    }
 
+    /**
+     * セレクタの配列から候補Locatorのリストを作成
+     */
+    private java.util.List<com.microsoft.playwright.Locator> locators(String... selectors) {
+        java.util.List<com.microsoft.playwright.Locator> candidates = new java.util.ArrayList<>();
         for (String selector : selectors) {
-            try {
-                if (page.locator(selector).count() > 0 && page.locator(selector).isVisible()) {
-                    page.locator(selector).fill(value);
-                    inputSuccess = true;
-                    logger.info("Successfully input using search box selector: " + selector);
-                    break;
-                }
-            } catch (Exception e) {
-                // 次のセレクタを試行
-                continue;
+            candidates.add(page.locator(selector));
+        }
+        return candidates;
+    }
+
+    /**
+     * フォームの複数項目を一括入力
+     *
+     * 全項目をページ内の1回のスクリプト実行で解決・入力し（input/changeイベントも発火）、
+     * 解決できなかった項目のみ通常の入力処理（複数手法の試行）にフォールバックする。
+     *
+     * @param scope      フォームのセレクタ（空ならページ全体）
+     * @param formValues 「項目=値;項目=値」形式、または file:パス（.json / .csv）
+     */
+    public void fillForm(String scope, String formValues) {
+        java.util.Map<String, String> fields = parseFormValues(formValues);
+        logger.info("Filling {} fields in one batch (scope: '{}')", fields.size(), scope);
+
+        java.util.List<java.util.Map<String, String>> fieldList = new java.util.ArrayList<>();
+        for (java.util.Map.Entry<String, String> field : fields.entrySet()) {
+            fieldList.add(java.util.Map.of("key", field.getKey(), "value", field.getValue()));
+        }
+        String rootSelector = (scope != null && !scope.trim().isEmpty()) ? scope : ":root";
+        Object unresolved = getLocator(rootSelector).first().evaluate(FILL_FORM_SCRIPT, fieldList);
+
+        // バッチで解決できなかった項目のみ個別に入力
+        if (unresolved instanceof java.util.List<?> keys) {
+            for (Object key : keys) {
+                logger.info("Field '{}' not resolved in batch, falling back to single input", key);
+                input(key.toString(), fields.get(key.toString()));
             }
+            logger.info("Form filled: {} in batch, {} by fallback", fields.size() - keys.size(), keys.size());
         }
+    }
 
-        if (!inputSuccess) {
-            throw new RuntimeException("Could not find search box with any known selector");
+    /**
+     * 一括入力の値指定を解析（記述順を保持）
+     */
+    private java.util.Map<String, String> parseFormValues(String formValues) {
+        java.util.Map<String, String> fields = new java.util.LinkedHashMap<>();
+        if (formValues == null || formValues.trim().isEmpty()) {
+            throw new IllegalArgumentException("Form values are empty");
+        }
+        String spec = formValues.trim();
+        try {
+            if (spec.startsWith("file:")) {
+                java.nio.file.Path file = java.nio.file.Paths.get(spec.substring("file:".length()).trim());
+                if (file.toString().toLowerCase().endsWith(".json")) {
+                    com.fasterxml.jackson.databind.JsonNode json = new com.fasterxml.jackson.databind.ObjectMapper()
+                            .readTree(file.toFile());
+                    json.fields().forEachRemaining(e -> fields.put(e.getKey(), e.getValue().asText()));
+                } else {
+                    // CSV: 1列目=項目、2列目=値（1行目はヘッダー）
+                    java.util.List<String> lines = java.nio.file.Files.readAllLines(file,
+                            java.nio.charset.StandardCharsets.UTF_8);
+                    for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                        String[] cells = com.example.playwright.runner.ScenarioCsvReader.parseLine(line);
+                        if (cells.length >= 2 && !cells[0].trim().isEmpty()) {
+                            fields.put(cells[0].trim(), cells[1].trim());
+                        }
+                    }
+                }
+            } else {
+                for (String pair : spec.split(";")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        fields.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+                    }
+                }
+            }
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Failed to read form values: " + spec, e);
         }
+        // 「項目=値」の形になっていない指定や空のファイルは、何も入力せずに成功させない
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No form fields found in: " + spec);
+        }
+        return fields;
     }
 
+    // 項目の解決と入力をページ内で一括実行するスクリプト（解決できなかった項目名の配列を返す）
+    private static final String FILL_FORM_SCRIPT = """
+            (root, fields) => {
+              const esc = s => (window.CSS && CSS.escape) ? CSS.escape(s) : s.replace(/["\\\\]/g, '\\\\$&');
+              const visible = el => !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);
+              const pick = list => list.find(visible) || list[0] || null;
+              const inputs = sel => Array.from(root.querySelectorAll(sel));
+              const byLabel = text => {
+                for (const label of root.querySelectorAll('label')) {
+                  if (label.textContent.trim() !== text) continue;
+                  if (label.control) return label.control;
+                  if (label.htmlFor) return root.ownerDocument.getElementById(label.htmlFor);
+                }
+                return null;
+              };
+              const resolve = key => {
+                if (/^[#.\\[]/.test(key) || key.includes('[') || key.includes(':')) {
+                  try { return pick(inputs(key)); } catch (e) { return null; }
+                }
+                const k = esc(key);
+                return pick(inputs(`[placeholder="${k}"]`)) || byLabel(key)
+                    || pick(inputs(`[name="${k}"]`)) || pick(inputs(`[id="${k}"]`))
+                    || pick(inputs(`[title="${k}"]`)) || pick(inputs(`[aria-label="${k}"]`));
+              };
+              const setValue = (el, value) => {
+                const tag = el.tagName;
+                if (tag === 'SELECT') {
+                  const option = Array.from(el.options).find(o => o.value === value || o.text.trim() === value);
+                  if (!option) return false;
+                  el.value = option.value;
+                } else if (el.type === 'checkbox') {
+                  el.checked = /^(true|on|1|yes|はい|チェック)$/i.test(value);
+                } else if (el.type === 'radio') {
+                  // 同じ name のグループから値（value属性またはラベル）が一致するものを選択
+                  const group = el.name
+                      ? Array.from((el.form || root.ownerDocument).querySelectorAll(`input[type="radio"][name="${esc(el.name)}"]`))
+                      : [el];
+                  const labels = radio => Array.from(radio.labels || []).map(label => label.textContent.trim());
+                  const target = group.find(radio => radio.value === value)
+                      || group.find(radio => labels(radio).includes(value))
+                      || (/^(true|on|1|yes|はい|チェック)$/i.test(value) ? el : null);
+                  if (!target || target.disabled) return false;
+                  target.checked = true;
+                  el = target;
+                } else if (tag === 'INPUT' || tag === 'TEXTAREA') {
+                  // Reactなどのフレームワークが値の変更を検知できるようネイティブのsetterを使用
+                  const proto = tag === 'INPUT' ? HTMLInputElement.prototype : HTMLTextAreaElement.prototype;
+                  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);
+                } else if (el.isContentEditable) {
+                  el.textContent = value;
+                } else {
+                  return false;
+                }
+                el.dispatchEvent(new Event('input', { bubbles: true }));
+                el.dispatchEvent(new Event('change', { bubbles: true }));
+                return true;
+              };
+              const unresolved = [];
+              for (const { key, value } of fields) {
+                const el = resolve(key);
+                if (!el || el.disabled || el.readOnly || !setValue(el, value)) unresolved.push(key);
+              }
+              return unresolved;
+            }
+            """;
+
     /**
      * 要素の表示を待機
      */
     public void waitForElement(String element) {
-        page.locator(element).waitFor();
+        getLocator(element).waitFor();
         logger.info("Waited for element: " + element);
     }
 
+    /**
+     * 通信を条件とした待機アクションか（直前のアクションの通信を対象にするため区切らない）
+     */
+    private static boolean isNetworkWait(String action) {
+        return switch (action) {
+            case "waitresponse", "レスポンス待機", "waitrequest", "リクエスト待機", "networkidle", "通信待機" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * URLが一致するレスポンスを待機（直前のアクション中に届いたものも対象）
+     * 
+     * @param urlPattern URLのglob（ワイルドカードが無ければ部分一致）
+     * @param status     期待するステータス（省略可）
+     */
+    private void waitForResponse(String urlPattern, String status) {
+        Integer expectedStatus = status == null || status.trim().isEmpty() ? null : Integer.parseInt(status.trim());
+        network.awaitResponse(page, urlPattern, expectedStatus, budgeted(config.getTimeout()));
+    }
+
+    /**
+     * URLが一致するリクエストの送信を待機（直前のアクション中に送信されたものも対象）
+     */
+    private void waitForRequest(String urlPattern) {
+        network.awaitRequest(page, urlPattern, budgeted(config.getTimeout()));
+    }
+
+    /**
+     * 通信中のリクエストが無い状態が指定時間続くまで待機
+     * 
+     * @param quietMillis 通信が無い状態が続く時間（ms、省略時は500）
+     */
+    private void waitForNetworkIdle(String quietMillis) {
+        long quiet = quietMillis == null || quietMillis.trim().isEmpty() ? 500 : Long.parseLong(quietMillis.trim());
+        network.awaitIdle(page, quiet, budgeted(config.getTimeout()));
+    }
+
+    /**
+     * ページ内の時計を進める（時計制御アクションまたは clock.fake=true が前提）
+     * 
+     * @param duration 進める時間（例: 5m, 30s, 1h30m, 5分）
+     */
+    private void fastForward(String duration) {
+        FakeClock.fastForward(page, FakeClock.parseDuration(duration));
+    }
+
     /**
      * 要素の内容を確認
+     *
+     * 条件が成立するまで自動リトライし（最大 assert.timeout ミリ秒）、成立した時点で即座に戻る。
      */
     public void verify(String element, String expectedValue) {
-        String actualValue;
-        if (element.toLowerCase().contains("title")) {
-            actualValue = page.title();
-        } else if (element.toLowerCase().contains("url")) {
-            actualValue = page.url();
-        } else {
-            actualValue = page.locator(element).textContent();
+        double assertTimeout = budgeted(this.assertTimeout);
+        java.util.regex.Pattern contains = java.util.regex.Pattern.compile(escapeRegex(expectedValue));
+        try {
+            if (element.toLowerCase().contains("title")) {
+                assertThat(DriverCallStats.unwrap(page)).hasTitle(contains, new PageAssertions.HasTitleOptions().setTimeout(assertTimeout));
+            } else if (element.toLowerCase().contains("url")) {
+                assertThat(DriverCallStats.unwrap(page)).hasURL(contains, new PageAssertions.HasURLOptions().setTimeout(assertTimeout));
+            } else {
+                assertThat(DriverCallStats.unwrap(getLocator(element, assertTimeout))).containsText(expectedValue,
+                        new LocatorAssertions.ContainsTextOptions().setTimeout(assertTimeout));
+            }
+        } catch (AssertionError | com.microsoft.playwright.TimeoutError e) {
+            // 全フレーム探索で要素が見つからない場合も検証の失敗として扱う
+            throw new AssertionError("Verification failed: " + element + " does not contain '" + expectedValue
+                    + "' within " + (long) assertTimeout + "ms", e);
         }
+        logger.info("Verification passed: " + element + " contains '" + expectedValue + "'");
+    }
 
-        if (actualValue != null && actualValue.contains(expectedValue)) {
-            logger.info("Verification passed: " + element + " contains '" + expectedValue + "'");
-        } else {
-            throw new AssertionError("Verification failed: " + element + " does not contain '" + expectedValue + "'");
-        }
+    /**
+     * 正規表現の特殊文字をエスケープ（ブラウザ側のJavaScript正規表現でも解釈できる形式）
+     */
+    private static String escapeRegex(String text) {
+        return text.replaceAll("[\\\\^$.|?*+()\\[\\]{}/]", "\\\\$0");
     }
 
     /**
@@ -850,63 +1408,138 @@ public class TestActionExecutor {
         logger.info("Switched back to main frame");
     }
 
+    /**
+     * 全フレーム探索モードを切り替える
+     * 
+     * @param mode on/off（省略時は on）
+     */
+    private void setSearchAllFrames(String mode) {
+        String value = mode == null ? "" : mode.trim().toLowerCase();
+        searchAllFrames = !(value.equals("off") || value.equals("false") || value.equals("オフ") || value.equals("無効"));
+        frameSearch.clear();
+        logger.info("Search all frames: " + (searchAllFrames ? "on" : "off"));
+    }
+
     /**
      * 現在のページまたはフレームでロケータを取得
+     * 
+     * 全フレーム探索モードではメインフレームと全ての子フレームから要素を含むフレームを探す。
      */
     private com.microsoft.playwright.Locator getLocator(String selector) {
+        return getLocator(selector, budgeted(config.getTimeout()));
+    }
+
+    /**
+     * @param timeout 全フレーム探索モードで要素を含むフレームを探す最大時間（ms）
+     */
+    private com.microsoft.playwright.Locator getLocator(String selector, double timeout) {
         if (currentIframeSelector != null) {
             // iframe内の要素にアクセス
             return page.frameLocator(currentIframeSelector).locator(selector);
         }
+        if (searchAllFrames) {
+            return frameSearch.locate(page, selector, timeout);
+        }
         return page.locator(selector);
     }
 
+    /**
+     * 現在のページまたはフレームでテキストから要素を取得
+     */
+    private com.microsoft.playwright.Locator getByText(String text) {
+        if (currentIframeSelector != null) {
+            return page.frameLocator(currentIframeSelector).getByText(text);
+        }
+        if (searchAllFrames) {
+            return frameSearch.locate(page, FrameSearch.Query.text(text), budgeted(config.getTimeout()));
+        }
+        return page.getByText(text);
+    }
+
+    /**
+     * 現在のページまたはフレームでラベルから要素を取得
+     */
+    private com.microsoft.playwright.Locator getByLabel(String label) {
+        if (currentIframeSelector != null) {
+            return page.frameLocator(currentIframeSelector).getByLabel(label);
+        }
+        if (searchAllFrames) {
+            return frameSearch.locate(page, FrameSearch.Query.label(label), budgeted(config.getTimeout()));
+        }
+        return page.getByLabel(label);
+    }
+
+    /**
+     * 複数手法での探索の候補を取得（全フレーム探索モードでは全フレームを1回だけ探索し、待機しない）
+     */
+    private com.microsoft.playwright.Locator candidate(FrameSearch.Query query) {
+        if (searchAllFrames && currentIframeSelector == null) {
+            return frameSearch.locate(page, query, 0);
+        }
+        return query.inPage().apply(page);
+    }
+
+    /**
+     * 操作中のウィンドウがアプリ側で閉じられていた場合は、その前に開かれたウィンドウに切り替える
+     */
+    private void ensureCurrentWindowOpen() {
+        if (!page.isClosed()) {
+            return;
+        }
+        Page fallback = windows.previousOpenWindow(page);
+        if (fallback == null) {
+            throw new RuntimeException("All windows have been closed");
+        }
+        logger.info("Current window was closed by the application, switching to window index: " + windows.indexOf(fallback));
+        switchTo(fallback);
+    }
+
+    /**
+     * 操作に使う Page（driver.callStats が有効な場合はドライバー呼び出しを数えるラッパー）
+     */
+    private Page attach(Page target) {
+        return config.isDriverCallStatsEnabled() ? DriverCallStats.instrument(target) : target;
+    }
+
+    /**
+     * 操作対象のウィンドウを切り替える（iframeの選択はリセット）
+     */
+    private void switchTo(Page target) {
+        this.page = attach(target);
+        windows.claim(target);
+        currentIframeSelector = null;
+        frameSearch.clear();
+    }
+
     /**
      * 新しく開いたウィンドウに切り替える
      * 
+     * 直前のアクションで既に開いていればそのウィンドウに、まだ開いていなければ開かれるまで待機して切り替える。
+     * 
      * @param expectedWindowTitle 期待するウィンドウタイトル（省略可）
      */
     private void switchToNewWindow(String expectedWindowTitle) {
         try {
-            // 新しいページ（ウィンドウ）が開かれるまで待機
-            Page newPage = page.context().waitForPage(() -> {
-                // この中では特に何もしない（新しいページが開かれるのを待つだけ）
-            });
-
-            if (newPage != null) {
-                // ウィンドウタイトルが指定されている場合は、そのタイトルを待機
-                if (expectedWindowTitle != null && !expectedWindowTitle.trim().isEmpty()) {
-                    waitForWindowTitle(newPage, expectedWindowTitle);
+            Page newPage;
+            try (Span span = Tracer.start("window-wait")) {
+                try {
+                    newPage = windows.awaitNewWindow(budgeted(config.getTimeout()));
+                } catch (RuntimeException e) {
+                    span.fail(e);
+                    throw e;
                 }
-                
-                windowHandles.add(newPage);
-                this.page = newPage;
-                currentWindowIndex = windowHandles.size() - 1;
-                currentIframeSelector = null; // 新しいウィンドウではiframeをリセット
-                logger.info("Switched to new window (index: " + currentWindowIndex + ", title: " + newPage.title() + ")");
-            } else {
-                throw new RuntimeException("No new window was opened");
+                span.setAttribute("url", newPage.url());
             }
-        } catch (Exception e) {
-            // 既に開いているウィンドウがある場合の処理
-            java.util.List<Page> allPages = page.context().pages();
-            if (allPages.size() > windowHandles.size()) {
-                // 新しいページが見つかった
-                Page newPage = allPages.get(allPages.size() - 1);
-                
-                // ウィンドウタイトルが指定されている場合は、そのタイトルを待機
-                if (expectedWindowTitle != null && !expectedWindowTitle.trim().isEmpty()) {
-                    waitForWindowTitle(newPage, expectedWindowTitle);
-                }
-                
-                windowHandles.add(newPage);
-                this.page = newPage;
-                currentWindowIndex = windowHandles.size() - 1;
-                currentIframeSelector = null;
-                logger.info("Switched to new window (index: " + currentWindowIndex + ")");
-            } else {
-                throw new RuntimeException("Failed to switch to new window", e);
+
+            // ウィンドウタイトルが指定されている場合は、そのタイトルを待機
+            if (expectedWindowTitle != null && !expectedWindowTitle.trim().isEmpty()) {
+                waitForWindowTitle(newPage, expectedWindowTitle);
             }
+
+            switchTo(newPage);
+            logger.info("Switched to new window (index: " + windows.indexOf(newPage) + ", title: " + newPage.title() + ")");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to switch to new window", e);
         }
     }
 
@@ -920,34 +1553,12 @@ public class TestActionExecutor {
                 return;
             }
 
-            // 数字の場合はインデックスとして処理
-            try {
-                int index = Integer.parseInt(windowIdentifier.trim());
-                if (index >= 0 && index < windowHandles.size()) {
-                    this.page = windowHandles.get(index);
-                    currentWindowIndex = index;
-                    currentIframeSelector = null;
-                    logger.info("Switched to window index: " + index);
-                    return;
-                }
-            } catch (NumberFormatException e) {
-                // 数字ではない場合はタイトルとして処理
+            int index = findWindowIndex(windowIdentifier);
+            if (index == -1) {
+                throw new RuntimeException("Window not found: " + windowIdentifier);
             }
-
-            // タイトルで検索
-            for (int i = 0; i < windowHandles.size(); i++) {
-                Page windowPage = windowHandles.get(i);
-                String title = windowPage.title();
-                if (title != null && title.toLowerCase().contains(windowIdentifier.toLowerCase())) {
-                    this.page = windowPage;
-                    currentWindowIndex = i;
-                    currentIframeSelector = null;
-                    logger.info("Switched to window with title containing: " + windowIdentifier);
-                    return;
-                }
-            }
-
-            throw new RuntimeException("Window not found: " + windowIdentifier);
+            switchTo(windows.windows().get(index));
+            logger.info("Switched to window: " + windowIdentifier + " (index: " + index + ")");
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to switch to window: " + windowIdentifier, e);
@@ -961,43 +1572,34 @@ public class TestActionExecutor {
      */
     private void closeWindow(String windowIdentifier) {
         try {
-            if (windowHandles.size() <= 1) {
+            java.util.List<Page> openWindows = windows.windows();
+            if (openWindows.size() <= 1) {
                 logger.info("Cannot close the last window");
                 return;
             }
 
-            int windowIndexToClose = currentWindowIndex; // デフォルトは現在のウィンドウ
+            // ウィンドウ一覧のページと比べるため、driver.callStats のプロキシではなく元のページを使う
+            Page current = DriverCallStats.unwrap(page);
+            Page windowToClose = current; // デフォルトは現在のウィンドウ
 
             // ウィンドウ識別子が指定されている場合は、そのウィンドウを検索
             if (windowIdentifier != null && !windowIdentifier.trim().isEmpty()) {
-                windowIndexToClose = findWindowIndex(windowIdentifier);
+                int windowIndexToClose = findWindowIndex(windowIdentifier);
                 if (windowIndexToClose == -1) {
                     throw new RuntimeException("Window not found: " + windowIdentifier);
                 }
+                windowToClose = openWindows.get(windowIndexToClose);
             }
 
-            // 指定されたウィンドウを閉じる
-            Page windowToClose = windowHandles.get(windowIndexToClose);
+            // 閉じたウィンドウは close イベントで一覧から外れる
             windowToClose.close();
 
-            // ウィンドウリストから削除
-            windowHandles.remove(windowIndexToClose);
-
             // 現在のウィンドウが閉じられた場合は、前のウィンドウに切り替え
-            if (windowIndexToClose == currentWindowIndex) {
-                if (currentWindowIndex > 0) {
-                    currentWindowIndex--;
-                } else {
-                    currentWindowIndex = 0;
-                }
-                this.page = windowHandles.get(currentWindowIndex);
-                currentIframeSelector = null;
-            } else if (windowIndexToClose < currentWindowIndex) {
-                // 現在のウィンドウより前のウィンドウが閉じられた場合はインデックスを調整
-                currentWindowIndex--;
+            if (windowToClose == current) {
+                switchTo(windows.previousOpenWindow(windowToClose));
             }
 
-            logger.info("Closed window: " + windowIdentifier + ", current window index: " + currentWindowIndex);
+            logger.info("Closed window: " + windowIdentifier + ", current window index: " + windows.indexOf(page));
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to close window: " + windowIdentifier, e);
@@ -1011,10 +1613,12 @@ public class TestActionExecutor {
      * @return ウィンドウインデックス（見つからない場合は-1）
      */
     private int findWindowIndex(String windowIdentifier) {
+        java.util.List<Page> openWindows = windows.windows();
+
         // 数字の場合はインデックスとして処理
         try {
             int index = Integer.parseInt(windowIdentifier.trim());
-            if (index >= 0 && index < windowHandles.size()) {
+            if (index >= 0 && index < openWindows.size()) {
                 return index;
             }
         } catch (NumberFormatException e) {
@@ -1022,9 +1626,8 @@ public class TestActionExecutor {
         }
 
         // タイトルで検索
-        for (int i = 0; i < windowHandles.size(); i++) {
-            Page windowPage = windowHandles.get(i);
-            String title = windowPage.title();
+        for (int i = 0; i < openWindows.size(); i++) {
+            String title = openWindows.get(i).title();
             if (title != null && title.toLowerCase().contains(windowIdentifier.toLowerCase())) {
                 return i;
             }
@@ -1041,26 +1644,16 @@ public class TestActionExecutor {
     }
 
     /**
-     * 指定されたウィンドウタイトルを待機する
+     * 指定されたウィンドウタイトルを待機する（タイトルの変化をブラウザ内で監視）
      * 
      * @param targetPage 対象のページ
      * @param expectedTitle 期待するタイトル（部分一致）
      */
     private void waitForWindowTitle(Page targetPage, String expectedTitle) {
-        try {
-            // 最大10秒間、ウィンドウタイトルを待機
-            for (int i = 0; i < 100; i++) {
-                String currentTitle = targetPage.title();
-                if (currentTitle != null && currentTitle.toLowerCase().contains(expectedTitle.toLowerCase())) {
-                    logger.info("Window title matched: " + currentTitle);
-                    return;
-                }
-                Thread.sleep(100); // 100ms待機
-            }
+        if (WaitUtils.waitForTitleContains(targetPage, expectedTitle, budgeted(WINDOW_TITLE_TIMEOUT))) {
+            logger.info("Window title matched: " + targetPage.title());
+        } else {
             logger.warn("Window title did not match expected: " + expectedTitle + ", actual: " + targetPage.title());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Interrupted while waiting for window title", e);
         }
     }
 }
@@ -0,0 +1,55 @@
+package com.example.playwright.utils;
+
+/**
+ * シナリオの制限時間（残り時間を各ステップ・各操作の待機時間の上限にする）
+ */
+public final class TimeBudget {
+    private static final TimeBudget UNLIMITED = new TimeBudget(Long.MAX_VALUE);
+    // 期限（System.nanoTime 基準、Long.MAX_VALUE は無制限）
+    private final long deadlineNanos;
+
+    private TimeBudget(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 制限なし
+     */
+    public static TimeBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * 現在から指定時間後を期限とする（0以下は既に期限切れ）
+     */
+    public static TimeBudget ofMillis(long millis) {
+        return new TimeBudget(System.nanoTime() + millis * 1_000_000);
+    }
+
+    public boolean isUnlimited() {
+        return deadlineNanos == Long.MAX_VALUE;
+    }
+
+    /**
+     * 残り時間（ms、無制限の場合は Long.MAX_VALUE）
+     */
+    public long remainingMillis() {
+        if (isUnlimited()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * 指定の待機時間を残り時間で切り詰める
+     *
+     * @throws IllegalStateException 既に期限切れの場合
+     */
+    public double cap(double timeoutMillis) {
+        long remaining = remainingMillis();
+        if (remaining <= 0) {
+            throw new IllegalStateException("Scenario time budget exhausted");
+        }
+        return Math.min(timeoutMillis, remaining);
+    }
+}
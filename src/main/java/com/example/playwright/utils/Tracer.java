@@ -0,0 +1,85 @@
+package com.example.playwright.utils;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * シナリオ・ステップ・候補の試行を入れ子の区間として記録するトレーサー
+ *
+ * 区間の親子関係はスレッドごとに管理し、start() した時点で実行中の区間が親になる。
+ * 出力先（install()）が無い場合は何も記録しないため、計測しない実行への影響は無い。
+ *
+ * <pre>
+ * try (Span span = Tracer.start("step").setAttribute("action", action)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class Tracer {
+    private static volatile OtlpJsonExporter exporter;
+    private static final ThreadLocal<Deque<Span>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private Tracer() {
+    }
+
+    /**
+     * 終了した区間の出力先を設定（null で記録を停止）
+     */
+    public static void install(OtlpJsonExporter target) {
+        exporter = target;
+    }
+
+    /**
+     * 区間をファイルに書き出す出力先を作成して設定（閉じると記録を停止）
+     */
+    public static OtlpJsonExporter open(Path file) {
+        OtlpJsonExporter target = new OtlpJsonExporter(file, "java-playwright-autotest");
+        install(target);
+        return target;
+    }
+
+    /**
+     * 出力先が閉じられたときの解除（別の出力先に切り替わっていれば何もしない）
+     */
+    static synchronized void uninstall(OtlpJsonExporter target) {
+        if (exporter == target) {
+            exporter = null;
+        }
+    }
+
+    /**
+     * 区間を開始（実行中の区間があればその子、無ければ新しいトレースの起点）
+     */
+    public static Span start(String name) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        Deque<Span> active = ACTIVE.get();
+        Span parent = active.peek();
+        Span span = new Span(name, parent != null ? parent.traceId() : randomId(16), randomId(8),
+                parent != null ? parent.spanId() : null);
+        active.push(span);
+        return span;
+    }
+
+    /**
+     * 区間の終了（Span.close() から呼ばれる）
+     */
+    static void end(Span span) {
+        Deque<Span> active = ACTIVE.get();
+        active.remove(span);
+        OtlpJsonExporter target = exporter;
+        if (target != null) {
+            target.export(span);
+        }
+    }
+
+    private static String randomId(int bytes) {
+        byte[] id = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+}
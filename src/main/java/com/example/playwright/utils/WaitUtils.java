@@ -0,0 +1,105 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * 待機処理のユーティリティクラス
+ */
+public class WaitUtils {
+    private static final Logger logger = LoggerFactory.getLogger(WaitUtils.class);
+
+    private WaitUtils() {
+    }
+
+    /**
+     * 複数の候補のうち、いずれか1つが指定状態になるまで待機（候補を同時に監視）
+     *
+     * 候補を1つに合成したLocatorで1回だけ待機するため、候補数に関係なく最大待機時間は timeout となる。
+     * 複数の候補が同時に条件を満たした場合はリストの先頭に近いものを返す。
+     * VISIBLE の場合は各候補を表示中の要素に絞ってから合成するため、先に一致した要素が非表示でも
+     * 他の表示中の要素を待ち続けることはない（見つかった候補の操作には visible() を使う）。
+     *
+     * @param candidates 候補のLocator（優先順）
+     * @param state      待機する状態（VISIBLE または ATTACHED）
+     * @param timeout    最大待機時間（ms）
+     * @return 条件を満たした候補のインデックス（タイムアウト時は -1）
+     */
+    public static int waitForFirst(List<Locator> candidates, WaitForSelectorState state, double timeout) {
+        if (candidates.isEmpty()) {
+            return -1;
+        }
+        List<Locator> targets = state == WaitForSelectorState.VISIBLE
+                ? candidates.stream().map(WaitUtils::visible).toList()
+                : candidates;
+        Locator any = targets.get(0);
+        for (int i = 1; i < targets.size(); i++) {
+            any = any.or(targets.get(i));
+        }
+
+        long deadline = System.currentTimeMillis() + (long) timeout;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return -1;
+            }
+            try {
+                any.first().waitFor(new Locator.WaitForOptions().setState(state).setTimeout(remaining));
+            } catch (PlaywrightException e) {
+                logger.debug("No candidate reached state {} within {}ms", state, (long) timeout);
+                return -1;
+            }
+            // どの候補が条件を満たしたかを優先順に判定
+            for (int i = 0; i < targets.size(); i++) {
+                if (targets.get(i).count() > 0) {
+                    return i;
+                }
+            }
+            // 判定までの間に状態が変わった場合は再度待機
+        }
+    }
+
+    /**
+     * 表示中の要素に絞ったLocator（locator >> visible=true）
+     */
+    public static Locator visible(Locator locator) {
+        return locator.locator("visible=true");
+    }
+
+    /**
+     * いずれか1つの候補が表示されるまで待機
+     *
+     * @see #waitForFirst(List, WaitForSelectorState, double)
+     */
+    public static int waitForFirstVisible(List<Locator> candidates, double timeout) {
+        return waitForFirst(candidates, WaitForSelectorState.VISIBLE, timeout);
+    }
+
+    /**
+     * ページタイトルに指定文字列が含まれるまで待機（大文字小文字を区別しない）
+     *
+     * 判定はブラウザ内で描画フレームごとに行うため、Java側でのポーリングは発生しない。
+     * 待機中にページ遷移してもそのまま遷移先のタイトルで判定を続ける。
+     *
+     * @param page          対象のページ
+     * @param expectedTitle 期待するタイトル（部分一致）
+     * @param timeout       最大待機時間（ms）
+     * @return タイムアウトまでに一致した場合は true
+     */
+    public static boolean waitForTitleContains(Page page, String expectedTitle, double timeout) {
+        try {
+            page.waitForFunction("expected => document.title.toLowerCase().includes(expected)",
+                    expectedTitle.toLowerCase(), new Page.WaitForFunctionOptions().setTimeout(timeout));
+            return true;
+        } catch (PlaywrightException e) {
+            logger.debug("Title did not contain '{}' within {}ms", expectedTitle, (long) timeout);
+            return false;
+        }
+    }
+}
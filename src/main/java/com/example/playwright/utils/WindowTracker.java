@@ -0,0 +1,134 @@
+package com.example.playwright.utils;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ブラウザコンテキスト内のウィンドウ（ページ）をイベントで追跡する
+ *
+ * コンテキストの page イベント（window.open・target=_blank・ポップアップを含む）と
+ * 各ページの close イベントを購読し、開いている順のウィンドウ一覧を常に最新に保つ。
+ * アプリ側で閉じられたウィンドウも自動的に一覧から外れる。
+ */
+public class WindowTracker {
+    private static final Logger logger = LoggerFactory.getLogger(WindowTracker.class);
+    private final BrowserContext context;
+    // 開かれた順の全ページ（閉じたページも残し、閉じた後の切り替え先の判定に使用）
+    private final List<Page> opened = new CopyOnWriteArrayList<>();
+    // 新しく開かれ、まだ newwindow で切り替えていないページ
+    private final Deque<Page> unclaimed = new ConcurrentLinkedDeque<>();
+    // 現在のステップ・直前のステップの開始時点で開かれていたページ数
+    private volatile int stepMark;
+    private volatile int previousStepMark;
+
+    public WindowTracker(Page initialPage) {
+        this.context = initialPage.context();
+        track(initialPage, false);
+        for (Page existing : context.pages()) {
+            track(existing, false);
+        }
+        context.onPage(newPage -> track(newPage, true));
+    }
+
+    private void track(Page target, boolean isNew) {
+        if (opened.contains(target)) {
+            return;
+        }
+        opened.add(target);
+        if (isNew) {
+            unclaimed.add(target);
+            logger.info("Window opened (index: " + indexOf(target) + ")");
+        }
+        target.onClose(closed -> {
+            unclaimed.remove(closed);
+            logger.info("Window closed (remaining: " + windows().size() + ")");
+        });
+    }
+
+    /**
+     * 開いているウィンドウの一覧（開かれた順）
+     */
+    public List<Page> windows() {
+        return opened.stream().filter(p -> !p.isClosed()).toList();
+    }
+
+    /**
+     * 開いているウィンドウの中でのインデックス（閉じている場合は -1）
+     */
+    public int indexOf(Page target) {
+        return windows().indexOf(target);
+    }
+
+    /**
+     * ステップの開始を記録する（newwindow は直前のステップの開始以降に開かれたウィンドウを対象にする）
+     */
+    public void mark() {
+        previousStepMark = stepMark;
+        stepMark = opened.size();
+    }
+
+    /**
+     * ウィンドウに切り替えたことを記録する（以降の newwindow の対象から外す）
+     */
+    public void claim(Page target) {
+        unclaimed.remove(target);
+    }
+
+    /**
+     * 直前のステップの開始以降に開かれ、まだ切り替えていないウィンドウを取得（無ければ開かれるまで待機）
+     *
+     * 複数ある場合は最後に開かれたウィンドウを返す。
+     * 待機中もPlaywrightのイベントを処理し続けるため、待機開始より前に開いたウィンドウも取りこぼさない。
+     *
+     * @param timeout 最大待機時間（ms）
+     */
+    public Page awaitNewWindow(double timeout) {
+        int since = previousStepMark;
+        Page found = latestUnclaimed(since);
+        if (found == null) {
+            try {
+                context.waitForCondition(() -> latestUnclaimed(since) != null,
+                        new BrowserContext.WaitForConditionOptions().setTimeout(timeout));
+            } catch (TimeoutError e) {
+                throw new RuntimeException("No new window was opened within " + (long) timeout + "ms", e);
+            }
+            found = latestUnclaimed(since);
+        }
+        unclaimed.remove(found);
+        return found;
+    }
+
+    private Page latestUnclaimed(int since) {
+        for (int i = opened.size() - 1; i >= since; i--) {
+            Page candidate = opened.get(i);
+            if (unclaimed.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 閉じたウィンドウの代わりに操作するウィンドウ（それより前に開かれた直近のウィンドウ）
+     *
+     * @return 切り替え先のウィンドウ（開いているウィンドウが無ければ null）
+     */
+    public Page previousOpenWindow(Page closed) {
+        int index = opened.indexOf(closed);
+        for (int i = index - 1; i >= 0; i--) {
+            if (!opened.get(i).isClosed()) {
+                return opened.get(i);
+            }
+        }
+        List<Page> open = windows();
+        return open.isEmpty() ? null : open.get(0);
+    }
+}
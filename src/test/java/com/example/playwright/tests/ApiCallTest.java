@@ -0,0 +1,38 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.ScenarioTemplate;
+import com.example.playwright.utils.ApiCall;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * api アクションの解析とレスポンス値の取り出しのテスト
+ */
+public class ApiCallTest {
+
+    @Test
+    public void testSelectSupportsJsonPathAndDottedIndexes() throws Exception {
+        JsonNode root = new ObjectMapper().readTree("{\"id\":42,\"data\":{\"items\":[{\"sku\":\"A1\"},{\"sku\":\"B2\"}]}}");
+        assertEquals("42", ApiCall.select(root, "$.id").asText());
+        assertEquals("B2", ApiCall.select(root, "$.data.items[1].sku").asText());
+        assertEquals("A1", ApiCall.select(root, "data.items.0.sku").asText());
+        assertNull(ApiCall.select(root, "$.missing.field"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidExpectationFails() {
+        ApiCall.parse("POST /api/carts", "created; cartId=$.id");
+    }
+
+    @Test
+    public void testUnqualifiedUnknownPlaceholderIsLeftForScenarioVariables() {
+        assertEquals("/api/carts/${cartId}",
+                ScenarioTemplate.resolve("/api/carts/${cartId}", "customer", Map.of("email", "a@example.com")));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.playwright.tests;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import org.junit.Assume;
+import org.junit.rules.ExternalResource;
+
+import java.util.Map;
+
+/**
+ * テストクラス単位で共有するブラウザ（@ClassRule で使用）
+ *
+ * 最初に newPage() を呼んだ時点で起動し、起動できない環境（ブラウザ未インストール等）ではそのテストをスキップする。
+ * ブラウザを使わないテストは起動の可否に関係なく実行される。
+ */
+public class BrowserResource extends ExternalResource {
+    private Playwright playwright;
+    private Browser browser;
+    private RuntimeException launchFailure;
+
+    /**
+     * 新しいコンテキストのページを開く（閉じる場合は page.context().close()）
+     */
+    public Page newPage() {
+        if (browser == null && launchFailure == null) {
+            try {
+                playwright = Playwright.create(new Playwright.CreateOptions()
+                        .setEnv(Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1")));
+                browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+            } catch (RuntimeException e) {
+                launchFailure = e;
+                after();
+            }
+        }
+        Assume.assumeNoException("ブラウザを起動できないためスキップします", launchFailure);
+        return browser.newContext().newPage();
+    }
+
+    @Override
+    protected void after() {
+        if (browser != null) {
+            browser.close();
+            browser = null;
+        }
+        if (playwright != null) {
+            playwright.close();
+            playwright = null;
+        }
+    }
+}
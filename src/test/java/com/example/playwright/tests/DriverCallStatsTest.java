@@ -0,0 +1,77 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.DriverCallStats;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ドライバー呼び出しのステップごとの集計のテスト（Page・Locator はスタブ）
+ */
+public class DriverCallStatsTest {
+
+    @After
+    public void tearDown() {
+        DriverCallStats.reset();
+    }
+
+    @Test
+    public void testCallsAreCountedPerStepAndBuildersAreSkipped() {
+        Page page = DriverCallStats.instrument(stubPage());
+
+        DriverCallStats.beginStep("クリック ログイン");
+        for (int i = 0; i < 2; i++) {
+            Locator button = page.locator("text=ログイン");
+            if (button.count() > 0) {
+                page.locator("text=ログイン").click();
+            }
+        }
+        DriverCallStats.endStep();
+        DriverCallStats.beginStep("入力 #name");
+        page.locator("#name").count();
+        DriverCallStats.endStep();
+
+        String[] lines = DriverCallStats.report(10).split("\\R");
+        assertEquals(2, lines.length);
+        String click = lines[0].startsWith("クリック") ? lines[0] : lines[1];
+        assertTrue(click, click.contains("実行 1 回, 呼び出し 4 回"));
+        assertTrue(click, click.contains("Locator.click 2"));
+        assertTrue(click, click.contains("Locator.count 2"));
+    }
+
+    @Test
+    public void testUnwrapReturnsOriginalObjects() {
+        Page original = stubPage();
+        Page page = DriverCallStats.instrument(original);
+
+        assertSame(original, DriverCallStats.unwrap(page));
+        assertEquals(page, original);
+        assertTrue(DriverCallStats.unwrap(page.locator("#id")).toString().startsWith("stub-locator"));
+    }
+
+    private static Page stubPage() {
+        Locator locator = (Locator) Proxy.newProxyInstance(Locator.class.getClassLoader(), new Class<?>[] { Locator.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "count" -> 1;
+                    case "toString" -> "stub-locator";
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> 0;
+                    default -> null;
+                });
+        return (Page) Proxy.newProxyInstance(Page.class.getClassLoader(), new Class<?>[] { Page.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "locator" -> locator;
+                    case "toString" -> "stub-page";
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> 0;
+                    default -> null;
+                });
+    }
+}
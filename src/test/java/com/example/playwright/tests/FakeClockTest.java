@@ -0,0 +1,69 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.FakeClock;
+import com.microsoft.playwright.Page;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 時間経過アクションの時間指定の解析と、時計を進めた際のタイマー実行のテスト
+ */
+public class FakeClockTest {
+
+    @ClassRule
+    public static final BrowserResource BROWSER = new BrowserResource();
+
+    @Test
+    public void testParseDurationUnits() {
+        assertEquals(300_000, FakeClock.parseDuration("5m"));
+        assertEquals(5_400_000, FakeClock.parseDuration("1h30m"));
+        assertEquals(500, FakeClock.parseDuration("500ms"));
+        assertEquals(1_500, FakeClock.parseDuration("1.5s"));
+        assertEquals(90_000, FakeClock.parseDuration("1分30秒"));
+        assertEquals(250, FakeClock.parseDuration("250"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDurationFails() {
+        FakeClock.parseDuration("5 minutes");
+    }
+
+    @Test(timeout = 60000)
+    public void testIntervalFiresOncePerElapsedPeriodInOrder() {
+        Page page = BROWSER.newPage();
+        try {
+            FakeClock.install(page);
+            page.evaluate("() => {"
+                    + " window.log = [];"
+                    + " setInterval(() => log.push('poll'), 60000);"
+                    + " setTimeout(() => log.push('timeout'), 150000);"
+                    + " setTimeout(() => log.push('later'), 600000); }");
+
+            assertEquals(6, FakeClock.fastForward(page, 300000));
+            assertEquals(List.of("poll", "poll", "timeout", "poll", "poll", "poll"), page.evaluate("() => log"));
+
+            // 次の周期は進めた後の時刻から数える（残りの1分で1回）
+            assertEquals(1, FakeClock.fastForward(page, 60000));
+        } finally {
+            page.context().close();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testTimerRunsAreCappedForShortIntervals() {
+        Page page = BROWSER.newPage();
+        try {
+            FakeClock.install(page);
+            page.evaluate("() => { window.count = 0; setInterval(() => count++, 1); }");
+
+            assertEquals(1000, FakeClock.fastForward(page, 3_600_000));
+            assertEquals(1000, ((Number) page.evaluate("() => count")).intValue());
+        } finally {
+            page.context().close();
+        }
+    }
+}
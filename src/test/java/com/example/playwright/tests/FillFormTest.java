@@ -0,0 +1,75 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.TestActionExecutor;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * フォーム一括入力のテスト（ページ内の1回のスクリプトで解決・入力する項目）
+ */
+public class FillFormTest extends PageTestSupport {
+
+    private static final TestConfig CONFIG = TestConfig.of(Map.of("playwright.timeout", "2000"));
+
+    private static final String FORM = "<form id='f'>"
+            + "<input placeholder='氏名' id='name'>"
+            + "<label for='mail'>メール</label><input id='mail'>"
+            + "<select name='country'><option value='jp'>Japan</option><option value='us'>USA</option></select>"
+            + "<input type='checkbox' id='agree'>"
+            + "<input type='radio' name='plan' value='basic' checked>"
+            + "<input type='radio' name='plan' value='premium'>"
+            + "<label><input type='radio' name='pay' value='c'>カード</label>"
+            + "<label><input type='radio' name='pay' value='b'>振込</label>"
+            + "</form>"
+            + "<script>window.events = [];"
+            + " document.getElementById('f').addEventListener('change', e => events.push(e.target.name || e.target.id));"
+            + "</script>";
+
+    @Test(timeout = 60000)
+    public void testFieldsAreFilledInOneBatch() {
+        page.setContent(FORM);
+        TestActionExecutor executor = new TestActionExecutor(page, CONFIG);
+
+        executor.executeAction("fillform", "#f", "氏名=山田太郎;メール=taro@example.com;country=USA;#agree=はい");
+
+        assertEquals("山田太郎", page.inputValue("#name"));
+        assertEquals("taro@example.com", page.inputValue("#mail"));
+        assertEquals("us", page.inputValue("select"));
+        assertTrue(page.isChecked("#agree"));
+        assertEquals(List.of("name", "mail", "country", "agree"), page.evaluate("() => events"));
+    }
+
+    @Test(timeout = 60000)
+    public void testRadioIsSelectedByValueOrLabelWithinItsGroup() {
+        page.setContent(FORM);
+        TestActionExecutor executor = new TestActionExecutor(page, CONFIG);
+
+        executor.executeAction("fillform", "#f", "plan=premium;pay=振込");
+
+        assertTrue(page.isChecked("[name=plan][value=premium]"));
+        assertEquals(false, page.isChecked("[name=plan][value=basic]"));
+        assertTrue(page.isChecked("[name=pay][value=b]"));
+        assertEquals(false, page.isChecked("[name=pay][value=c]"));
+    }
+
+    @Test(timeout = 60000)
+    public void testRadioWithoutMatchingValueIsLeftToTheFallback() {
+        page.setContent(FORM);
+        TestActionExecutor executor = new TestActionExecutor(page, CONFIG);
+
+        try {
+            executor.executeAction("fillform", "#f", "plan=gold");
+            fail("unknown radio value was accepted");
+        } catch (RuntimeException e) {
+            // 一括入力では選択せず、1項目ずつの入力でも入力できないため失敗する
+        }
+        assertTrue(page.isChecked("[name=plan][value=basic]"));
+    }
+}
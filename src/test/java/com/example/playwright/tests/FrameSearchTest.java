@@ -0,0 +1,76 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.FrameSearch;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.TimeoutError;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 全フレーム探索のテスト（入れ子の iframe を srcdoc で用意する）
+ */
+public class FrameSearchTest extends PageTestSupport {
+
+    private static final String NESTED = "<button id='top'>top</button>"
+            + "<iframe srcdoc=\"<p>first</p>\"></iframe>"
+            + "<iframe srcdoc=\"<iframe srcdoc='&lt;button id=inner&gt;inner&lt;/button&gt;'></iframe>\"></iframe>";
+
+    private void waitForFrames() {
+        page.waitForFunction("() => document.querySelectorAll('iframe')[1].contentDocument"
+                + ".querySelector('iframe').contentDocument.querySelector('#inner')");
+    }
+
+    @Test(timeout = 60000)
+    public void testElementInNestedFrameIsFound() {
+        page.setContent(NESTED);
+        waitForFrames();
+        FrameSearch search = new FrameSearch();
+
+        Locator inner = search.locate(page, "#inner", 1000);
+        assertEquals("inner", inner.textContent());
+        assertEquals("top", search.locate(page, "#top", 1000).textContent());
+        assertEquals("inner", search.locate(page, FrameSearch.Query.text("inner"), 1000).textContent());
+    }
+
+    @Test(timeout = 60000)
+    public void testElementAddedLaterIsFoundWithoutWaitingForTheTimeout() {
+        page.setContent(NESTED);
+        waitForFrames();
+        page.evaluate("() => setTimeout(() => {"
+                + " const doc = document.querySelectorAll('iframe')[0].contentDocument;"
+                + " doc.body.insertAdjacentHTML('beforeend', '<a id=late>late</a>'); }, 300)");
+
+        long start = System.currentTimeMillis();
+        Locator late = new FrameSearch().locate(page, "#late", 10000);
+        assertEquals("late", late.textContent());
+        assertTrue(String.valueOf(System.currentTimeMillis() - start), System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test(timeout = 60000)
+    public void testMissingElementFailsWithinTheTimeout() {
+        page.setContent(NESTED);
+        waitForFrames();
+
+        long start = System.currentTimeMillis();
+        try {
+            new FrameSearch().locate(page, "#missing", 1500);
+            fail("missing element was located");
+        } catch (TimeoutError e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("#missing"));
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue(String.valueOf(elapsed), elapsed >= 1500 && elapsed < 3000);
+    }
+
+    @Test(timeout = 60000)
+    public void testZeroTimeoutReturnsMainFrameLocatorWhenNotFound() {
+        page.setContent(NESTED);
+        waitForFrames();
+
+        Locator missing = new FrameSearch().locate(page, "#missing", 0);
+        assertEquals(0, missing.count());
+    }
+}
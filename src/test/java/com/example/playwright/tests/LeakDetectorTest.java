@@ -0,0 +1,54 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.LeakDetector;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 繰り返し実行でのメモリ増加の判定のテスト
+ */
+public class LeakDetectorTest {
+
+    /**
+     * 1回分のサンプル（ステップごとの値）を追加して回を終える
+     */
+    private static void iteration(LeakDetector detector, double[] heap, double nodes) {
+        for (double value : heap) {
+            detector.add(Map.of("JSHeapUsedSize", value, "Nodes", nodes));
+        }
+        detector.endIteration();
+    }
+
+    @Test
+    public void testGrowingNodeFloorIsReportedButGcNoiseIsNot() {
+        LeakDetector detector = new LeakDetector(4);
+        // ヒープは各回で上下するが床（最小値）は横ばい、DOMノードは毎回増える
+        iteration(detector, new double[] { 10_000_000, 18_000_000, 12_000_000 }, 1200);
+        iteration(detector, new double[] { 25_000_000, 10_100_000 }, 1250);
+        iteration(detector, new double[] { 9_900_000, 30_000_000 }, 1300);
+        iteration(detector, new double[] { 10_200_000, 14_000_000 }, 1350);
+
+        List<String> suspects = detector.suspects();
+        assertEquals(1, suspects.size());
+        assertTrue(suspects.get(0), suspects.get(0).startsWith("Nodes: 直近 4 回の床が増え続けている (1200 → 1350, +12.5%)"));
+        assertEquals(4, detector.iterations());
+    }
+
+    @Test
+    public void testOnlyRecentWindowIsConsidered() {
+        LeakDetector detector = new LeakDetector(3);
+        iteration(detector, new double[] { 10 }, 100);
+        iteration(detector, new double[] { 11 }, 100);
+        assertTrue(detector.suspects().isEmpty());
+        iteration(detector, new double[] { 12 }, 100);
+        assertEquals(List.of("JSHeapUsedSize: 直近 3 回の床が増え続けている (10 → 12, +20.0%)"), detector.suspects());
+        // 一度下がれば疑いは解消する
+        iteration(detector, new double[] { 9 }, 100);
+        assertTrue(detector.suspects().isEmpty());
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.LatencyHistogram;
+import com.example.playwright.runner.LoadProfile;
+import com.example.playwright.runner.LoadReport;
+import com.example.playwright.runner.LoadRunner;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioStep;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 負荷試験ランナーのテスト（ブラウザの代わりにローカルのスタブサーバーへ HTTP で要求するセッションを使う）
+ */
+public class LoadRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private static final ScenarioStep TOP = new ScenarioStep("1", "遷移", "/top", "", "", "");
+    private static final ScenarioStep SEARCH = new ScenarioStep("2", "遷移", "/search", "", "", "");
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            // 3回に1回の検索はエラーを返す
+            boolean fail = exchange.getRequestURI().getPath().equals("/search") && hits.incrementAndGet() % 3 == 0;
+            exchange.sendResponseHeaders(fail ? 500 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testStepsAreMeasuredPerUserAndIteration() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        LoadRunner.SessionFactory sessions = () -> new LoadRunner.Session() {
+            @Override
+            public void execute(ScenarioStep step) {
+                try {
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + step.element())).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        LoadReport report = new LoadRunner(new LoadProfile(3, 0, 4, 20, 1))
+                .run(new Scenario("search.csv", List.of(TOP, SEARCH)), sessions);
+
+        assertEquals(12, report.iterations());
+        assertEquals(12, report.stepCount("1 遷移 /top"));
+        assertEquals(12, report.stepCount("2 遷移 /search"));
+        assertEquals(4, report.stepErrors("2 遷移 /search"));
+        assertEquals(4, report.failedIterations());
+
+        Path file = folder.getRoot().toPath().resolve("reports/load-search.json");
+        report.write(file);
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        assertEquals(4, json.at("/steps/2 遷移 ~1search/errors").asInt());
+        assertEquals(4, json.at("/errors/2 遷移 ~1search: HTTP 500").asInt());
+        assertTrue(json.at("/timeline/0/errorRate").asDouble() > 0);
+        assertTrue(report.toText().contains("(scenario)"));
+    }
+
+    @Test
+    public void testReusedSessionRunsIterationsUntilAFailure() {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger iterations = new AtomicInteger();
+        AtomicInteger executed = new AtomicInteger();
+        LoadRunner.SessionFactory sessions = () -> {
+            opened.incrementAndGet();
+            return new LoadRunner.Session() {
+                @Override
+                public void startIteration() {
+                    iterations.incrementAndGet();
+                }
+
+                @Override
+                public void execute(ScenarioStep step) {
+                    // 3回目の実行の検索で失敗させる
+                    if (executed.incrementAndGet() == 6) {
+                        throw new IllegalStateException("HTTP 500");
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        };
+
+        LoadReport report = new LoadRunner(new LoadProfile(1, 0, 5, 0, 0, true))
+                .run(new Scenario("soak.csv", List.of(TOP, SEARCH)), sessions);
+
+        assertEquals(5, report.iterations());
+        assertEquals(1, report.failedIterations());
+        assertEquals(5, iterations.get());
+        // 失敗した回の後だけセッションを作り直す
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    public void testErrorMessagesAreNormalizedAndCapped() throws Exception {
+        AtomicInteger executed = new AtomicInteger();
+        // 回ごとに異なる（ID を含む）複数行のメッセージで失敗させる
+        LoadRunner.SessionFactory sessions = () -> new LoadRunner.Session() {
+            @Override
+            public void execute(ScenarioStep step) {
+                throw new IllegalStateException("  Order " + executed.incrementAndGet() + " failed: " + "x".repeat(300)
+                        + "\n    at com.example.Checkout.submit(Checkout.java:42)");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        LoadReport report = new LoadRunner(new LoadProfile(1, 0, 80, 0, 0))
+                .run(new Scenario("orders.csv", List.of(TOP)), sessions);
+
+        Path file = folder.getRoot().toPath().resolve("reports/load-orders.json");
+        report.write(file);
+        JsonNode errors = new ObjectMapper().readTree(file.toFile()).get("errors");
+        assertEquals(LoadReport.MAX_ERROR_MESSAGES + 1, errors.size());
+        assertEquals(80 - LoadReport.MAX_ERROR_MESSAGES, errors.get("1 遷移 /top: " + LoadReport.OTHER_ERRORS).asInt());
+        errors.fieldNames().forEachRemaining(key -> {
+            assertTrue(key, key.startsWith("1 遷移 /top: "));
+            assertTrue(key, !key.contains("Checkout.java"));
+            assertTrue(key, key.length() <= "1 遷移 /top: ".length() + LoadReport.MAX_ERROR_LENGTH + 3);
+        });
+    }
+
+    @Test(timeout = 5000)
+    public void testUserStopsWhenSessionIsUnavailable() {
+        AtomicInteger opened = new AtomicInteger();
+        // ブラウザを起動できない場合、制限時間（10秒）まで作成を繰り返さずにユーザーを止める
+        LoadRunner.SessionFactory sessions = () -> {
+            opened.incrementAndGet();
+            throw new LoadRunner.SessionUnavailableException("Failed to launch browser chromium",
+                    new IllegalStateException("Executable doesn't exist"));
+        };
+
+        LoadReport report = new LoadRunner(new LoadProfile(2, 10_000, 0, 0, 0))
+                .run(new Scenario("load.csv", List.of(TOP, SEARCH)), sessions);
+
+        assertEquals(2, opened.get());
+        assertEquals(2, report.iterations());
+        assertEquals(2, report.failedIterations());
+    }
+
+    @Test
+    public void testHistogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.max());
+        assertEquals(50_000, histogram.percentile(50), 50_000 * 0.016);
+        assertEquals(99_000, histogram.percentile(99), 99_000 * 0.016);
+        assertEquals(1, histogram.percentile(0.001));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.base.BrowserFactory;
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.runner.MatrixReport;
+import com.example.playwright.runner.MatrixRunner;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioResult;
+import com.example.playwright.runner.ScenarioStep;
+import com.example.playwright.runner.WorkerPool;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.PlaywrightException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * マトリクス実行のブラウザ別比較のテスト
+ */
+public class MatrixReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ScenarioResult passed(String name, long millis) {
+        return new ScenarioResult(name, true, null, null, millis);
+    }
+
+    @Test
+    public void testRatiosAreRelativeToFastestPassingBrowser() throws Exception {
+        MatrixReport report = new MatrixReport(List.of("chromium", "firefox", "webkit"));
+        report.add("login.csv", "chromium", passed(MatrixRunner.instanceName("login.csv", "chromium"), 1000));
+        report.add("login.csv", "firefox", passed(MatrixRunner.instanceName("login.csv", "firefox"), 1500));
+        report.add("login.csv", "webkit", new ScenarioResult("login.csv [webkit]", false, "3", "Timeout", 400));
+        report.add("search.csv", "chromium", passed("search.csv [chromium]", 800));
+        report.add("search.csv", "firefox", passed("search.csv [firefox]", 400));
+        report.add("search.csv", "webkit", passed("search.csv [webkit]", 600));
+
+        assertEquals(1.5, report.ratio("login.csv", "firefox"), 1e-9);
+        assertNull(report.ratio("login.csv", "webkit"));
+        assertEquals(2.0, report.ratio("search.csv", "chromium"), 1e-9);
+        assertEquals(1.5, report.medianRatio("chromium"), 1e-9);
+        assertEquals(1.5, report.medianRatio("webkit"), 1e-9);
+        assertEquals(1, report.failed());
+        assertEquals("login.csv [chromium]", report.results().get(0).scenarioName());
+        assertEquals(6, report.results().size());
+
+        String text = report.toText();
+        assertTrue(text, text.contains("1500 ms (1.50)"));
+        assertTrue(text, text.contains("NG"));
+        assertTrue(report.toHtml().contains("<td class=\"num ng\">NG</td>"));
+
+        Path file = folder.getRoot().toPath().resolve("reports/matrix.json");
+        report.write(file);
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        assertEquals("Timeout", json.at("/scenarios/login.csv/webkit/message").asText());
+        assertEquals(2, json.at("/summary/firefox/passed").asInt());
+        assertEquals(1900, json.at("/summary/firefox/totalMillis").asLong());
+    }
+
+    @Test
+    public void testChromiumColumnUsesBundledBrowserAndChromeColumnUsesChannel() {
+        TestConfig config = TestConfig.of(Map.of("playwright.useSystemBrowser", "true"));
+
+        assertNull(BrowserFactory.createLaunchOptions(MatrixRunner.browserConfig(config, "chromium")).channel);
+        assertEquals("chrome", BrowserFactory.createLaunchOptions(MatrixRunner.browserConfig(config, "chrome")).channel);
+        assertEquals("msedge", BrowserFactory.createLaunchOptions(MatrixRunner.browserConfig(config, "msedge")).channel);
+        assertNull(BrowserFactory.createLaunchOptions(MatrixRunner.browserConfig(config, "firefox")).channel);
+        // 通常の実行（マトリクス以外）では従来どおり chromium も Chrome で起動する
+        assertEquals("chrome", BrowserFactory.createLaunchOptions(config.withBrowser("chromium")).channel);
+    }
+
+    @Test(timeout = 30000)
+    public void testBrowserThatFailsToLaunchIsReportedAsNg() {
+        TestConfig config = TestConfig.of(Map.of("runner.threads", "2"));
+        // chromium は起動できるがコンテキストを作れないスタブ、firefox は起動に失敗する
+        Browser stub = (Browser) Proxy.newProxyInstance(Browser.class.getClassLoader(), new Class<?>[]{Browser.class},
+                (proxy, method, args) -> {
+                    throw new IllegalStateException("context refused");
+                });
+        List<Scenario> scenarios = List.of(
+                new Scenario("login.csv", List.of(new ScenarioStep("1", "遷移", "https://example.com/", "", "", ""))),
+                new Scenario("search.csv", List.of(new ScenarioStep("1", "遷移", "https://example.com/s", "", "", ""))));
+        MatrixReport report;
+        try (WorkerPool pool = new WorkerPool(config, 2, Map.of(), browser -> {
+            if (browser.equals("firefox")) {
+                throw new PlaywrightException("Executable doesn't exist: firefox");
+            }
+            return stub;
+        })) {
+            report = new MatrixRunner(config, pool).run(scenarios, List.of("chromium", "firefox"), false);
+        }
+
+        assertEquals(4, report.failed());
+        assertEquals("Executable doesn't exist: firefox", report.result("login.csv", "firefox").message());
+        assertEquals("Executable doesn't exist: firefox", report.result("search.csv", "firefox").message());
+        assertEquals("context refused", report.result("login.csv", "chromium").message());
+        assertEquals("search.csv [firefox]", report.result("search.csv", "firefox").scenarioName());
+        assertTrue(report.toHtml().contains("<td class=\"num ng\">NG</td>"));
+    }
+
+    @Test(timeout = 30000)
+    public void testBrowserWhoseRunThrowsIsReportedAsNgAndOtherColumnsAreKept() {
+        TestConfig config = TestConfig.of(Map.of("runner.threads", "2"));
+        Browser stub = (Browser) Proxy.newProxyInstance(Browser.class.getClassLoader(), new Class<?>[]{Browser.class},
+                (proxy, method, args) -> {
+                    throw new IllegalStateException("context refused");
+                });
+        List<Scenario> scenarios = List.of(
+                new Scenario("login.csv", List.of(new ScenarioStep("1", "遷移", "https://example.com/", "", "", ""))),
+                new Scenario("search.csv", List.of(new ScenarioStep("2", "遷移", "https://example.com/s", "", "", ""))));
+        MatrixReport report;
+        // webkit のタスクの投入自体が失敗する（ランナーの run() が例外で終わる）
+        try (WorkerPool pool = new WorkerPool(config, 2, Map.of(), browser -> stub) {
+            @Override
+            public void submit(TestConfig browserConfig, Consumer<Supplier<Browser>> task) {
+                if (browserConfig.getBrowser().equals("webkit")) {
+                    throw new IllegalStateException("pool rejected webkit");
+                }
+                super.submit(browserConfig, task);
+            }
+        }) {
+            report = new MatrixRunner(config, pool).run(scenarios, List.of("chromium", "webkit"), false);
+        }
+
+        assertEquals(4, report.results().size());
+        assertEquals("context refused", report.result("login.csv", "chromium").message());
+        assertEquals("pool rejected webkit", report.result("login.csv", "webkit").message());
+        assertEquals("2", report.result("search.csv", "webkit").failedStep());
+        assertEquals("search.csv [webkit]", report.result("search.csv", "webkit").scenarioName());
+    }
+}
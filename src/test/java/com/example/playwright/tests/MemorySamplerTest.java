@@ -0,0 +1,95 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.DriverCallStats;
+import com.example.playwright.utils.MemorySampler;
+import com.example.playwright.utils.PerformanceLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.Page;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * メモリ指標の取得のテスト（CDP を使うため Chromium で実行する）
+ */
+public class MemorySamplerTest extends PageTestSupport {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void closeLog() {
+        PerformanceLog.closeAll();
+    }
+
+    @Test(timeout = 60000)
+    public void testSampleIsRecordedPerStep() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("memory.jsonl");
+        page.setContent("<ul>" + "<li>item</li>".repeat(100) + "</ul>");
+        MemorySampler sampler = new MemorySampler(file, 3);
+
+        // driver.callStats で計測用に包んだページでも CDP セッションを作れる
+        Map<String, Double> values = sampler.sample(DriverCallStats.instrument(page), "memory.csv", "1 遷移");
+        assertNotNull(values);
+        assertTrue(values.toString(), values.get("Nodes") >= 100);
+        assertTrue(values.toString(), values.get("JSHeapUsedSize") > 0);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        JsonNode record = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("memory.csv", record.get("scenario").asText());
+        assertEquals(1, record.get("iteration").asInt());
+        assertEquals("1 遷移", record.get("step").asText());
+        assertEquals(values.get("Nodes").longValue(), record.get("Nodes").asLong());
+    }
+
+    @Test(timeout = 60000)
+    public void testGrowingDomIsReportedAsLeakSuspect() {
+        Path file = folder.getRoot().toPath().resolve("memory.jsonl");
+        page.setContent("<div id='list'></div>");
+        MemorySampler sampler = new MemorySampler(file, 3);
+
+        // 回ごとに要素を追加したまま残すページ（床が回ごとに増え続ける）
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                sampler.nextIteration();
+            }
+            page.evaluate("() => document.querySelector('#list')"
+                    + ".insertAdjacentHTML('beforeend', '<p>row</p>'.repeat(200))");
+            sampler.sample(page, "memory.csv", "1 追加");
+            sampler.sample(page, "memory.csv", "2 確認");
+        }
+
+        List<String> suspects = sampler.checkLeaks("memory.csv");
+        assertTrue(suspects.toString(), suspects.stream().anyMatch(suspect -> suspect.startsWith("Nodes: ")));
+    }
+
+    @Test(timeout = 60000)
+    public void testSwitchingWindowsOpensANewSession() {
+        Path file = folder.getRoot().toPath().resolve("memory.jsonl");
+        page.setContent("<p>first</p>");
+        MemorySampler sampler = new MemorySampler(file, 3);
+        assertNotNull(sampler.sample(page, "memory.csv", "1 遷移"));
+
+        Page popup = page.context().newPage();
+        popup.setContent("<p>second</p>");
+        assertNotNull(sampler.sample(popup, "memory.csv", "2 newwindow"));
+        popup.close();
+
+        // 閉じたページは記録しない
+        assertNull(sampler.sample(popup, "memory.csv", "3 close"));
+        assertNotNull(sampler.sample(page, "memory.csv", "4 遷移"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.NetworkWatcher;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 通信待機で使うURLのglob変換のテスト
+ */
+public class NetworkWatcherTest {
+
+    @Test
+    public void testSingleStarDoesNotCrossPathSegments() {
+        Pattern pattern = NetworkWatcher.globToRegex("https://shop.example.com/api/*/items");
+        assertTrue(pattern.matcher("https://shop.example.com/api/cart/items").matches());
+        assertFalse(pattern.matcher("https://shop.example.com/api/cart/1/items").matches());
+    }
+
+    @Test
+    public void testDoubleStarAndPlainSubstring() {
+        assertTrue(NetworkWatcher.globToRegex("**/api/cart?id=*").matcher("https://a.example.com/v1/api/cart?id=3").matches());
+        assertTrue(NetworkWatcher.globToRegex("/api/search").matcher("https://a.example.com/api/search?q=x").matches());
+        assertFalse(NetworkWatcher.globToRegex("/api/search").matcher("https://a.example.com/api/cart").matches());
+    }
+}
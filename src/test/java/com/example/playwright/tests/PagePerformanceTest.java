@@ -0,0 +1,106 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.PagePerformance;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ページ性能の取得のテスト（Navigation Timing・Resource Timing を得るためローカルのサーバーから読み込む）
+ */
+public class PagePerformanceTest extends PageTestSupport {
+
+    private static final String HTML = "<h1>perf</h1><img src='/logo.svg'><script src='/app.js'></script>";
+    private static final String SVG = "<svg xmlns='http://www.w3.org/2000/svg' width='10' height='10'/>";
+
+    private static HttpServer server;
+    private static String base;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String type = path.endsWith(".svg") ? "image/svg+xml" : path.endsWith(".js") ? "text/javascript" : "text/html";
+            byte[] body = (path.endsWith(".svg") ? SVG : path.endsWith(".js") ? "window.loaded = true;" : HTML)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", type);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test(timeout = 60000)
+    public void testNavigationAndResourcesAreCollected() {
+        page.navigate(base + "/index.html");
+        ObjectNode metrics = PagePerformance.collect(page);
+
+        JsonNode navigation = metrics.path("navigation");
+        assertTrue(metrics.toString(), navigation.has("ttfb"));
+        assertTrue(metrics.toString(), navigation.get("load").asLong() >= navigation.get("domContentLoaded").asLong());
+        assertEquals(2, metrics.at("/resources/count").asInt());
+        assertEquals(1, metrics.at("/resources/byType/img/count").asInt());
+        assertEquals(1, metrics.at("/resources/byType/script/count").asInt());
+        assertEquals(2, metrics.at("/resources/slowest").size());
+
+        assertFalse(metrics.path("supportedEntryTypes").isEmpty());
+        String summary = PagePerformance.summary(metrics);
+        assertTrue(summary, summary.contains("TTFB ") && summary.contains("requests 2"));
+    }
+
+    @Test(timeout = 60000)
+    public void testResourcesCanBeLimitedToTheStep() {
+        page.navigate(base + "/index.html");
+        long since = ((Number) page.evaluate("() => performance.timeOrigin + performance.now()")).longValue();
+        page.evaluate("() => fetch('/app.js?step=2').then((response) => response.text())");
+
+        ObjectNode metrics = PagePerformance.collect(page, since);
+        assertEquals(metrics.toString(), 1, metrics.at("/resources/count").asInt());
+        assertEquals(1, metrics.at("/resources/byType/fetch/count").asInt());
+    }
+
+    @Test(timeout = 60000)
+    public void testUnsupportedMetricsAreLeftEmpty() {
+        page.setContent("<p>inline</p>");
+        ObjectNode metrics = PagePerformance.collect(page);
+
+        // ブラウザが対応していない種類のエントリは null（Long Task は空オブジェクト）で返す
+        for (String type : new String[] { "largest-contentful-paint", "layout-shift", "longtask" }) {
+            boolean supported = false;
+            for (JsonNode entryType : metrics.path("supportedEntryTypes")) {
+                supported |= entryType.asText().equals(type);
+            }
+            JsonNode value = switch (type) {
+                case "largest-contentful-paint" -> metrics.path("lcp");
+                case "layout-shift" -> metrics.path("cls");
+                default -> metrics.path("longTasks").path("count");
+            };
+            if (!supported) {
+                assertTrue(type + ": " + metrics, value.isNull() || value.isMissingNode());
+            }
+        }
+        assertEquals(0, metrics.at("/resources/count").asInt());
+    }
+}
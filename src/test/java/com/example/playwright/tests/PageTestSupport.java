@@ -0,0 +1,29 @@
+package com.example.playwright.tests;
+
+import com.microsoft.playwright.Page;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+
+/**
+ * page.setContent() で用意したページに対して動作を確かめるテストの基底クラス
+ *
+ * ブラウザを起動できない環境（ブラウザ未インストール等）ではテストをスキップする。
+ */
+public abstract class PageTestSupport {
+    @ClassRule
+    public static final BrowserResource BROWSER = new BrowserResource();
+    protected Page page;
+
+    @Before
+    public void openPage() {
+        page = BROWSER.newPage();
+    }
+
+    @After
+    public void closePage() {
+        if (page != null) {
+            page.context().close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.PerformanceBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 性能予算の解析と判定のテスト
+ */
+public class PerformanceBudgetTest {
+
+    private static final String METRICS = """
+            { "url": "https://app.example.com/top", "lcp": 3120, "cls": 0.05,
+              "navigation": { "ttfb": 180, "load": 2100 },
+              "longTasks": { "count": 2, "blockingTime": 140 },
+              "resources": { "count": 64, "transferSize": 2097152 } }
+            """;
+
+    @Test
+    public void testViolationsReportMeasuredValues() throws Exception {
+        JsonNode metrics = new ObjectMapper().readTree(METRICS);
+        List<PerformanceBudget> budgets = PerformanceBudget.parse("LCP < 2500ms; requests < 80; transfer < 1.5MB; cls <= 0.1");
+
+        assertEquals(4, budgets.size());
+        assertEquals(1.5 * 1024 * 1024, budgets.get(2).limit(), 0.001);
+        assertEquals("LCP = 3120ms（予算: LCP < 2500ms）", budgets.get(0).violation(metrics));
+        assertNull(budgets.get(1).violation(metrics));
+        assertEquals("TRANSFER = 2048.0KB（予算: transfer < 1.5MB）", budgets.get(2).violation(metrics));
+        assertNull(budgets.get(3).violation(metrics));
+        // 計測できない指標は予算を確認できないため違反にする
+        assertEquals("FCP を計測できません（予算: fcp < 1s）", PerformanceBudget.parse("fcp < 1s").get(0).violation(metrics));
+    }
+
+    @Test
+    public void testMetricsTheBrowserCannotMeasureAreUnsupported() throws Exception {
+        // WebKit 相当（LCP・CLS・Long Task の PerformanceObserver が無い）
+        JsonNode metrics = new ObjectMapper().readTree("""
+                { "fcp": null, "lcp": null, "cls": null, "longTasks": {},
+                  "navigation": { "ttfb": 180 }, "resources": { "count": 3 },
+                  "supportedEntryTypes": [ "navigation", "paint", "resource" ] }
+                """);
+        List<PerformanceBudget> budgets = PerformanceBudget.parse("lcp < 2.5s; cls < 0.1; tbt < 200; fcp < 1s; ttfb < 800");
+
+        assertFalse(budgets.get(0).isSupported(metrics));
+        assertFalse(budgets.get(1).isSupported(metrics));
+        assertFalse(budgets.get(2).isSupported(metrics));
+        // 対応している指標が計測できない場合は違反のまま
+        assertTrue(budgets.get(3).isSupported(metrics));
+        assertEquals("FCP を計測できません（予算: fcp < 1s）", budgets.get(3).violation(metrics));
+        assertTrue(budgets.get(4).isSupported(metrics));
+        assertNull(budgets.get(4).violation(metrics));
+        // 対応状況が記録されていない計測結果では全て対応しているものとして扱う
+        assertTrue(budgets.get(0).isSupported(new ObjectMapper().readTree(METRICS)));
+    }
+
+    @Test
+    public void testGlobalBudgetsAreSelectedByUrlPattern() {
+        Map<String, String> definitions = Map.of(
+                "top", "https://app.example.com/top | LCP < 2.5s",
+                "api", "**/api/** | requests < 5");
+
+        List<PerformanceBudget> budgets = PerformanceBudget.forUrl(definitions, "https://app.example.com/top");
+        assertEquals(1, budgets.size());
+        assertEquals(2500, budgets.get(0).limit(), 0.001);
+        assertEquals(0, PerformanceBudget.forUrl(definitions, "https://app.example.com/other").size());
+
+        try {
+            PerformanceBudget.parse("speed < 10");
+            fail("Unknown metric should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown performance metric: speed", e.getMessage());
+        }
+    }
+}
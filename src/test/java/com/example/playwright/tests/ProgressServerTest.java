@@ -0,0 +1,79 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.ProgressServer;
+import com.example.playwright.runner.ProgressTracker;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioResult;
+import com.example.playwright.runner.ScenarioStep;
+import com.example.playwright.runner.StepRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 進行状況の集計と SSE 配信のテスト
+ */
+public class ProgressServerTest {
+
+    private static final ScenarioStep LOGIN = new ScenarioStep("1", "遷移", "/login", "", "", "");
+    private static final ScenarioStep CLICK = new ScenarioStep("2", "クリック", "#submit", "", "", "");
+
+    @Test
+    public void testTrackerCountsScenariosAndInFlightSteps() throws Exception {
+        ProgressTracker tracker = new ProgressTracker();
+        Scenario a = new Scenario("a.csv", List.of(LOGIN, CLICK));
+        Scenario b = new Scenario("b.csv", List.of(LOGIN));
+        Scenario c = new Scenario("c.csv", List.of(LOGIN));
+        tracker.scenarioQueued(a);
+        tracker.scenarioQueued(b);
+        tracker.scenarioQueued(c);
+
+        // a と b が先頭ステップを共有して実行
+        tracker.stepStarted(List.of(a, b), LOGIN);
+        tracker.stepFinished(new StepRecord("a.csv", LOGIN, 100, null, List.of()));
+        tracker.stepFinished(new StepRecord("b.csv", LOGIN, 100, null, List.of()));
+        tracker.scenarioFinished(new ScenarioResult("b.csv", true, null, null, 100));
+        tracker.stepStarted(List.of(a), CLICK);
+
+        JsonNode progress = new ObjectMapper().readTree(tracker.toJson(5));
+        assertEquals(1, progress.get("queued").asInt());
+        assertEquals(1, progress.get("running").asInt());
+        assertEquals(1, progress.get("done").asInt());
+        assertEquals(1, progress.get("stepsDone").asInt());
+        JsonNode worker = progress.get("workers").get(Thread.currentThread().getName());
+        assertEquals("a.csv", worker.get("scenarios").asText());
+        assertEquals("クリック", worker.get("action").asText());
+        assertEquals("2", progress.get("slowest").get(0).get("step").asText());
+
+        tracker.workerIdle();
+        assertEquals(0, new ObjectMapper().readTree(tracker.toJson(5)).get("workers").size());
+    }
+
+    @Test
+    public void testEventsArePushedAsServerSentEvents() throws Exception {
+        ProgressTracker tracker = new ProgressTracker();
+        tracker.scenarioQueued(new Scenario("a.csv", List.of(LOGIN)));
+        try (ProgressServer server = new ProgressServer(0, tracker)) {
+            HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + server.port() + "/events")
+                    .toURL().openConnection();
+            assertTrue(connection.getContentType().startsWith("text/event-stream"));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                assertTrue(line, line.startsWith("data: "));
+                assertEquals(1, new ObjectMapper().readTree(line.substring("data: ".length())).get("queued").asInt());
+            }
+            connection.disconnect();
+        }
+    }
+}
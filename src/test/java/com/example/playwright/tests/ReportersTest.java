@@ -0,0 +1,86 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.HtmlReporter;
+import com.example.playwright.runner.JUnitXmlReporter;
+import com.example.playwright.runner.ScenarioResult;
+import com.example.playwright.runner.ScenarioStep;
+import com.example.playwright.runner.StepRecord;
+import com.example.playwright.utils.StepTraffic;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit XML・HTMLレポートの逐次書き出しのテスト
+ */
+public class ReportersTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final ScenarioStep CLICK = new ScenarioStep("3", "クリック", "#login", "", "", "");
+    private static final ScenarioStep VERIFY = new ScenarioStep("4", "確認", "title", "<Welcome>", "", "");
+
+    @Test
+    public void testStepsAreWrittenAsTheyFinish() throws Exception {
+        Path reports = folder.getRoot().toPath().resolve("reports");
+        Path shot = folder.getRoot().toPath().resolve("screenshots/login_step4.png");
+        Path xml = reports.resolve("TEST-csv-scenarios.xml");
+
+        try (JUnitXmlReporter junit = new JUnitXmlReporter(xml)) {
+            junit.stepFinished(new StepRecord("login.csv", CLICK, 120, null, List.of()));
+            // 閉じる前でもステップはファイルに書き出されている
+            assertTrue(Files.readString(xml, StandardCharsets.UTF_8).contains("ステップ 3: クリック #login"));
+            junit.stepFinished(new StepRecord("login.csv", VERIFY, 5000, "Title <Welcome> not found", List.of(shot.toString())));
+        }
+
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(xml.toFile());
+        assertEquals(2, document.getElementsByTagName("testcase").getLength());
+        assertEquals("Title <Welcome> not found",
+                document.getElementsByTagName("failure").item(0).getAttributes().getNamedItem("message").getNodeValue());
+    }
+
+    @Test
+    public void testHtmlLinksArtifactsRelativeToReport() throws Exception {
+        Path report = folder.getRoot().toPath().resolve("reports/report.html");
+        Path shot = folder.getRoot().toPath().resolve("screenshots/login#1_step4.png");
+
+        try (HtmlReporter html = new HtmlReporter(report)) {
+            html.stepFinished(new StepRecord("login.csv", VERIFY, 5000, "Title <Welcome> not found", List.of(shot.toString())));
+            html.scenarioFinished(new ScenarioResult("login.csv", false, "4", "Title <Welcome> not found", 5120));
+        }
+
+        String content = Files.readString(report, StandardCharsets.UTF_8);
+        assertTrue(content.contains("href=\"../screenshots/login%231_step4.png\""));
+        assertTrue(content.contains("NG: Title &lt;Welcome&gt; not found"));
+        assertTrue(content.contains("成功 0 / 失敗 1"));
+    }
+
+    @Test
+    public void testHtmlShowsStepTrafficAndScenarioTotal() throws Exception {
+        Path report = folder.getRoot().toPath().resolve("reports/report.html");
+        StepTraffic traffic = new StepTraffic();
+        traffic.add(new StepTraffic.Entry("GET", "https://ads.example.net/x.js", 0, 0, 30, "net::ERR_FAILED"), true);
+
+        try (HtmlReporter html = new HtmlReporter(report)) {
+            html.stepFinished(new StepRecord("login.csv", CLICK, 120, null, List.of(), traffic));
+            html.stepFinished(new StepRecord("login.csv", VERIFY, 80, null, List.of(), traffic));
+            html.scenarioFinished(new ScenarioResult("login.csv", true, null, null, 200));
+        }
+
+        String content = Files.readString(report, StandardCharsets.UTF_8);
+        assertTrue(content.contains("NG: GET https://ads.example.net/x.js net::ERR_FAILED 30 ms"));
+        assertTrue(content.contains("合計 2 件, 0 B, 第三者 100% (2 件 / 0 B), 失敗 2"));
+        assertTrue(content.contains("ads.example.net: 2 件"));
+    }
+}
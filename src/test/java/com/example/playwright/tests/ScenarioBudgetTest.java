@@ -0,0 +1,52 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioCsvReader;
+import com.example.playwright.utils.TimeBudget;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * シナリオの制限時間のテスト
+ */
+public class ScenarioBudgetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTimeoutFromCsvMetadataOverridesConfig() throws Exception {
+        Path csv = folder.getRoot().toPath().resolve("checkout.csv");
+        Files.writeString(csv, "#timeout=90s\nステップ,アクション,要素,入力値,期待結果,説明\n1,アクセス,https://example.com,,,\n",
+                StandardCharsets.UTF_8);
+        TestConfig config = TestConfig.of(Map.of("scenario.timeout", "600000"));
+
+        Scenario scenario = ScenarioCsvReader.readScenario(csv);
+        assertEquals(1, scenario.steps().size());
+        assertEquals(90_000, scenario.timeoutMillis(config));
+        assertEquals(600_000, new Scenario("other.csv", List.of()).timeoutMillis(config));
+    }
+
+    @Test
+    public void testCapUsesRemainingBudget() {
+        assertEquals(30000.0, TimeBudget.unlimited().cap(30000), 0.0);
+        double capped = TimeBudget.ofMillis(2000).cap(30000);
+        assertTrue(capped <= 2000 && capped > 1000);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExhaustedBudgetFails() {
+        TimeBudget.ofMillis(0).cap(30000);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioPrefixTree;
+import com.example.playwright.runner.ScenarioStep;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * プレフィックスツリー構築のテスト
+ */
+public class ScenarioPrefixTreeTest {
+
+    private static ScenarioStep step(String no, String action, String element, String input) {
+        return new ScenarioStep(no, action, element, input, "", "");
+    }
+
+    @Test
+    public void testSharedPrefixIsMergedAndSuffixesBranch() {
+        Scenario a = new Scenario("a.csv", List.of(
+                step("1", "アクセス", "https://example.com", ""),
+                step("2", "クリック", "#login", ""),
+                step("3", "入力", "#q", "apple")));
+        Scenario b = new Scenario("b.csv", List.of(
+                step("1", "navigate", "https://example.com", ""),
+                step("2", "クリック", "#login", ""),
+                step("3", "入力", "#q", "banana")));
+        Scenario c = new Scenario("c.csv", List.of(
+                step("1", "アクセス", "https://example.com", "")));
+
+        ScenarioPrefixTree tree = ScenarioPrefixTree.build(List.of(a, b, c));
+
+        // アクション名の表記が異なる場合は共有しない
+        assertEquals(2, tree.root().children().size());
+        ScenarioPrefixTree.Node access = tree.root().children().get(0);
+        assertEquals(List.of(a, c), access.scenarios());
+        assertEquals(List.of(c), access.endingHere());
+
+        ScenarioPrefixTree.Node login = access.children().get(0);
+        assertEquals(1, login.children().size());
+        assertEquals(7, tree.totalSteps());
+        assertEquals(6, tree.uniqueSteps());
+    }
+
+    @Test
+    public void testIdenticalStepsWithDifferentStepNumbersAreShared() {
+        Scenario a = new Scenario("a.csv", List.of(step("1", "クリック", "#menu", ""), step("2", "クリック", "#x", "")));
+        Scenario b = new Scenario("b.csv", List.of(step("10", "クリック", "#menu", ""), step("11", "クリック", "#y", "")));
+
+        ScenarioPrefixTree tree = ScenarioPrefixTree.build(List.of(a, b));
+
+        assertEquals(1, tree.root().children().size());
+        assertEquals(2, tree.root().children().get(0).children().size());
+        assertEquals(3, tree.uniqueSteps());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.runner.DataRowReader;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioStep;
+import com.example.playwright.runner.ScenarioTemplate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * プレースホルダー埋め込みとデータ行読み込みのテスト
+ */
+public class ScenarioTemplateTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResolveWithAndWithoutNamespace() {
+        Map<String, String> values = Map.of("email", "a@example.com", "name", "山田");
+        assertEquals("a@example.com", ScenarioTemplate.resolve("${customer.email}", "customer", values));
+        assertEquals("山田様", ScenarioTemplate.resolve("${name}様", "customer", values));
+        assertEquals("#email", ScenarioTemplate.resolve("#email", "customer", values));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnboundPlaceholderFails() {
+        ScenarioTemplate.resolve("${customer.phone}", "customer", Map.of("email", "a@example.com"));
+    }
+
+    @Test
+    public void testRowsAreStreamedAndBound() throws Exception {
+        Path data = folder.getRoot().toPath().resolve("customer.csv");
+        Files.writeString(data, "email,name\na@example.com,\"Yamada, Taro\"\n\nb@example.com,Suzuki\n",
+                StandardCharsets.UTF_8);
+        Scenario template = new Scenario("signup.csv", List.of(
+                new ScenarioStep("1", "入力", "#email", "${customer.email}", "", ""),
+                new ScenarioStep("2", "確認", "#name", "${customer.name}", "", "")));
+
+        try (DataRowReader rows = new DataRowReader(data)) {
+            assertEquals("customer", rows.namespace());
+            assertTrue(rows.hasNext());
+            Scenario first = ScenarioTemplate.bind(template, rows.namespace(), rows.next());
+            assertEquals("signup.csv#1", first.name());
+            assertEquals("a@example.com", first.steps().get(0).inputValue());
+            assertEquals("Yamada, Taro", first.steps().get(1).inputValue());
+
+            Scenario second = ScenarioTemplate.bind(template, rows.namespace(), rows.next());
+            assertEquals("signup.csv#2", second.name());
+            assertEquals("b@example.com", second.steps().get(0).inputValue());
+            assertFalse(rows.hasNext());
+        }
+    }
+}
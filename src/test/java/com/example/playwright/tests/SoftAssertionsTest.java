@@ -0,0 +1,77 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.AssertUtils;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ソフトアサーションのテスト（ページ評価の結果を固定値で返すスタブを使用）
+ */
+public class SoftAssertionsTest {
+
+    private static Page stubPage(AtomicInteger evaluateCalls, Object... actuals) {
+        return (Page) Proxy.newProxyInstance(Page.class.getClassLoader(), new Class<?>[] { Page.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("evaluate")) {
+                        evaluateCalls.incrementAndGet();
+                        return Arrays.asList(actuals);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    public void testAllChecksAreEvaluatedInOneCallAndAllMismatchesReported() {
+        AtomicInteger calls = new AtomicInteger();
+        Page page = stubPage(calls, "Dashboard - App", "山田", 2, true, "wrong");
+
+        List<String> failures = AssertUtils.softly(page)
+                .titleContains("Dashboard")
+                .elementText("#name", "山田太郎")
+                .elementCount(".item", 3)
+                .elementVisible("#menu")
+                .inputValue("#email", "a@example.com")
+                .verify();
+
+        assertEquals(1, calls.get());
+        assertEquals(3, failures.size());
+        assertTrue(failures.get(0).contains("#name"));
+        assertTrue(failures.get(1).contains(".item"));
+        assertTrue(failures.get(2).contains("#email"));
+    }
+
+    @Test
+    public void testAssertAllThrowsWithEveryFailure() {
+        Page page = stubPage(new AtomicInteger(), false, 0);
+        try {
+            AssertUtils.softly(page).checkboxChecked("#agree").elementCount("li", 1).assertAll();
+            fail("AssertionError expected");
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage().startsWith("2 件"));
+        }
+    }
+
+    @Test
+    public void testAssertAllRetriesUntilTheGivenTimeout() {
+        AtomicInteger calls = new AtomicInteger();
+        Page page = stubPage(calls, false);
+        long start = System.currentTimeMillis();
+        try {
+            AssertUtils.softly(page, 300).checkboxChecked("#agree").assertAll();
+            fail("AssertionError expected");
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("1 件"));
+        }
+        assertTrue(String.valueOf(calls.get()), calls.get() > 1);
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.StepTraffic;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ステップごとの通信量の集計のテスト
+ */
+public class StepTrafficTest {
+
+    private static StepTraffic.Entry entry(String url, int status, long bytes, double millis) {
+        return new StepTraffic.Entry("GET", url, status, bytes, millis, status >= 400 ? "HTTP " + status : null);
+    }
+
+    @Test
+    public void testStepTotalsSlowestAndThirdPartyShare() {
+        StepTraffic traffic = new StepTraffic();
+        traffic.add(entry("https://app.example.com/", 200, 3000, 120), false);
+        traffic.add(entry("https://app.example.com/api/items", 500, 1000, 900), false);
+        for (int i = 0; i < 6; i++) {
+            traffic.add(entry("https://cdn.tracker.net/t.js?" + i, 200, 1000, 10 * i), true);
+        }
+        traffic.addPending("https://cdn.tracker.net/beacon", true);
+
+        assertEquals(9, traffic.requests());
+        assertEquals(1, traffic.pending());
+        assertEquals(10_000, traffic.bytes());
+        assertEquals(7, traffic.thirdPartyRequests());
+        assertEquals(6000, traffic.thirdPartyBytes());
+        assertEquals(1, traffic.failedCount());
+        assertEquals("HTTP 500", traffic.failed().get(0).failure());
+        assertEquals(5, traffic.slowest().size());
+        assertEquals(900, traffic.slowest().get(0).durationMillis(), 0);
+        assertTrue(traffic.summary(), traffic.summary().startsWith("9 件, 9.8 KB, 第三者 60% (7 件 / 5.9 KB), 失敗 1, 未完了 1"));
+
+        Map.Entry<String, long[]> top = traffic.topHosts(1).get(0);
+        assertEquals("cdn.tracker.net", top.getKey());
+        assertEquals(7, top.getValue()[0]);
+    }
+
+    @Test
+    public void testMergeAccumulatesScenarioTotals() {
+        StepTraffic first = new StepTraffic();
+        first.add(entry("https://app.example.com/", 200, 500, 50), false);
+        StepTraffic second = new StepTraffic();
+        second.add(entry("https://app.example.com/slow", 404, 200, 700), false);
+
+        StepTraffic total = new StepTraffic();
+        total.merge(first);
+        total.merge(second);
+        assertEquals(2, total.requests());
+        assertEquals(700, total.bytes());
+        assertEquals(1, total.failedCount());
+        assertEquals("https://app.example.com/slow", total.slowest().get(0).url());
+    }
+
+    @Test
+    public void testSiteGroupsSubdomainsAndCountrySuffixes() {
+        assertEquals("example.com", StepTraffic.site("static.cdn.example.com"));
+        assertEquals("example.co.jp", StepTraffic.site("www.example.co.jp"));
+        assertEquals("localhost", StepTraffic.site("localhost"));
+        assertEquals("127.0.0.1", StepTraffic.site("127.0.0.1"));
+        assertEquals("app.example.com", StepTraffic.host("https://App.Example.com:8443/path"));
+    }
+}
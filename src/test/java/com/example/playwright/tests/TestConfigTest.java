@@ -0,0 +1,38 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.config.TestConfig;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 設定スナップショットと上書きコピーのテスト
+ */
+public class TestConfigTest {
+
+    @Test
+    public void testOverriddenCopyLeavesOriginalUntouched() {
+        TestConfig base = TestConfig.of(Map.of("playwright.browser", "edge", "playwright.timeout", "30000",
+                "assert.timeout", "3000"));
+        TestConfig worker = base.withBrowser("firefox").withTimeout(10000).withBlockingProfile("media");
+
+        assertEquals("edge", base.getBrowser());
+        assertEquals(30000, base.getTimeout());
+        assertEquals("none", base.getBlockingProfile());
+        assertEquals("firefox", worker.getBrowser());
+        assertEquals(10000, worker.getTimeout());
+        assertEquals("media", worker.getBlockingProfile());
+        assertEquals(3000, worker.getAssertTimeout());
+    }
+
+    @Test
+    public void testFastProfileForcesHeadlessWithoutSlowMo() {
+        TestConfig config = TestConfig.of(Map.of("playwright.headless", "false", "playwright.slowMo", "100"))
+                .with("playwright.profile", "fast");
+        assertTrue(config.isHeadless());
+        assertEquals(0, config.getSlowMo());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.OtlpJsonExporter;
+import com.example.playwright.utils.Span;
+import com.example.playwright.utils.Tracer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * トレースの区間の入れ子と OTLP JSON 出力のテスト
+ */
+public class TracerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNestedSpansAreWrittenAsOtlpJson() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("reports/trace.jsonl");
+        try (OtlpJsonExporter exporter = Tracer.open(file)) {
+            try (Span scenario = Tracer.start("scenario").setAttribute("scenario", "login.csv")) {
+                try (Span step = Tracer.start("step").setAttribute("action", "クリック")) {
+                    try (Span probe = Tracer.start("probe").setAttribute("strategy", "text")) {
+                        probe.setAttribute("matched", false);
+                    }
+                    step.fail(new IllegalStateException("not found"));
+                }
+            }
+        }
+
+        Map<String, JsonNode> spans = new HashMap<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            JsonNode request = mapper.readTree(line);
+            for (JsonNode span : request.at("/resourceSpans/0/scopeSpans/0/spans")) {
+                spans.put(span.get("name").asText(), span);
+            }
+        }
+        assertEquals(3, spans.size());
+        JsonNode scenario = spans.get("scenario");
+        JsonNode step = spans.get("step");
+        JsonNode probe = spans.get("probe");
+        assertNull(scenario.get("parentSpanId"));
+        assertEquals(scenario.get("spanId").asText(), step.get("parentSpanId").asText());
+        assertEquals(step.get("spanId").asText(), probe.get("parentSpanId").asText());
+        assertEquals(scenario.get("traceId").asText(), probe.get("traceId").asText());
+        assertEquals(2, step.at("/status/code").asInt());
+        assertEquals("not found", step.at("/status/message").asText());
+        assertEquals(List.of("strategy", "matched", "outcome"),
+                List.of(probe.at("/attributes/0/key").asText(), probe.at("/attributes/1/key").asText(),
+                        probe.at("/attributes/2/key").asText()));
+        assertFalse(probe.at("/attributes/1/value/boolValue").asBoolean());
+        assertTrue(Long.parseLong(step.get("endTimeUnixNano").asText())
+                >= Long.parseLong(step.get("startTimeUnixNano").asText()));
+    }
+
+    @Test
+    public void testNothingIsRecordedWithoutExporter() {
+        try (Span span = Tracer.start("step")) {
+            span.setAttribute("action", "クリック");
+            assertNull(span.spanId());
+            assertTrue(span.attributes().isEmpty());
+        }
+    }
+}
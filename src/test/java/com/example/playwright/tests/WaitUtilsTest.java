@@ -0,0 +1,58 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.utils.WaitUtils;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 複数候補の待機のテスト（候補を同時に監視し、最大待機時間が候補数に比例しないこと）
+ */
+public class WaitUtilsTest extends PageTestSupport {
+
+    @Test(timeout = 60000)
+    public void testCandidateAppearingLaterIsReturnedBeforeTheTimeout() {
+        page.setContent("<div id='loading'>loading</div>");
+        page.evaluate("() => setTimeout(() => document.body.insertAdjacentHTML('beforeend', '<p id=done>done</p>'), 300)");
+
+        long start = System.currentTimeMillis();
+        int index = WaitUtils.waitForFirstVisible(List.of(page.locator("#error"), page.locator("#done")), 10000);
+        assertEquals(1, index);
+        assertTrue(String.valueOf(System.currentTimeMillis() - start), System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test(timeout = 60000)
+    public void testEarlierCandidateWinsWhenSeveralMatch() {
+        page.setContent("<p id='a'>a</p><p id='b'>b</p>");
+
+        assertEquals(0, WaitUtils.waitForFirstVisible(List.of(page.locator("#a"), page.locator("#b")), 1000));
+        assertEquals(1, WaitUtils.waitForFirstVisible(List.of(page.locator("#missing"), page.locator("#b")), 1000));
+    }
+
+    @Test(timeout = 60000)
+    public void testHiddenMatchDoesNotHideAVisibleCandidate() {
+        // 先頭の候補は非表示の要素に一致するが、表示中の2番目の候補が見つかる
+        page.setContent("<p class='msg' style='display:none'>hidden</p><p id='shown'>shown</p>");
+
+        assertEquals(1, WaitUtils.waitForFirstVisible(List.of(page.locator(".msg"), page.locator("#shown")), 1000));
+        assertEquals(0, WaitUtils.waitForFirst(List.of(page.locator(".msg"), page.locator("#shown")),
+                WaitForSelectorState.ATTACHED, 1000));
+    }
+
+    @Test(timeout = 60000)
+    public void testTimeoutIsSharedByAllCandidates() {
+        page.setContent("<p>nothing to wait for</p>");
+
+        long start = System.currentTimeMillis();
+        int index = WaitUtils.waitForFirstVisible(
+                List.of(page.locator("#a"), page.locator("#b"), page.locator("#c"), page.locator("#d")), 1000);
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(-1, index);
+        // 候補ごとに待機すると 4 倍の時間がかかる
+        assertTrue(String.valueOf(elapsed), elapsed >= 1000 && elapsed < 3000);
+    }
+}
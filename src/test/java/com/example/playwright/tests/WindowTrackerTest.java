@@ -0,0 +1,83 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.utils.TestActionExecutor;
+import com.example.playwright.utils.WindowTracker;
+import com.microsoft.playwright.Page;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ウィンドウの追跡と newwindow の切り替え先のテスト
+ */
+public class WindowTrackerTest extends PageTestSupport {
+
+    private static final TestConfig CONFIG = TestConfig.of(Map.of("playwright.timeout", "5000"));
+
+    private static final String OPENER = "<title>main</title>"
+            + "<button id='a' onclick=\"window.open('about:blank#a').document.title = 'A'\">A</button>"
+            + "<button id='b' onclick=\"window.open('about:blank#b').document.title = 'B'\">B</button>";
+
+    @Test(timeout = 60000)
+    public void testNewWindowAfterSwitchingByIndexReturnsTheWindowOpenedLast() {
+        page.setContent(OPENER);
+        TestActionExecutor executor = new TestActionExecutor(page, CONFIG);
+
+        executor.executeAction("click", "#a", "");
+        executor.executeAction("window", "1", "");
+        assertTrue(executor.getPage().url().endsWith("#a"));
+
+        executor.executeAction("window", "0", "");
+        executor.executeAction("click", "#b", "");
+        executor.executeAction("newwindow", "", "");
+        assertTrue(executor.getPage().url(), executor.getPage().url().endsWith("#b"));
+    }
+
+    @Test(timeout = 60000)
+    public void testNewWindowTakesTheLatestWindowOpenedByThePreviousStep() {
+        page.setContent(OPENER);
+        TestActionExecutor executor = new TestActionExecutor(page, CONFIG);
+
+        executor.executeAction("click", "#a", "");
+        executor.executeAction("click", "#b", "");
+        executor.executeAction("newwindow", "", "");
+        assertTrue(executor.getPage().url(), executor.getPage().url().endsWith("#b"));
+    }
+
+    @Test(timeout = 60000)
+    public void testWindowsClosedByTheApplicationLeaveTheList() {
+        page.setContent(OPENER);
+        WindowTracker tracker = new WindowTracker(page);
+
+        tracker.mark();
+        Page popup = page.waitForPopup(() -> page.click("#a"));
+        assertEquals(2, tracker.windows().size());
+        assertEquals(1, tracker.indexOf(popup));
+
+        popup.close();
+        assertEquals(1, tracker.windows().size());
+        assertEquals(page, tracker.previousOpenWindow(popup));
+    }
+
+    @Test(timeout = 60000)
+    public void testClaimedWindowIsNotReturnedAgain() {
+        page.setContent(OPENER);
+        WindowTracker tracker = new WindowTracker(page);
+
+        tracker.mark();
+        Page popup = page.waitForPopup(() -> page.click("#a"));
+        tracker.mark();
+        tracker.claim(popup);
+        try {
+            tracker.awaitNewWindow(500);
+            fail("claimed window was returned");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("No new window was opened"));
+        }
+    }
+}
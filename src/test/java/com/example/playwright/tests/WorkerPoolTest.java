@@ -0,0 +1,84 @@
+package com.example.playwright.tests;
+
+import com.example.playwright.config.TestConfig;
+import com.example.playwright.runner.DataRowReader;
+import com.example.playwright.runner.ParallelScenarioRunner;
+import com.example.playwright.runner.Scenario;
+import com.example.playwright.runner.ScenarioResult;
+import com.example.playwright.runner.ScenarioStep;
+import com.example.playwright.runner.WorkerPool;
+import com.microsoft.playwright.PlaywrightException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ワーカープールでブラウザを起動できない場合のテスト（実行が止まらず、全シナリオが失敗として記録されること）
+ */
+public class WorkerPoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final TestConfig CONFIG = TestConfig.of(Map.of("playwright.browser", "chromium", "runner.threads", "2"));
+
+    private static ScenarioStep step(String no, String url) {
+        return new ScenarioStep(no, "遷移", url, "", "", "");
+    }
+
+    @Test(timeout = 30000)
+    public void testLaunchFailureFailsEveryScenarioUnderTheNode() {
+        AtomicInteger launches = new AtomicInteger();
+        List<Scenario> scenarios = List.of(
+                new Scenario("a.csv", List.of(step("1", "https://example.com/"), step("2", "https://example.com/a"))),
+                new Scenario("b.csv", List.of(step("1", "https://example.com/"), step("2", "https://example.com/b"))),
+                new Scenario("c.csv", List.of(step("1", "https://example.com/c"))));
+        List<ScenarioResult> results;
+        try (WorkerPool pool = new WorkerPool(CONFIG, 2, Map.of(), browser -> {
+            launches.incrementAndGet();
+            throw new PlaywrightException("Executable doesn't exist: " + browser);
+        })) {
+            results = new ParallelScenarioRunner(CONFIG, pool).run(scenarios, true);
+        }
+
+        assertEquals(3, results.size());
+        for (ScenarioResult result : results) {
+            assertFalse(result.passed());
+            assertEquals("1", result.failedStep());
+            assertEquals("Executable doesn't exist: chromium", result.message());
+        }
+        // 起動の失敗はワーカーごとに記録され、同じワーカーでは起動をやり直さない
+        assertTrue(String.valueOf(launches.get()), launches.get() <= 2);
+    }
+
+    @Test(timeout = 30000)
+    public void testLaunchFailureReleasesDataDrivenSlots() throws Exception {
+        // 実行枠（スレッド数 × 2）より多い行でも、失敗したタスクが枠を返すため最後まで進む
+        Path data = folder.getRoot().toPath().resolve("users.csv");
+        StringBuilder csv = new StringBuilder("id\n");
+        for (int i = 1; i <= 10; i++) {
+            csv.append(i).append('\n');
+        }
+        Files.writeString(data, csv);
+        Scenario template = new Scenario("login.csv", List.of(step("1", "https://example.com/${users.id}")));
+        List<ScenarioResult> results;
+        try (WorkerPool pool = new WorkerPool(CONFIG, 2, Map.of(), browser -> {
+            throw new PlaywrightException("Executable doesn't exist: " + browser);
+        }); DataRowReader rows = new DataRowReader(data)) {
+            results = new ParallelScenarioRunner(CONFIG, pool).runDataDriven(template, rows);
+        }
+
+        assertEquals(10, results.size());
+        assertTrue(results.stream().noneMatch(ScenarioResult::passed));
+    }
+}